@@ -3,7 +3,6 @@ package student.adventure;
 import maplayout.*;
 
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class AdventureGame {
   // The various commands a player has access to via the input channel
@@ -51,13 +50,31 @@ public class AdventureGame {
   protected String gameStatusMessage;
   protected boolean shouldApplyAreaAffects;
 
+  // Decides squirrel attacks; each game has its own so a seeded game always plays out the same way
+  protected final Random random;
+
   /**
    * student.adventure.AdventureGame constructor that initializes the first environment variables and the initial player stats variables
    *
    * @param mapLayout represents the data that the game map is based on
    */
   public AdventureGame(MapLayout mapLayout) {
+    this(mapLayout, new Random());
+  }
+
+  /**
+   * student.adventure.AdventureGame constructor for a game whose random events are reproducible
+   *
+   * @param mapLayout represents the data that the game map is based on
+   * @param randomSeed the seed of every random event in the game, like squirrel attacks
+   */
+  public AdventureGame(MapLayout mapLayout, long randomSeed) {
+    this(mapLayout, new Random(randomSeed));
+  }
+
+  private AdventureGame(MapLayout mapLayout, Random random) {
     this.mapLayout = mapLayout;
+    this.random = random;
     this.currentAreaId = mapLayout.getStartAreaId();
     this.inventoryItem = NO_ITEM;
     this.currentThreatLevel = getCurrentAreaInitialThreatLevel();
@@ -161,7 +178,7 @@ public class AdventureGame {
    */
   protected void applyAreaAffects() {
     if (shouldApplyAreaAffects) {
-      int squirrelAttackChance = ThreadLocalRandom.current().nextInt(0, 11);
+      int squirrelAttackChance = random.nextInt(11);
       if (squirrelAttackChance < currentThreatLevel) {
         gameStatusMessage += ("You get mauled by a squirrel!\n");
         currentInjuryLevel++;
@@ -23,6 +23,21 @@ public class WebAdventureGame extends AdventureGame {
    */
   public WebAdventureGame(MapLayout mapLayout) {
     super(mapLayout);
+    initializeWebState();
+  }
+
+  /**
+   * AdventureGame constructor for a game whose random events are reproducible from a seed
+   *
+   * @param mapLayout represents the data that the game map is based on
+   * @param randomSeed the seed of every random event in the game
+   */
+  public WebAdventureGame(MapLayout mapLayout, long randomSeed) {
+    super(mapLayout, randomSeed);
+    initializeWebState();
+  }
+
+  private void initializeWebState() {
     commandOptions = new HashMap<>();
     commandOptions.putIfAbsent(START_COMMAND, EMPTY_ARGUMENT_LIST);
     loadStartScreenMessage();
@@ -0,0 +1,25 @@
+package mineopoly_three;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every Mine-opoly JMH benchmark with the GC profiler attached, so each result reports both ops/s and
+ *  the allocation rate (gc.alloc.rate.norm is bytes allocated per operation).
+ * Pass a regular expression as the first argument to only run matching benchmarks, for example "GameBoard".
+ * Run this from the Mine-opoly-benchmark module with annotation processing enabled so JMH can generate
+ *  its benchmark classes.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkPattern = (args.length > 0) ? args[0] : "mineopoly_three\\..*Benchmark";
+        Options benchmarkOptions = new OptionsBuilder()
+                .include(benchmarkPattern)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(benchmarkOptions).run();
+    }
+}
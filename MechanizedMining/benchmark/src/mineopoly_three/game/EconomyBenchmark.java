@@ -0,0 +1,121 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.ItemType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the Economy calls made every turn by the engine and the strategies. Calls that change prices are
+ *  made on economies put back to the start of a game before every invocation, so increasing demand never runs into
+ *  the maximum prices and selling never drives prices down to 0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EconomyBenchmark {
+    // Every invocation changes this many economies, so timing each invocation costs little next to the work measured
+    private static final int ECONOMIES_PER_INVOCATION = 64;
+
+    private Economy economy;
+    private List<InventoryItem> fullInventory;
+
+    private static Economy createEconomy() {
+        ItemType[] resourceTypes = Arrays.stream(ItemType.values()).filter(ItemType::isResource)
+                                         .toArray(ItemType[]::new);
+        return new Economy(resourceTypes);
+    }
+
+    @State(Scope.Thread)
+    public static class StartingEconomies {
+        private Economy[] economies;
+
+        @Setup(Level.Trial)
+        public void createEconomies() {
+            economies = new Economy[ECONOMIES_PER_INVOCATION];
+            for (int i = 0; i < economies.length; i++) {
+                economies[i] = createEconomy();
+            }
+        }
+
+        @Setup(Level.Invocation)
+        public void resetEconomies() {
+            for (Economy startingEconomy : economies) {
+                startingEconomy.reset();
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        economy = createEconomy();
+
+        // A full inventory like the one a player sells at a market
+        fullInventory = new ArrayList<>();
+        fullInventory.add(new InventoryItem(ItemType.DIAMOND));
+        fullInventory.add(new InventoryItem(ItemType.DIAMOND));
+        fullInventory.add(new InventoryItem(ItemType.EMERALD));
+        fullInventory.add(new InventoryItem(ItemType.RUBY));
+        fullInventory.add(new InventoryItem(ItemType.AUTOMINER));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ECONOMIES_PER_INVOCATION)
+    public int sellResources(StartingEconomies startingEconomies) {
+        int totalSellPrice = 0;
+        for (Economy startingEconomy : startingEconomies.economies) {
+            totalSellPrice += startingEconomy.sellResources(fullInventory);
+        }
+        return totalSellPrice;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ECONOMIES_PER_INVOCATION)
+    public Economy increaseDemand(StartingEconomies startingEconomies) {
+        for (Economy startingEconomy : startingEconomies.economies) {
+            startingEconomy.increaseDemand();
+        }
+        return startingEconomies.economies[ECONOMIES_PER_INVOCATION - 1];
+    }
+
+    @Benchmark
+    public Map<ItemType, Integer> getCurrentPrices() {
+        return economy.getCurrentPrices();
+    }
+
+    @Benchmark
+    public PriceSnapshot getPriceSnapshot() {
+        return economy.getPriceSnapshot();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ECONOMIES_PER_INVOCATION)
+    public PriceSnapshot increaseDemandThenGetPriceSnapshot(StartingEconomies startingEconomies) {
+        // The cost a strategy sees once per turn, when the first call after the prices change takes a new snapshot
+        PriceSnapshot priceSnapshot = null;
+        for (Economy startingEconomy : startingEconomies.economies) {
+            startingEconomy.increaseDemand();
+            priceSnapshot = startingEconomy.getPriceSnapshot();
+        }
+        return priceSnapshot;
+    }
+}
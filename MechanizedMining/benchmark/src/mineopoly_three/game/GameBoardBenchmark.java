@@ -0,0 +1,80 @@
+package mineopoly_three.game;
+
+import mineopoly_three.strategy.AssignmentStrategy;
+import mineopoly_three.strategy.PlayerBoardView;
+import mineopoly_three.strategy.RandomStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for converting a GameBoard to a player's view and for generating a new board with WorldGenerator.
+ *  Updating the board every turn is benchmarked by GameBoardUpdateBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameBoardBenchmark {
+    private static final long BOARD_SEED = 126;
+
+    @Param({"14", "20", "26", "32"})
+    private int boardSize;
+
+    private GameEngine gameEngine;
+    private long nextWorldSeed;
+    private BoardTemplateCache boardTemplateCache;
+    private GameBoard reusedBoard;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // The engine is only used to get a realistic board with players on it
+        gameEngine = new GameEngine(boardSize, new AssignmentStrategy(), new RandomStrategy(), BOARD_SEED);
+        nextWorldSeed = 0;
+        boardTemplateCache = new BoardTemplateCache(1);
+        reusedBoard = new GameBoard(boardSize);
+    }
+
+    @Benchmark
+    public PlayerBoardView convertToView() {
+        return gameEngine.getBoard().convertToView(gameEngine.getRedPlayer(), gameEngine.getBluePlayer());
+    }
+
+    @Benchmark
+    public GameBoard generateBoard() {
+        WorldGenerator worldGenerator = new WorldGenerator(nextWorldSeed++);
+        return worldGenerator.generateBoard(boardSize);
+    }
+
+    @Benchmark
+    public GameBoard regenerateBoardInPlace() {
+        WorldGenerator worldGenerator = new WorldGenerator(nextWorldSeed++);
+        return worldGenerator.regenerateBoard(reusedBoard);
+    }
+
+    @Benchmark
+    public GameBoard generateBoardRejectionFree() {
+        WorldGenerator worldGenerator = new WorldGenerator(nextWorldSeed++, true, null);
+        return worldGenerator.generateBoard(boardSize);
+    }
+
+    @Benchmark
+    public GameBoard generateCachedBoard() {
+        // Every board after the first is built from the cached template
+        WorldGenerator worldGenerator = new WorldGenerator(BOARD_SEED, false, boardTemplateCache);
+        return worldGenerator.generateBoard(boardSize);
+    }
+}
@@ -0,0 +1,74 @@
+package mineopoly_three.game;
+
+import mineopoly_three.strategy.AssignmentStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the GameBoard update made every turn, on boards in the middle of a game. Updating mines tiles out, so
+ *  every board is put back to the same mid-game state before each invocation instead of being updated until there
+ *  is nothing left for its autominers to mine
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameBoardUpdateBenchmark {
+    // Every invocation updates this many boards, so timing each invocation costs little next to the work measured
+    private static final int BOARDS_PER_INVOCATION = 16;
+    private static final int MID_GAME_TURN = 200;
+
+    @Param({"14", "20", "26", "32"})
+    private int boardSize;
+
+    private GameBoard[] boards;
+    private BoardSnapshot[] midGameSnapshots;
+
+    @Setup(Level.Trial)
+    public void playToMidGame() {
+        boards = new GameBoard[BOARDS_PER_INVOCATION];
+        midGameSnapshots = new BoardSnapshot[BOARDS_PER_INVOCATION];
+        for (int i = 0; i < BOARDS_PER_INVOCATION; i++) {
+            // The engine is only used to get realistic boards, with autominers placed and resources mined
+            GameEngine gameEngine = new GameEngine(boardSize, new AssignmentStrategy(), new RandomStrategy(), i);
+            gameEngine.initialize();
+            while (gameEngine.getTurnNumber() < MID_GAME_TURN && gameEngine.stepTurn()) {
+                // Play on to the middle of the game
+            }
+            boards[i] = gameEngine.getBoard();
+            midGameSnapshots[i] = boards[i].captureSnapshot();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreMidGame() {
+        for (int i = 0; i < BOARDS_PER_INVOCATION; i++) {
+            boards[i].restoreSnapshot(midGameSnapshots[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS_PER_INVOCATION)
+    public GameBoard boardUpdate() {
+        for (GameBoard board : boards) {
+            board.update();
+        }
+        return boards[BOARDS_PER_INVOCATION - 1];
+    }
+}
@@ -0,0 +1,67 @@
+package mineopoly_three.game;
+
+import mineopoly_three.strategy.AssignmentStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for GameEngine: a full headless game, and a single turn stepped with stepTurn()
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameEngineBenchmark {
+    // Games are restarted before reaching the turn limit so every measured turn is a real turn
+    private static final int TURNS_BEFORE_RESTART = 500;
+
+    @Param({"14", "20", "26", "32"})
+    private int boardSize;
+
+    private long nextGameSeed;
+    private GameEngine turnEngine;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        nextGameSeed = 0;
+        startTurnGame();
+    }
+
+    private void startTurnGame() {
+        turnEngine = new GameEngine(boardSize, new AssignmentStrategy(), new RandomStrategy(), nextGameSeed++);
+        turnEngine.initialize();
+    }
+
+    @Benchmark
+    public int fullHeadlessGame() {
+        GameEngine gameEngine = new GameEngine(boardSize, new AssignmentStrategy(), new RandomStrategy(),
+                                               nextGameSeed++);
+        gameEngine.runGame();
+        return gameEngine.getRedPlayerScore();
+    }
+
+    @Benchmark
+    public int singleTurn() {
+        if (turnEngine.getTurnNumber() >= TURNS_BEFORE_RESTART || turnEngine.isFinished()) {
+            startTurnGame();
+        }
+
+        turnEngine.stepTurn();
+        return turnEngine.getRedPlayerScore();
+    }
+}
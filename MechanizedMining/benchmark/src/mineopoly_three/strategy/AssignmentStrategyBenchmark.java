@@ -0,0 +1,66 @@
+package mineopoly_three.strategy;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.Economy;
+import mineopoly_three.game.GameBoard;
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.game.MinePlayer;
+import mineopoly_three.item.ItemType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the decision latency of AssignmentStrategy.getTurnAction on a freshly generated board
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssignmentStrategyBenchmark {
+    private static final long BOARD_SEED = 126;
+    private static final int MAX_INVENTORY_SIZE = 5;
+    private static final int MAX_CHARGE = 80;
+
+    @Param({"14", "20", "26", "32"})
+    private int boardSize;
+
+    private AssignmentStrategy strategy;
+    private PlayerBoardView boardView;
+    private Economy economy;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        GameEngine gameEngine = new GameEngine(boardSize, new AssignmentStrategy(), new RandomStrategy(), BOARD_SEED);
+        GameBoard board = gameEngine.getBoard();
+        MinePlayer redPlayer = gameEngine.getRedPlayer();
+        boardView = board.convertToView(redPlayer, gameEngine.getBluePlayer());
+        economy = new Economy(Arrays.stream(ItemType.values()).filter(ItemType::isResource).toArray(ItemType[]::new));
+
+        strategy = new AssignmentStrategy();
+        Point startLocation = boardView.getYourLocation();
+        strategy.initialize(boardSize, MAX_INVENTORY_SIZE, MAX_CHARGE, gameEngine.getMinScoreToWin(), boardView,
+                            new Point(startLocation.x, startLocation.y), true, new Random(BOARD_SEED));
+    }
+
+    @Benchmark
+    public TurnAction getTurnAction() {
+        return strategy.getTurnAction(boardView, economy, MAX_CHARGE, true);
+    }
+}
@@ -1,31 +1,59 @@
 package mineopoly_three;
 
 import mineopoly_three.game.GameEngine;
+import mineopoly_three.game.GameSeeds;
+import mineopoly_three.game.SeedScheme;
+import mineopoly_three.graphics.FrameExporter;
 import mineopoly_three.graphics.UserInterface;
 import mineopoly_three.replay.Replay;
 import mineopoly_three.replay.ReplayIO;
 import mineopoly_three.strategy.*;
+import mineopoly_three.tournament.Tournament;
+import mineopoly_three.tournament.TournamentResult;
+import mineopoly_three.tournament.TournamentResultStore;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 
 public class MineopolyMain {
     private static final int DEFAULT_BOARD_SIZE = 20;
     private static final int PREFERRED_GUI_WIDTH = 750; // Bump this up or down according to your screen size
     private static final boolean TEST_STRATEGY_WIN_PERCENT = true; // Change to true to test your win percent
+    private static final int NUM_WIN_PERCENT_ROUNDS = 1000;
+    private static final int NUM_TOURNAMENT_THREADS = Runtime.getRuntime().availableProcessors();
 
     // Use this if you want to view a past match replay
     private static final String savedReplayFilePath = null;
     // Use this to save a replay of the current match
     private static final String replayOutputFilePath = null;
+    // Use this to save how resource prices changed over the current match as CSV
+    private static final String priceHistoryOutputFilePath = null;
+    // Use this to write every turn of the current match or replay as PNG frames instead of showing it. Add
+    //  -Djava.awt.headless=true to the VM options to export on a machine without a display
+    private static final String frameExportDirectoryPath = null;
+    // Use this to keep win percent games in a SQLite database, so a run that is stopped picks up where it left off
+    private static final String tournamentDatabaseFilePath = null;
+    // The seed every win percent game's seed is derived from. A run is only resumed from the database if it uses the
+    //  same seed, so change it to test on different games
+    private static final long winPercentSeed = 0x5EED_1234L;
 
     public static void main(String[] args) {
         if (TEST_STRATEGY_WIN_PERCENT) {
-            MinePlayerStrategy yourStrategy = new AssignmentStrategy(); // TODO: Replace this with your strategy
             int[] assignmentBoardSizes = new int[]{14, 20, 26, 32};
+            // Your strategy is the red player, random strategy is blue player
+            Map<Integer, TournamentResult> resultsBySize = getStrategyWinPercents(
+                    AssignmentStrategy::new, assignmentBoardSizes); // TODO: Replace this with your strategy
 
-            for (int testBoardSize : assignmentBoardSizes) {
-                double strategyWinPercent = getStrategyWinPercent(yourStrategy, testBoardSize);
-                System.out.println("(Board size, win percent): (" + testBoardSize + ", " + strategyWinPercent + "%)");
+            for (TournamentResult sizeResult : resultsBySize.values()) {
+                double strategyWinPercent = sizeResult.getRedWinPercent();
+                System.out.println("(Board size, win percent): (" + sizeResult.getBoardSize() + ", " + strategyWinPercent + "%)");
+                System.out.println("    Strategy latency: " + sizeResult.getRedLatencies());
             }
         } else {
             // Not testing the win percent, show the game instead
@@ -50,44 +78,83 @@ public class MineopolyMain {
             }
         }
 
-        if (gameEngine.isGuiEnabled()) {
-            // 500 is around the minimum value that keeps everything on screen
-            assert PREFERRED_GUI_WIDTH >= 500;
-            // Run the GUI code on a separate Thread (The event dispatch thread)
-            SwingUtilities.invokeLater(() -> UserInterface.instantiateGUI(gameEngine, PREFERRED_GUI_WIDTH));
+        if (frameExportDirectoryPath != null) {
+            // Render the game to image files as fast as it can be played, without a window
+            gameEngine.setGuiEnabled(false);
+            exportFrames(gameEngine);
+        } else {
+            if (gameEngine.isGuiEnabled()) {
+                // 500 is around the minimum value that keeps everything on screen
+                assert PREFERRED_GUI_WIDTH >= 500;
+                // Run the GUI code on a separate Thread (The event dispatch thread)
+                SwingUtilities.invokeLater(() -> UserInterface.instantiateGUI(gameEngine, PREFERRED_GUI_WIDTH));
+            }
+            gameEngine.runGame();
         }
-        gameEngine.runGame();
 
         // Record the replay if the output path isn't null and we aren't already watching a replay
         if (savedReplayFilePath == null && replayOutputFilePath != null) {
             Replay gameReplay = gameEngine.getReplay();
             ReplayIO.writeReplayToFile(gameReplay, replayOutputFilePath);
         }
+        if (priceHistoryOutputFilePath != null) {
+            ReplayIO.writePriceHistoryToFile(gameEngine.getEconomy().getPriceHistory(), priceHistoryOutputFilePath);
+        }
     }
 
-    private static double getStrategyWinPercent(MinePlayerStrategy yourStrategy, int boardSize) {
-        final int numTotalRounds = 1000;
-        int numRoundsWonByMinScore = 0;
-        MinePlayerStrategy randomStrategy = new RandomStrategy();
+    private static void exportFrames(GameEngine gameEngine) {
+        ExecutorService encodingPool = Executors.newFixedThreadPool(NUM_TOURNAMENT_THREADS);
+        try {
+            FrameExporter frameExporter = new FrameExporter(encodingPool, NUM_TOURNAMENT_THREADS + 1,
+                                                            PREFERRED_GUI_WIDTH);
+            int numFrames = frameExporter.exportGame(gameEngine, frameExportDirectoryPath);
+            System.out.println("Wrote " + numFrames + " frames to " + frameExportDirectoryPath);
+        } catch (IOException e) {
+            System.err.println("There was an error exporting the game's frames");
+            e.printStackTrace();
+        } finally {
+            encodingPool.shutdown();
+        }
+    }
 
-        GameEngine gameEngine;
-        long randomSeed = System.currentTimeMillis();
+    private static Map<Integer, TournamentResult> getStrategyWinPercents(
+            Supplier<MinePlayerStrategy> yourStrategySupplier, int[] boardSizes) {
+        // Every game gets its own seed, and the same seed list is played on every board size
+        long[] gameSeeds = GameSeeds.deriveGameSeeds(winPercentSeed, NUM_WIN_PERCENT_ROUNDS);
 
         /*
          * Note that you should only count a win if your strategy scores enough points to win
          *  by the minimum score. Do not count wins as scoring more than RandomStrategy() (which always scores 0)
          */
-        for (int gameNumber = 0; gameNumber < numTotalRounds; gameNumber++) {
-            // Your strategy is the red player, random strategy is blue player
-            gameEngine = new GameEngine(boardSize, yourStrategy, randomStrategy, randomSeed);
-            gameEngine.setGuiEnabled(false);
-            gameEngine.runGame();
-
-            if (gameEngine.getRedPlayerScore() >= gameEngine.getMinScoreToWin()) {
-                numRoundsWonByMinScore++;
+        ForkJoinPool tournamentPool = new ForkJoinPool(NUM_TOURNAMENT_THREADS);
+        TournamentResultStore resultStore = null;
+        try {
+            Tournament tournament = new Tournament(yourStrategySupplier, RandomStrategy::new, tournamentPool);
+            tournament.setSeedScheme(SeedScheme.SPLIT);
+            if (tournamentDatabaseFilePath != null) {
+                resultStore = new TournamentResultStore(tournamentDatabaseFilePath);
+                String yourStrategyName = yourStrategySupplier.get().getClass().getSimpleName();
+                tournament.setResultStore(resultStore, yourStrategyName, RandomStrategy.class.getSimpleName());
             }
+            return tournament.run(boardSizes, gameSeeds);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not open the tournament database", e);
+        } finally {
+            tournamentPool.shutdown();
+            closeResultStore(resultStore);
+        }
+    }
+
+    private static void closeResultStore(TournamentResultStore resultStore) {
+        if (resultStore == null) {
+            return;
         }
 
-        return ((double) numRoundsWonByMinScore) / numTotalRounds * 100.0;
+        try {
+            resultStore.close();
+        } catch (SQLException e) {
+            System.err.println("Could not close the tournament database");
+            e.printStackTrace();
+        }
     }
 }
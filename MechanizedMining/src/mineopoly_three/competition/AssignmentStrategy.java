@@ -8,12 +8,14 @@ import mineopoly_three.strategy.MinePlayerStrategy;
 import mineopoly_three.strategy.PlayerBoardView;
 import mineopoly_three.strategy.RobotPriority;
 import mineopoly_three.tiles.TileType;
+import mineopoly_three.util.DistanceField;
 
 import java.awt.Point;
-import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.function.IntPredicate;
 
 public class AssignmentStrategy implements MinePlayerStrategy {
   private static final String PLAYER_NAME = "Gunnerside";
@@ -37,6 +39,7 @@ public class AssignmentStrategy implements MinePlayerStrategy {
   // Environment Info
   private int boardSize;
   private PlayerBoardView currentBoard;
+  private Map<TileType, DistanceField> distanceFields;   // Closest tile of each type from every location
 
   /**
    * Constructor for competition
@@ -67,6 +70,7 @@ public class AssignmentStrategy implements MinePlayerStrategy {
     this.robotCharge = maxCharge;
     this.currentBoard = startingBoard;
     this.isRedPlayer = isRedPlayer;
+    computeDistanceFields();
   }
 
   // ROBOT ACTION METHODS
@@ -234,61 +238,68 @@ public class AssignmentStrategy implements MinePlayerStrategy {
   }
 
   /**
-   * Uses a breadth-first search list to find the point on the board where the closest tile of the provided type is.
-   * Returns the robot's current position if unable to find a tile.
+   * Looks up the point on the board where the closest tile of the provided type is, using the precomputed
+   * distance fields. Markets and recharge tiles never change, but resource tiles get mined out, so if the
+   * closest tile is no longer the right type the tiles that were mined out are patched out of that field.
    *
    * @param tileType the type of tile you are searching for
-   * @return a Point coordinate of the location of the closest tile, or the robot's current location if not found
+   * @return a Point coordinate of the location of the closest tile, or a point off the board if not found
    */
   private Point findClosestTileOfTileType(TileType tileType) {
+    if (distanceFields == null) {
+      computeDistanceFields();
+    }
+
     Point startPoint = currentBoard.getYourLocation();
-    Point closestTile = new Point(boardSize*boardSize, boardSize*boardSize);
-    List<Point> tileLocations = getTileLocations(tileType);
-    for (Point point : tileLocations) {
-      if (distanceBetweenPoints(startPoint, point) < distanceBetweenPoints(startPoint, closestTile)) {
-        closestTile = point;
-      }
+    DistanceField distanceField = distanceFields.get(tileType);
+    Point closestTile = distanceField.getClosestSource(startPoint.x, startPoint.y);
+    if (closestTile != null && currentBoard.getTileTypeAtLocation(closestTile) != tileType) {
+      // Tiles only ever stop being resources, so removing the mined out ones matches recomputing the field
+      distanceField.removeStaleSources(isTileOfType(tileType));
+      closestTile = distanceField.getClosestSource(startPoint.x, startPoint.y);
+    }
+
+    if (closestTile == null) {
+      return new Point(boardSize*boardSize, boardSize*boardSize);
     }
     return closestTile;
   }
 
   /**
-   * Returns a list of all locations on the board with a particular tile type.
-   *
-   * @param tileTypeSearched the tile type you are looking for
-   * @return a List of Points representing the locations of all tiles of the specified type
-   */
-  private List<Point> getTileLocations(TileType tileTypeSearched) {
-    List<Point> tileTypeLocations = new ArrayList<>();
-    for (int x = 0; x < boardSize; x++) {
-      for (int y = 0; y < boardSize; y++) {
-        Point here = new Point(x, y);
-        TileType tileTypeHere = currentBoard.getTileTypeAtLocation(here);
-        if (tileTypeHere == tileTypeSearched) {
-          tileTypeLocations.add(here);
-        }
-      }
+   * Computes a distance field for every tile type from the current board.
+   */
+  private void computeDistanceFields() {
+    distanceFields = new EnumMap<>(TileType.class);
+    for (TileType tileType : TileType.values()) {
+      DistanceField distanceField = new DistanceField(boardSize);
+      computeDistanceField(distanceField, tileType);
+      distanceFields.put(tileType, distanceField);
     }
-
-    return tileTypeLocations;
   }
 
-  // ROBOT LOGIC AND MATH METHODS
+  /**
+   * Computes a distance field from every tile of a particular type on the current board.
+   *
+   * @param distanceField the distance field to compute
+   * @param tileTypeSearched the tile type the field measures distances to
+   */
+  private void computeDistanceField(DistanceField distanceField, TileType tileTypeSearched) {
+    distanceField.compute(isTileOfType(tileTypeSearched));
+  }
 
   /**
-   * Returns the non-Euclidean distance between two points. Ex: The distance between (3, 4) and (5, 6)
-   * is (5 - 3) + (6 - 4) = 4.
+   * Tests cells by their packed index (y * boardSize + x), the way distance fields identify them.
    *
-   * @param point1 one point
-   * @param point2 another point
-   * @return the integer distance between the points
+   * @param tileTypeSearched the tile type to test for
+   * @return a predicate that is true for every cell on the current board holding that tile type
    */
-  private int distanceBetweenPoints(Point point1, Point point2) {
-    int xDistance = Math.abs(point1.x - point2.x);
-    int yDistance = Math.abs(point1.y - point2.y);
-    return xDistance + yDistance;
+  private IntPredicate isTileOfType(TileType tileTypeSearched) {
+    return cellIndex -> currentBoard.getTileTypeAtLocation(cellIndex % boardSize, cellIndex / boardSize)
+        == tileTypeSearched;
   }
 
+  // ROBOT LOGIC AND MATH METHODS
+
   /**
    * Checks if the specified list contains a gem item type.
    *
@@ -0,0 +1,142 @@
+package mineopoly_three.event;
+
+import java.util.Arrays;
+
+/**
+ * Delivers events published by a game to listeners on a separate dispatcher thread, so the thread running the game
+ *  never waits on a listener. Every subscription buffers its own events (see EventSubscription), and the dispatcher
+ *  thread is only started by the first subscription.
+ *
+ * Publishers should check hasSubscribers() before creating an event. A bus nobody has subscribed to then costs a
+ *  single read of an empty array per event, which is what every headless game pays.
+ */
+public class EventBus {
+    public static final int DEFAULT_BUFFER_CAPACITY = 64;
+    private static final EventSubscription<?>[] NO_SUBSCRIPTIONS = new EventSubscription<?>[0];
+
+    // Replaced as a whole on every change, so publishers can read it without locking
+    private volatile EventSubscription<?>[] subscriptions;
+
+    private final Object dispatchLock;
+    private boolean eventsWaiting;
+    private Thread dispatcherThread;
+
+    public EventBus() {
+        this.subscriptions = NO_SUBSCRIPTIONS;
+        this.dispatchLock = new Object();
+        this.eventsWaiting = false;
+        this.dispatcherThread = null;
+    }
+
+    /**
+     * Subscribes a listener to every event of a type, buffering up to DEFAULT_BUFFER_CAPACITY of them
+     *
+     * @param eventType The type of event to receive, including its subtypes
+     * @param listener The listener to call on the dispatcher thread
+     * @param <E> The type of event to receive
+     * @return The new subscription, which can be passed to unsubscribe()
+     */
+    public <E extends GameEvent> EventSubscription<E> subscribe(Class<E> eventType,
+                                                                GameEventListener<? super E> listener) {
+        return addSubscription(new EventSubscription<>(eventType, listener, DEFAULT_BUFFER_CAPACITY, false));
+    }
+
+    /**
+     * Subscribes a listener to only the latest event of a type. If more events are published while the listener is
+     *  busy, it receives just the newest one when it is done, which is all a GUI needs to render the current frame
+     *
+     * @param eventType The type of event to receive, including its subtypes
+     * @param listener The listener to call on the dispatcher thread
+     * @param <E> The type of event to receive
+     * @return The new subscription, which can be passed to unsubscribe()
+     */
+    public <E extends GameEvent> EventSubscription<E> subscribeLatest(Class<E> eventType,
+                                                                      GameEventListener<? super E> listener) {
+        return addSubscription(new EventSubscription<>(eventType, listener, 1, true));
+    }
+
+    private synchronized <E extends GameEvent> EventSubscription<E> addSubscription(EventSubscription<E> subscription) {
+        EventSubscription<?>[] newSubscriptions = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        newSubscriptions[subscriptions.length] = subscription;
+        subscriptions = newSubscriptions;
+
+        if (dispatcherThread == null) {
+            dispatcherThread = new Thread(this::dispatchEvents, "EventBus-dispatcher");
+            dispatcherThread.setDaemon(true);
+            dispatcherThread.start();
+        }
+        return subscription;
+    }
+
+    /**
+     * Stops delivering events to a subscription. Events already being delivered may still arrive
+     *
+     * @param subscription A subscription returned by this bus
+     */
+    public synchronized void unsubscribe(EventSubscription<?> subscription) {
+        EventSubscription<?>[] newSubscriptions = Arrays.stream(subscriptions)
+                .filter(existingSubscription -> existingSubscription != subscription)
+                .toArray(EventSubscription<?>[]::new);
+        subscriptions = (newSubscriptions.length == 0) ? NO_SUBSCRIPTIONS : newSubscriptions;
+    }
+
+    /**
+     * @param eventType A type of event
+     * @return True if anything would receive an event of this type if it were published
+     */
+    public boolean hasSubscribers(Class<? extends GameEvent> eventType) {
+        for (EventSubscription<?> subscription : subscriptions) {
+            if (subscription.accepts(eventType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hands an event to every subscription for its type and returns without waiting for any listener
+     *
+     * @param event The event to publish
+     */
+    public void publish(GameEvent event) {
+        boolean anySubscriptionAccepted = false;
+        for (EventSubscription<?> subscription : subscriptions) {
+            if (subscription.accepts(event.getClass())) {
+                subscription.offer(event);
+                anySubscriptionAccepted = true;
+            }
+        }
+
+        if (anySubscriptionAccepted) {
+            synchronized (dispatchLock) {
+                eventsWaiting = true;
+                dispatchLock.notify();
+            }
+        }
+    }
+
+    private void dispatchEvents() {
+        while (true) {
+            synchronized (dispatchLock) {
+                while (!eventsWaiting) {
+                    try {
+                        dispatchLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                eventsWaiting = false;
+            }
+
+            for (EventSubscription<?> subscription : subscriptions) {
+                try {
+                    subscription.deliverWaitingEvents();
+                } catch (RuntimeException e) {
+                    // One broken listener shouldn't stop every other listener from receiving events
+                    System.err.println("An event listener threw an exception");
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package mineopoly_three.event;
+
+/**
+ * One listener's subscription to one type of event, with its own bounded ring buffer of events waiting to be
+ *  delivered. Publishing never waits for the listener: when the buffer is full the oldest waiting event is dropped,
+ *  and a coalescing subscription only ever keeps the latest event, so a listener that falls behind (like a slow
+ *  repaint) skips straight to the most recent state instead of working through a backlog.
+ *
+ * @param <E> The type of event delivered to the listener
+ */
+public class EventSubscription<E extends GameEvent> {
+    private final Class<E> eventType;
+    private final GameEventListener<? super E> listener;
+    private final boolean coalescing;
+
+    // Ring buffer of waiting events, guarded by this
+    private final GameEvent[] waitingEvents;
+    private int headIndex;
+    private int numWaiting;
+    private long numDropped;
+
+    EventSubscription(Class<E> eventType, GameEventListener<? super E> listener, int bufferCapacity,
+                      boolean coalescing) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("A subscription must be able to buffer at least one event");
+        }
+
+        this.eventType = eventType;
+        this.listener = listener;
+        this.coalescing = coalescing;
+        this.waitingEvents = new GameEvent[coalescing ? 1 : bufferCapacity];
+        this.headIndex = 0;
+        this.numWaiting = 0;
+        this.numDropped = 0;
+    }
+
+    boolean accepts(Class<? extends GameEvent> publishedType) {
+        return eventType.isAssignableFrom(publishedType);
+    }
+
+    synchronized void offer(GameEvent event) {
+        if (numWaiting == waitingEvents.length) {
+            // Make room by dropping the oldest event, a coalescing subscription only ever has one
+            waitingEvents[headIndex] = null;
+            headIndex = (headIndex + 1) % waitingEvents.length;
+            numWaiting--;
+            numDropped++;
+        }
+
+        int tailIndex = (headIndex + numWaiting) % waitingEvents.length;
+        waitingEvents[tailIndex] = event;
+        numWaiting++;
+    }
+
+    private synchronized GameEvent poll() {
+        if (numWaiting == 0) {
+            return null;
+        }
+
+        GameEvent event = waitingEvents[headIndex];
+        waitingEvents[headIndex] = null;
+        headIndex = (headIndex + 1) % waitingEvents.length;
+        numWaiting--;
+        return event;
+    }
+
+    /**
+     * Delivers every waiting event to the listener, on the calling thread
+     */
+    void deliverWaitingEvents() {
+        GameEvent event;
+        while ((event = poll()) != null) {
+            listener.onEvent(eventType.cast(event));
+        }
+    }
+
+    public boolean isCoalescing() {
+        return coalescing;
+    }
+
+    /**
+     * @return The number of events that were replaced by newer ones before the listener received them
+     */
+    public synchronized long getNumDropped() {
+        return numDropped;
+    }
+}
@@ -0,0 +1,7 @@
+package mineopoly_three.event;
+
+/**
+ * Something that happened in a game, published on an EventBus for anything watching the game (like the GUI)
+ */
+public interface GameEvent {
+}
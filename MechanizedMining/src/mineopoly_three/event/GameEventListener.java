@@ -0,0 +1,12 @@
+package mineopoly_three.event;
+
+/**
+ * Receives events of one type from an EventBus. Listeners are always called on the bus's dispatcher thread,
+ *  never on the thread running the game
+ *
+ * @param <E> The type of event received
+ */
+@FunctionalInterface
+public interface GameEventListener<E extends GameEvent> {
+    void onEvent(E event);
+}
@@ -0,0 +1,22 @@
+package mineopoly_three.event;
+
+import mineopoly_three.game.PriceSnapshot;
+
+/**
+ * Published by the Economy whenever the price of any resource changes. Carries an immutable snapshot of every price,
+ *  so listeners never need to read the Economy while the game thread is changing it
+ */
+public class PriceChangeEvent implements GameEvent {
+    private final PriceSnapshot prices;
+
+    public PriceChangeEvent(PriceSnapshot prices) {
+        this.prices = prices;
+    }
+
+    /**
+     * @return The prices after the change
+     */
+    public PriceSnapshot getPrices() {
+        return prices;
+    }
+}
@@ -0,0 +1,62 @@
+package mineopoly_three.event;
+
+import java.util.BitSet;
+
+/**
+ * Published by the GameEngine after every turn, and whenever the state of the game changes outside of a turn:
+ *  after seeking to another turn, or when a strategy throws an exception and ends the game
+ */
+public class TurnCompletedEvent implements GameEvent {
+    private final int turnNumber;
+    private final int redPlayerScore;
+    private final int bluePlayerScore;
+    private final boolean gameFinished;
+    private final BitSet dirtyTileLocations;
+
+    /**
+     * @param turnNumber The number of the next turn to be played
+     * @param redPlayerScore The red player's score
+     * @param bluePlayerScore The blue player's score
+     * @param gameFinished True if no more turns will be played
+     * @param dirtyTileLocations The locations (y * boardSize + x) of every tile that may look different since the
+     *                           last TurnCompletedEvent. The event takes ownership of the BitSet
+     */
+    public TurnCompletedEvent(int turnNumber, int redPlayerScore, int bluePlayerScore, boolean gameFinished,
+                              BitSet dirtyTileLocations) {
+        this.turnNumber = turnNumber;
+        this.redPlayerScore = redPlayerScore;
+        this.bluePlayerScore = bluePlayerScore;
+        this.gameFinished = gameFinished;
+        this.dirtyTileLocations = dirtyTileLocations;
+    }
+
+    /**
+     * @return The number of the next turn to be played
+     */
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
+    public int getRedPlayerScore() {
+        return redPlayerScore;
+    }
+
+    public int getBluePlayerScore() {
+        return bluePlayerScore;
+    }
+
+    /**
+     * @return True if no more turns will be played
+     */
+    public boolean isGameFinished() {
+        return gameFinished;
+    }
+
+    /**
+     * @return The locations (y * boardSize + x) of every tile that may look different since the last
+     *  TurnCompletedEvent. Every tile is included after seeking or when a new game starts
+     */
+    public BitSet getDirtyTileLocations() {
+        return (BitSet) dirtyTileLocations.clone();
+    }
+}
@@ -0,0 +1,81 @@
+package mineopoly_three.game;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Boards that are not being played on, kept by size so a GameEngine that is reset to a different board size can
+ *  generate the new board in place on one of them instead of allocating a whole new board. Safe to share between
+ *  engines on different threads.
+ */
+public class BoardPool {
+    public static final int DEFAULT_MAX_IDLE_BOARDS_PER_SIZE = 32;
+
+    private final int maxIdleBoardsPerSize;
+    private final Map<Integer, Deque<GameBoard>> idleBoardsBySize;
+
+    public BoardPool() {
+        this(DEFAULT_MAX_IDLE_BOARDS_PER_SIZE);
+    }
+
+    /**
+     * @param maxIdleBoardsPerSize The most boards of each size to keep. Boards released past this are dropped
+     */
+    public BoardPool(int maxIdleBoardsPerSize) {
+        if (maxIdleBoardsPerSize < 0) {
+            throw new IllegalArgumentException("A board pool can't hold a negative number of boards");
+        }
+
+        this.maxIdleBoardsPerSize = maxIdleBoardsPerSize;
+        this.idleBoardsBySize = new HashMap<>();
+    }
+
+    /**
+     * Creates boards ahead of time, so the first games played on this size don't have to
+     *
+     * @param boardSize The size of the boards to create
+     * @param numBoards The number of boards to create, up to the pool's limit for each size
+     */
+    public void preallocate(int boardSize, int numBoards) {
+        for (int i = 0; i < numBoards; i++) {
+            release(new GameBoard(boardSize));
+        }
+    }
+
+    /**
+     * @param boardSize The size of board needed
+     * @return A board of that size that nothing is using, or a new empty board if none are held. Its contents are
+     *  left over from its last game, so it must be generated again before being played on
+     */
+    public GameBoard acquire(int boardSize) {
+        GameBoard idleBoard;
+        synchronized (this) {
+            Deque<GameBoard> idleBoards = idleBoardsBySize.get(boardSize);
+            idleBoard = (idleBoards == null) ? null : idleBoards.pollFirst();
+        }
+        return (idleBoard == null) ? new GameBoard(boardSize) : idleBoard;
+    }
+
+    /**
+     * Gives back a board nothing will use again, like the board of a finished game
+     *
+     * @param board The board to keep for a later game
+     */
+    public synchronized void release(GameBoard board) {
+        Deque<GameBoard> idleBoards = idleBoardsBySize.computeIfAbsent(board.getSize(), size -> new ArrayDeque<>());
+        if (idleBoards.size() < maxIdleBoardsPerSize) {
+            idleBoards.addFirst(board);
+        }
+    }
+
+    /**
+     * @param boardSize A board size
+     * @return The number of boards of that size being held
+     */
+    public synchronized int getNumIdleBoards(int boardSize) {
+        Deque<GameBoard> idleBoards = idleBoardsBySize.get(boardSize);
+        return (idleBoards == null) ? 0 : idleBoards.size();
+    }
+}
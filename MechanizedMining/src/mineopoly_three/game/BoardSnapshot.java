@@ -0,0 +1,29 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.ItemType;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Everything about a GameBoard that changes during a game, captured at the start of a turn.
+ * Only cells with items on them store an item array, so a snapshot is mostly a copy of the BoardState arrays
+ */
+class BoardSnapshot {
+    final BoardState boardState;
+    // EmptyTile and CrackedTile share a TileType but behave differently, so cracked cells are tracked separately
+    final BitSet crackedCells;
+    // The types of the items on each cell's Tile in order, or null if there are none
+    final ItemType[][] tileItems;
+    // The immutable item lists players can see, which can be shared with the board
+    final List<InventoryItem>[] itemsOnGround;
+
+    BoardSnapshot(BoardState boardState, BitSet crackedCells, ItemType[][] tileItems,
+                  List<InventoryItem>[] itemsOnGround) {
+        this.boardState = boardState;
+        this.crackedCells = crackedCells;
+        this.tileItems = tileItems;
+        this.itemsOnGround = itemsOnGround;
+    }
+}
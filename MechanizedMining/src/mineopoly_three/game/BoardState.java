@@ -0,0 +1,165 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.ItemType;
+import mineopoly_three.tiles.TileType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The primitive storage behind a GameBoard. Every per-tile value is kept in a flat array indexed by a packed
+ *  cell index of (y * size + x), so simulation code never needs to box or hash a Point to look something up.
+ * Tile objects attached to a GameBoard read and write their simulation state through this class.
+ */
+public class BoardState {
+    private static final TileType[] TILE_TYPES = TileType.values();
+    private static final ItemType[] ITEM_TYPES = ItemType.values();
+
+    private final int size;
+    private final byte[] tileTypes;
+    private final int[] mineProgress;
+    private final int[] autominerTurns;
+    // Number of each item type on the ground, indexed by cellIndex * ITEM_TYPES.length + itemType.ordinal()
+    private final int[] itemCounts;
+
+    public BoardState(int size) {
+        this.size = size;
+        int numCells = size * size;
+        this.tileTypes = new byte[numCells];
+        this.mineProgress = new int[numCells];
+        this.autominerTurns = new int[numCells];
+        this.itemCounts = new int[numCells * ITEM_TYPES.length];
+    }
+
+    /**
+     * Creates a copy of another BoardState
+     *
+     * @param other The BoardState to copy
+     */
+    public BoardState(BoardState other) {
+        this.size = other.size;
+        this.tileTypes = other.tileTypes.clone();
+        this.mineProgress = other.mineProgress.clone();
+        this.autominerTurns = other.autominerTurns.clone();
+        this.itemCounts = other.itemCounts.clone();
+    }
+
+    /**
+     * Overwrites every value in this BoardState with the values of another BoardState of the same size
+     *
+     * @param other The BoardState to copy from
+     */
+    public void copyFrom(BoardState other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Cannot copy a board of size " + other.size + " into size " + size);
+        }
+
+        System.arraycopy(other.tileTypes, 0, tileTypes, 0, tileTypes.length);
+        System.arraycopy(other.mineProgress, 0, mineProgress, 0, mineProgress.length);
+        System.arraycopy(other.autominerTurns, 0, autominerTurns, 0, autominerTurns.length);
+        System.arraycopy(other.itemCounts, 0, itemCounts, 0, itemCounts.length);
+    }
+
+    /**
+     * Sets every value back to how a new BoardState starts
+     */
+    public void clear() {
+        Arrays.fill(tileTypes, (byte) 0);
+        Arrays.fill(mineProgress, 0);
+        Arrays.fill(autominerTurns, 0);
+        Arrays.fill(itemCounts, 0);
+    }
+
+    /**
+     * Packs Cartesian (x, y) coordinates into a single cell index
+     *
+     * @param x The x coordinate of the cell
+     * @param y The y coordinate of the cell
+     * @param size The length and width of the board
+     * @return The cell index y * size + x
+     */
+    public static int packLocation(int x, int y, int size) {
+        return y * size + x;
+    }
+
+    public static int unpackX(int cellIndex, int size) {
+        return cellIndex % size;
+    }
+
+    public static int unpackY(int cellIndex, int size) {
+        return cellIndex / size;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getNumCells() {
+        return tileTypes.length;
+    }
+
+    public int getCellIndex(int x, int y) {
+        return packLocation(x, y, size);
+    }
+
+    public boolean isValidLocation(int x, int y) {
+        return x >= 0 && x < size && y >= 0 && y < size;
+    }
+
+    public TileType getTileType(int cellIndex) {
+        return TILE_TYPES[tileTypes[cellIndex]];
+    }
+
+    public void setTileType(int cellIndex, TileType tileType) {
+        tileTypes[cellIndex] = (byte) tileType.ordinal();
+    }
+
+    /**
+     * @param cellIndex The packed cell index
+     * @return The number of times the tile at this cell has been mined since it was placed
+     */
+    public int getMineProgress(int cellIndex) {
+        return mineProgress[cellIndex];
+    }
+
+    public void setMineProgress(int cellIndex, int timesMined) {
+        mineProgress[cellIndex] = timesMined;
+    }
+
+    /**
+     * @param cellIndex The packed cell index
+     * @return The number of turns this cell has been worked on by autominers
+     */
+    public int getAutominerTurns(int cellIndex) {
+        return autominerTurns[cellIndex];
+    }
+
+    public void setAutominerTurns(int cellIndex, int turns) {
+        autominerTurns[cellIndex] = turns;
+    }
+
+    public int getItemCount(int cellIndex, ItemType itemType) {
+        return itemCounts[cellIndex * ITEM_TYPES.length + itemType.ordinal()];
+    }
+
+    public boolean hasAutominer(int cellIndex) {
+        return getItemCount(cellIndex, ItemType.AUTOMINER) > 0;
+    }
+
+    /**
+     * Recounts the items on the ground at a cell
+     *
+     * @param cellIndex The packed cell index
+     * @param itemsOnCell Every item on the ground at the cell
+     */
+    public void setItems(int cellIndex, List<InventoryItem> itemsOnCell) {
+        int firstCount = cellIndex * ITEM_TYPES.length;
+        for (int i = 0; i < ITEM_TYPES.length; i++) {
+            itemCounts[firstCount + i] = 0;
+        }
+        for (InventoryItem item : itemsOnCell) {
+            itemCounts[firstCount + item.getItemType().ordinal()]++;
+        }
+    }
+}
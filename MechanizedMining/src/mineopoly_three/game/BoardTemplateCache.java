@@ -0,0 +1,179 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.ItemType;
+import mineopoly_three.tiles.TileType;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers where the resources of generated boards went, keyed by board size, world seed and placement mode, so a
+ *  tournament that plays the same seeds again (on every board size, in every repeat, or with players swapped) only
+ *  places each board's resources once. A board built from a template is a fresh GameBoard with fresh tiles and is
+ *  exactly the board the WorldGenerator would have generated, so games played on it are unchanged.
+ *
+ * The least recently used templates are forgotten once maxBoards are held. Safe to share between threads.
+ */
+public class BoardTemplateCache {
+    private final int maxBoards;
+    private final Map<TemplateKey, ResourceLayout> layoutsByKey;
+    private long numHits;
+    private long numMisses;
+
+    /**
+     * @param maxBoards The most templates to hold at once
+     */
+    public BoardTemplateCache(int maxBoards) {
+        if (maxBoards < 1) {
+            throw new IllegalArgumentException("A board cache must hold at least one board");
+        }
+
+        this.maxBoards = maxBoards;
+        this.layoutsByKey = new LinkedHashMap<TemplateKey, ResourceLayout>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TemplateKey, ResourceLayout> eldest) {
+                return size() > BoardTemplateCache.this.maxBoards;
+            }
+        };
+    }
+
+    /**
+     * Generates and caches the board of every game ahead of time, so games don't have to when they start
+     *
+     * @param boardSize The size of board the games will be played on
+     * @param rootSeeds The seed of every game
+     * @param seedScheme The scheme the games will be played with
+     */
+    public void pregenerate(int boardSize, long[] rootSeeds, SeedScheme seedScheme) {
+        for (long rootSeed : rootSeeds) {
+            GameSeeds gameSeeds = GameSeeds.create(seedScheme, rootSeed);
+            WorldGenerator.forGame(gameSeeds, this).generateBoard(boardSize);
+        }
+    }
+
+    public synchronized int getNumBoards() {
+        return layoutsByKey.size();
+    }
+
+    /**
+     * @return The number of boards built from a template instead of being generated
+     */
+    public synchronized long getNumHits() {
+        return numHits;
+    }
+
+    /**
+     * @return The number of boards that had to be generated because no template was held
+     */
+    public synchronized long getNumMisses() {
+        return numMisses;
+    }
+
+    public synchronized void clear() {
+        layoutsByKey.clear();
+    }
+
+    synchronized ResourceLayout getLayout(int boardSize, long worldSeed, boolean rejectionFree) {
+        ResourceLayout layout = layoutsByKey.get(new TemplateKey(boardSize, worldSeed, rejectionFree));
+        if (layout == null) {
+            numMisses++;
+        } else {
+            numHits++;
+        }
+        return layout;
+    }
+
+    synchronized void putLayout(int boardSize, long worldSeed, boolean rejectionFree, ResourceLayout layout) {
+        layoutsByKey.put(new TemplateKey(boardSize, worldSeed, rejectionFree), layout);
+    }
+
+    /**
+     * The location and type of every resource tile on a generated board
+     */
+    static final class ResourceLayout {
+        private static final ItemType[] ALL_ITEM_TYPES = ItemType.values();
+
+        private final int[] cellXs;
+        private final int[] cellYs;
+        private final byte[] resourceOrdinals;
+
+        private ResourceLayout(int[] cellXs, int[] cellYs, byte[] resourceOrdinals) {
+            this.cellXs = cellXs;
+            this.cellYs = cellYs;
+            this.resourceOrdinals = resourceOrdinals;
+        }
+
+        /**
+         * @param board A board whose resources have just been generated
+         * @return The layout of the board's resource tiles
+         */
+        static ResourceLayout capture(GameBoard board) {
+            int boardSize = board.getSize();
+            TileType[] resourceTileTypes = new TileType[ALL_ITEM_TYPES.length];
+            for (ItemType itemType : ALL_ITEM_TYPES) {
+                resourceTileTypes[itemType.ordinal()] = itemType.getResourceTileType();
+            }
+
+            int[] cellXs = new int[boardSize * boardSize];
+            int[] cellYs = new int[boardSize * boardSize];
+            byte[] resourceOrdinals = new byte[boardSize * boardSize];
+            int numResources = 0;
+            for (int y = 0; y < boardSize; y++) {
+                for (int x = 0; x < boardSize; x++) {
+                    TileType tileType = board.getTileTypeAtLocation(x, y);
+                    for (int ordinal = 0; ordinal < resourceTileTypes.length; ordinal++) {
+                        if (tileType != null && tileType == resourceTileTypes[ordinal]) {
+                            cellXs[numResources] = x;
+                            cellYs[numResources] = y;
+                            resourceOrdinals[numResources] = (byte) ordinal;
+                            numResources++;
+                            break;
+                        }
+                    }
+                }
+            }
+
+            return new ResourceLayout(Arrays.copyOf(cellXs, numResources),
+                                      Arrays.copyOf(cellYs, numResources),
+                                      Arrays.copyOf(resourceOrdinals, numResources));
+        }
+
+        /**
+         * @param board A board with its charging and market tiles placed, but no resources yet
+         */
+        void applyTo(GameBoard board) {
+            for (int i = 0; i < resourceOrdinals.length; i++) {
+                board.placeTile(cellXs[i], cellYs[i], ALL_ITEM_TYPES[resourceOrdinals[i]].getResourceTileType());
+            }
+        }
+    }
+
+    private static final class TemplateKey {
+        private final int boardSize;
+        private final long worldSeed;
+        private final boolean rejectionFree;
+
+        private TemplateKey(int boardSize, long worldSeed, boolean rejectionFree) {
+            this.boardSize = boardSize;
+            this.worldSeed = worldSeed;
+            this.rejectionFree = rejectionFree;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof TemplateKey)) {
+                return false;
+            }
+            TemplateKey otherKey = (TemplateKey) other;
+            return boardSize == otherKey.boardSize && worldSeed == otherKey.worldSeed
+                    && rejectionFree == otherKey.rejectionFree;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(boardSize, worldSeed, rejectionFree);
+        }
+    }
+}
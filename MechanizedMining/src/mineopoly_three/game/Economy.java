@@ -1,105 +1,242 @@
 package mineopoly_three.game;
 
+import mineopoly_three.event.EventBus;
+import mineopoly_three.event.PriceChangeEvent;
+import mineopoly_three.event.SaleEvent;
 import mineopoly_three.item.InventoryItem;
 import mineopoly_three.item.ItemType;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Observable;
 
-public class Economy extends Observable {
-    private static final int NUM_UPDATES_BEFORE_NOTIFY = 10;
+public class Economy {
+    private static final ItemType[] ALL_ITEM_TYPES = ItemType.values();
+    // Nothing publishes on it, since detached Economies never change
+    private static final EventBus DETACHED_EVENT_BUS = new EventBus();
 
     private final ItemType[] sellableResourceTypes;
-    private Map<ItemType, Integer> resourcePrices;
-    private int updatesSinceLastNotify;
+    private final EventBus eventBus;
+    // The price of every ItemType indexed by ordinal, 0 for types that can't be sold
+    private final int[] pricesByOrdinal;
+    // Reused by every sale to count resources without allocating
+    private final int[] numSoldByOrdinal;
+
+    // Incremented on every price change, so the cached snapshot can be handed out until prices change again
+    private long priceVersion;
+    private PriceSnapshot cachedPriceSnapshot;
+    // Every change to the price history also changes a price, so this is handed out until priceVersion changes
+    private Economy cachedDetachedEconomy;
+
+    // Increased by every call to increaseDemand(), which the engine makes once at the end of every turn
+    private int currentTurn;
+    private final PriceHistory priceHistory;
 
     public Economy(ItemType[] resourceTypes) {
-        this.sellableResourceTypes = resourceTypes;
-        resourcePrices = new HashMap<>();
+        this(resourceTypes, new EventBus());
+    }
+
+    /**
+     * @param resourceTypes The resource types that can be sold
+     * @param eventBus The bus sale and price change events are published on
+     */
+    public Economy(ItemType[] resourceTypes, EventBus eventBus) {
+        this.sellableResourceTypes = resourceTypes.clone();
+        this.eventBus = eventBus;
+        this.pricesByOrdinal = new int[ALL_ITEM_TYPES.length];
+        this.numSoldByOrdinal = new int[ALL_ITEM_TYPES.length];
         for (ItemType resourceType : sellableResourceTypes) {
-            resourcePrices.put(resourceType, resourceType.getStartingPrice());
+            pricesByOrdinal[resourceType.ordinal()] = resourceType.getStartingPrice();
         }
-        this.updatesSinceLastNotify = 0;
+        this.priceVersion = 0;
+        this.cachedPriceSnapshot = null;
+        this.cachedDetachedEconomy = null;
+
+        this.currentTurn = 0;
+        this.priceHistory = new PriceHistory(sellableResourceTypes, PriceHistory.DEFAULT_CAPACITY);
+        priceHistory.recordTurnStart(currentTurn, pricesByOrdinal);
     }
 
     /**
-     * Gets a copy of the current prices for each ResourceType
+     * Creates an Economy with the prices of a snapshot and a copy of the price history, which nothing changes and
+     *  no one listens to
+     */
+    private Economy(Economy economy, PriceSnapshot prices) {
+        this.sellableResourceTypes = economy.sellableResourceTypes;
+        this.eventBus = DETACHED_EVENT_BUS;
+        this.pricesByOrdinal = new int[ALL_ITEM_TYPES.length];
+        this.numSoldByOrdinal = new int[ALL_ITEM_TYPES.length];
+        for (ItemType resourceType : sellableResourceTypes) {
+            pricesByOrdinal[resourceType.ordinal()] = prices.getPrice(resourceType);
+        }
+        this.priceVersion = prices.getVersion();
+        this.cachedPriceSnapshot = prices;
+        this.cachedDetachedEconomy = this;
+
+        this.currentTurn = economy.currentTurn;
+        this.priceHistory = new PriceHistory(economy.priceHistory);
+    }
+
+    /**
+     * @return A copy of the current prices and price history for a strategy running on another thread, which stays
+     *  the same while the game changes this Economy. The same copy is returned until the prices change
+     */
+    Economy detach() {
+        if (cachedDetachedEconomy == null || cachedDetachedEconomy.priceVersion != priceVersion) {
+            cachedDetachedEconomy = new Economy(this, getPriceSnapshot());
+        }
+        return cachedDetachedEconomy;
+    }
+
+    /**
+     * Puts every price back to its starting price and forgets the price history, for another game played by the
+     *  same engine. Publishes a PriceChangeEvent
+     */
+    void reset() {
+        for (ItemType resourceType : sellableResourceTypes) {
+            pricesByOrdinal[resourceType.ordinal()] = resourceType.getStartingPrice();
+        }
+        currentTurn = 0;
+        priceHistory.clear();
+        priceHistory.recordTurnStart(currentTurn, pricesByOrdinal);
+        pricesChanged();
+    }
+
+    /**
+     * Gets a copy of the current prices for each ResourceType. getPriceSnapshot() or getPrice() avoid the copy
      *
      * @return A Map from each ResourceType to its price
      */
     public Map<ItemType, Integer> getCurrentPrices() {
-        // Nothing outside this class should be able to modify prices, need to make a copy
-        Map<ItemType, Integer> resourcePricesCopy = new HashMap<>();
-        for (ItemType resourceType : resourcePrices.keySet()) {
-            resourcePricesCopy.put(resourceType, resourcePrices.get(resourceType));
+        return getPriceSnapshot().toMap();
+    }
+
+    /**
+     * @param itemType Any item type
+     * @return The current price of the item type, or 0 if it can't be sold
+     */
+    public int getPrice(ItemType itemType) {
+        return pricesByOrdinal[itemType.ordinal()];
+    }
+
+    /**
+     * Gets an immutable view of the current prices. The same snapshot is returned until the prices change, so
+     *  calling this many times in a turn costs nothing more than calling it once
+     *
+     * @return The current prices
+     */
+    public PriceSnapshot getPriceSnapshot() {
+        if (cachedPriceSnapshot == null || cachedPriceSnapshot.getVersion() != priceVersion) {
+            cachedPriceSnapshot = new PriceSnapshot(priceVersion, sellableResourceTypes, pricesByOrdinal.clone());
         }
-        return resourcePricesCopy;
+        return cachedPriceSnapshot;
     }
 
     /**
-     * Increments the price for each ResourceType by its priceIncreasePerTurn value.
-     * Notifies any observers (like the GUI) that they should update every NUM_UPDATES_BEFORE_NOTIFY calls
+     * @return A number that increases every time any price changes
+     */
+    public long getPriceVersion() {
+        return priceVersion;
+    }
+
+    /**
+     * @return The price of every resource at the start of each turn so far, and how many of each were sold
+     */
+    public PriceHistory getPriceHistory() {
+        return priceHistory;
+    }
+
+    /**
+     * Increments the price for each ResourceType by its priceIncreasePerTurn value, which starts the next turn
      */
     protected void increaseDemand() {
         for (ItemType resourceType : sellableResourceTypes) {
-            Integer currentPrice = resourcePrices.getOrDefault(resourceType, 0);
-            Integer nextPrice = currentPrice + resourceType.getPriceIncreasePerTurn();
+            int ordinal = resourceType.ordinal();
+            int nextPrice = pricesByOrdinal[ordinal] + resourceType.getPriceIncreasePerTurn();
             if (nextPrice >= resourceType.getMaxPrice()) {
                 nextPrice = resourceType.getMaxPrice();
             }
-            resourcePrices.put(resourceType, nextPrice);
-        }
-
-        // Let any observers, like the GUI, know to update after this updates some number of times
-        this.updatesSinceLastNotify++;
-        if (this.updatesSinceLastNotify >= NUM_UPDATES_BEFORE_NOTIFY) {
-            this.notifyObservers();
+            pricesByOrdinal[ordinal] = nextPrice;
         }
+        currentTurn++;
+        priceHistory.recordTurnStart(currentTurn, pricesByOrdinal);
+        pricesChanged();
     }
 
     /**
      * Calculates the total price for all InventoryItems in the passed in Collection.
      * Decreases the price for each resource according to newPrice = oldPrice * (1 - (numSold / 8)).
-     * Immediately notifies any observers (like the GUI) that they should update.
+     * Publishes a SaleEvent and a PriceChangeEvent.
      *
      * @param itemsToSell The entire Collection of InventoryItems to be sold
      * @return The total price that all InventoryItems were sold for
      */
     protected int sellResources(Collection<InventoryItem> itemsToSell) {
         // Count the number of each resource type being sold
-        Map<ItemType, Integer> resourcesToNumSold = new HashMap<>();
+        int numResourcesSold = 0;
         for (InventoryItem itemToSell : itemsToSell) {
             ItemType currentType = itemToSell.getItemType();
 
             if(currentType.isResource()) {
-                int numSold = resourcesToNumSold.getOrDefault(currentType, 0);
-                resourcesToNumSold.put(currentType, numSold + 1);
+                numSoldByOrdinal[currentType.ordinal()]++;
+                numResourcesSold++;
             }
         }
 
         // We now know how many of each type are being sold, need to calculate how much they are all worth
         int totalSellPrice = 0;
         for (ItemType sellableResourceType : sellableResourceTypes) {
-            int numSoldOfType = resourcesToNumSold.getOrDefault(sellableResourceType, 0);
-            int priceForResource = resourcePrices.getOrDefault(sellableResourceType, 0);
+            int ordinal = sellableResourceType.ordinal();
+            int numSoldOfType = numSoldByOrdinal[ordinal];
+            int priceForResource = pricesByOrdinal[ordinal];
             totalSellPrice += numSoldOfType * priceForResource;
 
             // Supply has gone up, decrease the sell price according to oldPrice * (1 - (numSold / 8))
-            int newResourcePrice = (int) (priceForResource * (1.0 - (numSoldOfType / 8.0)));
-            resourcePrices.put(sellableResourceType, newResourcePrice);
+            pricesByOrdinal[ordinal] = (int) (priceForResource * (1.0 - (numSoldOfType / 8.0)));
         }
+        priceHistory.recordSale(numSoldByOrdinal);
+        Arrays.fill(numSoldByOrdinal, 0);
 
-        // Always notify observers on a sell
-        this.notifyObservers();
+        if (eventBus.hasSubscribers(SaleEvent.class)) {
+            eventBus.publish(new SaleEvent(numResourcesSold, totalSellPrice));
+        }
+        pricesChanged();
         return totalSellPrice;
     }
 
-    @Override
-    public void notifyObservers() {
-        this.setChanged();
-        super.notifyObservers();
-        this.updatesSinceLastNotify = 0;
+    /**
+     * @return The current price of each sellable resource type, in the order the types were given to the constructor
+     */
+    int[] capturePrices() {
+        int[] prices = new int[sellableResourceTypes.length];
+        for (int i = 0; i < sellableResourceTypes.length; i++) {
+            prices[i] = pricesByOrdinal[sellableResourceTypes[i].ordinal()];
+        }
+        return prices;
+    }
+
+    /**
+     * Sets every price back to values captured by capturePrices() at the start of a turn, forgets the price history
+     *  after that turn, and publishes a PriceChangeEvent
+     *
+     * @param prices The price of each sellable resource type, in the order the types were given to the constructor
+     * @param turn The turn the prices were captured at the start of
+     */
+    void restorePrices(int[] prices, int turn) {
+        for (int i = 0; i < sellableResourceTypes.length; i++) {
+            pricesByOrdinal[sellableResourceTypes[i].ordinal()] = prices[i];
+        }
+        currentTurn = turn;
+        priceHistory.rewindTo(currentTurn, pricesByOrdinal);
+        pricesChanged();
+    }
+
+    private void pricesChanged() {
+        priceVersion++;
+
+        // Taking a snapshot is the expensive part, so it is skipped when nothing is listening
+        if (eventBus.hasSubscribers(PriceChangeEvent.class)) {
+            eventBus.publish(new PriceChangeEvent(getPriceSnapshot()));
+        }
     }
 }
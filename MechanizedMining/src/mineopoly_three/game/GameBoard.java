@@ -16,39 +16,198 @@ public class GameBoard {
     /**How much longer it takes an autominer to mine a resource compared to a player*/
     public static final int AUTOMINER_MULTIPLIER = 4;
 
-    private Tile[][] board;
+    // A CrackedTile has the EMPTY type, so it gets its own kind after every TileType
+    private static final int CRACKED_TILE_KIND = TileType.values().length;
+    private static final int NUM_TILE_KINDS = CRACKED_TILE_KIND + 1;
+
+    private static final Map<TileType, ItemType> resourceTileTypes = new EnumMap<>(TileType.class);
+    static {
+        for (ItemType itemType : ItemType.values()) {
+            if (itemType.isResource()) {
+                resourceTileTypes.put(itemType.getResourceTileType(), itemType);
+            }
+        }
+    }
+
+    // Every tile on the board, indexed by y * size + x. All primitive per-tile state lives in boardState
+    private final int size;
+    private Tile[] tiles;
+    private BoardState boardState;
     private Point redStartLocation;
     private Point blueStartLocation;
 
-    // A map of tile locations affected by an autominer to the number of turns they have been mined
-    private Map<Point, Integer> autominerTiles;
+    // Locations (y * size + x) of every autominer on the ground, and of every tile that does work in update()
+    private BitSet autominerLocations;
+    private BitSet updatingTileLocations;
+    // Locations (y * size + x) of every tile that may look different since the dirty tiles were last taken
+    private final BitSet dirtyTileLocations;
 
     // Variables to pre-compute things about the board and change them quickly on the fly
     private TileType[][] tileView;
-    private Map<Point, List<InventoryItem>> itemsOnGround;
+    // Set once a detached view shares tileView, which is then copied before it is next written
+    private boolean tileViewShared;
+    // Immutable item lists for every cell, indexed by y * size + x. Copied before writing if a view shares it
+    private List<InventoryItem>[] itemsOnGround;
+    private long itemsOnGroundVersion;
+    private ItemsOnGroundView itemsOnGroundView;
 
-    public GameBoard(Tile[][] tiles) {
-        board = tiles;
+    // The last tile of each kind taken off each cell, indexed by cellIndex * NUM_TILE_KINDS + kind. Boards that are
+    //  reset and generated again in place put these back instead of allocating new tiles
+    private final Tile[] spareTiles;
+
+    /**
+     * Creates a GameBoard filled with empty tiles
+     *
+     * @param size The length and width of the board
+     */
+    public GameBoard(int size) {
+        this(createEmptyTiles(size));
+    }
 
-        autominerTiles = new HashMap<>();
+    /**
+     * Creates a GameBoard from a grid of tiles, where tiles[0][0] is the top left tile
+     *
+     * @param tiles The tiles making up the board
+     */
+    @SuppressWarnings("unchecked")
+    public GameBoard(Tile[][] tiles) {
+        size = tiles.length;
+        this.tiles = new Tile[size * size];
+        boardState = new BoardState(size);
+        autominerLocations = new BitSet(size * size);
+        updatingTileLocations = new BitSet(size * size);
+        dirtyTileLocations = new BitSet(size * size);
+        dirtyTileLocations.set(0, size * size);
 
         // Pre-compute the intensive variables to give to a PlayerBoardView
-        itemsOnGround = new HashMap<>();
-        tileView = new TileType[board.length][board.length];
-        for (int i = 0; i < tileView.length; i++) {
-            for (int j = 0; j < tileView[i].length; j++) {
-                tileView[i][j] = board[i][j].getType();
-
-                Point itemLocation = board[i][j].getLocation();
-                Point itemLocationCopy = new Point(itemLocation.x, itemLocation.y);
-                List<InventoryItem> items = new ArrayList<>(board[i][j].getItemsOnTile());
-                itemsOnGround.put(itemLocationCopy, items);
+        itemsOnGround = (List<InventoryItem>[]) new List<?>[size * size];
+        tileView = new TileType[size][size];
+        for (Tile[] tileRow : tiles) {
+            for (Tile tile : tileRow) {
+                int cellIndex = getCellIndex(tile.getLocation());
+                this.tiles[cellIndex] = tile;
+                tile.attachToBoard(boardState, cellIndex);
+                tileView[(size - 1) - tile.getLocation().y][tile.getLocation().x] = tile.getType();
+                itemsOnGround[cellIndex] = List.copyOf(tile.getItemsOnTile());
+                trackActiveTile(cellIndex, tile);
             }
         }
+        itemsOnGroundVersion = 0;
+        itemsOnGroundView = null;
+        spareTiles = new Tile[size * size * NUM_TILE_KINDS];
+    }
+
+    private static Tile[][] createEmptyTiles(int size) {
+        Tile[][] emptyTiles = new Tile[size][size];
+        for (int i = 0; i < emptyTiles.length; i++) {
+            for (int j = 0; j < emptyTiles[i].length; j++) {
+                // The top left corner is index (0, 0) but location (0, maxY)
+                // This is so MOVE_UP actually moves up relative to the bottom of the screen
+                Point tileLocation = new Point(j, (size - 1) - i);
+                emptyTiles[i][j] = new EmptyTile(tileLocation);
+            }
+        }
+        return emptyTiles;
+    }
+
+    /**
+     * Puts the board back to how it was created, with an empty tile on every cell, no items, no players and no start
+     *  locations, so it can be generated again for another game. Storage is reused, and so are the tiles taken off
+     *  the board, so a board that is reset every game stops allocating tiles after a few games
+     */
+    void resetToEmpty() {
+        boardState.clear();
+        for (int cellIndex = 0; cellIndex < tiles.length; cellIndex++) {
+            Tile oldTile = tiles[cellIndex];
+            // Nobody is on the board anymore, and a market mustn't sell to a player leaving it
+            oldTile.setPlayerOnTile(null);
+
+            if (getTileKind(oldTile) == TileType.EMPTY.ordinal()) {
+                oldTile.resetForReuse();
+                oldTile.attachToBoard(boardState, cellIndex);
+                setTileViewType(cellIndex, TileType.EMPTY);
+                trackActiveTile(cellIndex, oldTile);
+            } else {
+                replaceTile(cellIndex, takeSpareTile(cellIndex, TileType.EMPTY, false));
+            }
+        }
+
+        if (itemsOnGroundView != null && itemsOnGroundView.getVersion() == itemsOnGroundVersion) {
+            itemsOnGround = itemsOnGround.clone();
+        }
+        Arrays.fill(itemsOnGround, List.of());
+        itemsOnGroundVersion++;
+        redStartLocation = null;
+        blueStartLocation = null;
+        dirtyTileLocations.set(0, tiles.length);
+    }
+
+    /**
+     * Places a tile of a type at a location while the board is being generated, reusing a tile taken off that cell
+     *  before if there is one
+     *
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @param tileType The type of tile to place. Markets, recharge tiles and resources are not cracked
+     */
+    void placeTile(int x, int y, TileType tileType) {
+        if (boardState.isValidLocation(x, y)) {
+            int cellIndex = boardState.getCellIndex(x, y);
+            replaceTile(cellIndex, takeSpareTile(cellIndex, tileType, false));
+        }
+    }
+
+    private Tile takeSpareTile(int cellIndex, TileType tileType, boolean cracked) {
+        int spareIndex = cellIndex * NUM_TILE_KINDS + (cracked ? CRACKED_TILE_KIND : tileType.ordinal());
+        Tile spareTile = spareTiles[spareIndex];
+        if (spareTile == null) {
+            return createTile(tiles[cellIndex].getLocation(), tileType, cracked);
+        }
+
+        spareTiles[spareIndex] = null;
+        spareTile.resetForReuse();
+        return spareTile;
+    }
+
+    private static int getTileKind(Tile tile) {
+        return (tile instanceof CrackedTile) ? CRACKED_TILE_KIND : tile.getType().ordinal();
     }
 
     public int getSize() {
-        return board.length;
+        return size;
+    }
+
+    /**
+     * @return The primitive per-tile state of this board
+     */
+    public BoardState getBoardState() {
+        return boardState;
+    }
+
+    /**
+     * Records that the tile at a location may look different, like when a player moves on or off of it
+     *
+     * @param location The location of the tile
+     */
+    public void markTileDirty(Point location) {
+        if (isValidLocation(location)) {
+            dirtyTileLocations.set(getCellIndex(location));
+        }
+    }
+
+    /**
+     * Takes every tile that may look different since this was last called, so only those tiles need to be drawn again
+     *
+     * @return The locations (y * size + x) of those tiles
+     */
+    public BitSet takeDirtyTileLocations() {
+        BitSet takenLocations = (BitSet) dirtyTileLocations.clone();
+        dirtyTileLocations.clear();
+        return takenLocations;
+    }
+
+    private int getCellIndex(Point location) {
+        return BoardState.packLocation(location.x, location.y, size);
     }
 
     public Point getRedStartTileLocation() {
@@ -67,8 +226,72 @@ public class GameBoard {
         this.blueStartLocation = blueStartLocation;
     }
 
+    /**
+     * Records the items on the ground at a location so they show up in the next PlayerBoardView.
+     * Only this cell is copied; the rest of the board is shared with the previous view
+     *
+     * @param pointWithItem The location whose items changed
+     * @param itemsOnPoint The items now on the ground at that location
+     */
     public void trackItemsOnPoint(Point pointWithItem, List<InventoryItem> itemsOnPoint) {
-        itemsOnGround.put(pointWithItem, new ArrayList<>(itemsOnPoint));
+        if (!isValidLocation(pointWithItem)) {
+            return;
+        }
+
+        if (itemsOnGroundView != null && itemsOnGroundView.getVersion() == itemsOnGroundVersion) {
+            // The current cells have been handed out in a view, copy on write so that view never changes
+            itemsOnGround = itemsOnGround.clone();
+        }
+        int cellIndex = getCellIndex(pointWithItem);
+        itemsOnGround[cellIndex] = List.copyOf(itemsOnPoint);
+        itemsOnGroundVersion++;
+
+        // Picking up or placing an autominer always goes through here
+        boardState.setItems(cellIndex, itemsOnPoint);
+        autominerLocations.set(cellIndex, boardState.hasAutominer(cellIndex));
+        dirtyTileLocations.set(cellIndex);
+    }
+
+    /**
+     * Places an autominer on the ground at a location, without it showing up in PlayerBoardViews
+     *  until a player interacts with that tile
+     *
+     * @param autominerLocation The location to place the autominer at
+     */
+    public void placeAutominer(Point autominerLocation) {
+        Tile autominerTile = getTileAtLocation(autominerLocation);
+        if (autominerTile != null) {
+            autominerTile.getItemsOnTile().add(new InventoryItem(ItemType.AUTOMINER));
+            int cellIndex = getCellIndex(autominerLocation);
+            trackActiveTile(cellIndex, autominerTile);
+            dirtyTileLocations.set(cellIndex);
+        }
+    }
+
+    /**
+     * Updates the autominer registry and the set of tiles needing updates for a tile that was just placed
+     *
+     * @param cellIndex The packed cell index of the tile
+     * @param tile The tile now on the board at its location
+     */
+    private void trackActiveTile(int cellIndex, Tile tile) {
+        boardState.setItems(cellIndex, tile.getItemsOnTile());
+        autominerLocations.set(cellIndex, boardState.hasAutominer(cellIndex));
+        updatingTileLocations.set(cellIndex, tile.updatesEachTurn());
+    }
+
+    /**
+     * Gets the type of the tile at the specified location without touching the Tile object itself
+     *
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return The TileType at the location, or null if the location is outside the board
+     */
+    public TileType getTileTypeAtLocation(int x, int y) {
+        if (boardState.isValidLocation(x, y)) {
+            return boardState.getTileType(boardState.getCellIndex(x, y));
+        }
+        return null;
     }
 
     /**
@@ -91,8 +314,8 @@ public class GameBoard {
      * @return The Tile at the specified location on the board
      */
     public Tile getTileAtLocation(int x, int y) {
-        if (isValidLocation(x, y)) {
-            return board[(board.length - 1) - y][x];
+        if (boardState.isValidLocation(x, y)) {
+            return tiles[boardState.getCellIndex(x, y)];
         }
         return null;
     }
@@ -108,80 +331,172 @@ public class GameBoard {
         int x = newTile.getLocation().x;
         int y = newTile.getLocation().y;
 
-        if (isValidLocation(x, y)) {
-            Tile oldTile = board[(board.length - 1) - y][x];
-            MinePlayer playerOnTile = oldTile.getPlayerOnTile();
-
-            if (playerOnTile != null) {
-                oldTile.onExit(playerOnTile);
-                newTile.onEnter(playerOnTile);
-                playerOnTile.setCurrentTile(newTile);
-            }
-            board[(board.length - 1) - y][x] = newTile;
-            tileView[(board.length - 1) - y][x] = newTile.getType();
+        if (boardState.isValidLocation(x, y)) {
+            replaceTile(boardState.getCellIndex(x, y), newTile);
         }
     }
 
-    private boolean isValidLocation(Point location) {
-        return isValidLocation(location.x, location.y);
+    private void replaceTile(int cellIndex, Tile newTile) {
+        Tile oldTile = tiles[cellIndex];
+        MinePlayer playerOnTile = oldTile.getPlayerOnTile();
+
+        if (playerOnTile != null) {
+            oldTile.onExit(playerOnTile);
+            newTile.onEnter(playerOnTile);
+            playerOnTile.setCurrentTile(newTile);
+        }
+        if (oldTile != newTile) {
+            oldTile.detachFromBoard();
+            newTile.attachToBoard(boardState, cellIndex);
+            spareTiles[cellIndex * NUM_TILE_KINDS + getTileKind(oldTile)] = oldTile;
+        }
+        tiles[cellIndex] = newTile;
+        setTileViewType(cellIndex, newTile.getType());
+        trackActiveTile(cellIndex, newTile);
+        dirtyTileLocations.set(cellIndex);
     }
 
-    private boolean isValidLocation(int x, int y) {
-        int xIndex = x;
-        int yIndex = (board.length - 1) - y;
+    private void setTileViewType(int cellIndex, TileType tileType) {
+        if (tileViewShared) {
+            tileView = tileView.clone();
+            for (int row = 0; row < size; row++) {
+                tileView[row] = tileView[row].clone();
+            }
+            tileViewShared = false;
+        }
+        tileView[(size - 1) - BoardState.unpackY(cellIndex, size)][BoardState.unpackX(cellIndex, size)] = tileType;
+    }
 
-        boolean xIndexInBounds = (xIndex >= 0 && xIndex < board.length);
-        boolean yIndexInBounds = (yIndex >= 0 && yIndex < board.length);
-        return xIndexInBounds && yIndexInBounds;
+    private boolean isValidLocation(Point location) {
+        return boardState.isValidLocation(location.x, location.y);
     }
 
     /**
-     * Called every turn for the board to update its internal state
+     * Called every turn for the board to update its internal state.
+     * Only tiles that do something every turn and the tiles around autominers are visited
      */
     public void update() {
+        for (int tileIndex = updatingTileLocations.nextSetBit(0); tileIndex >= 0;
+             tileIndex = updatingTileLocations.nextSetBit(tileIndex + 1)) {
+            tiles[tileIndex].update();
+            dirtyTileLocations.set(tileIndex);
+        }
+
+        // Every autominer mines its own tile and its neighbors. A tile next to two autominers is mined twice
+        for (int minerIndex = autominerLocations.nextSetBit(0); minerIndex >= 0;
+             minerIndex = autominerLocations.nextSetBit(minerIndex + 1)) {
+            int minerX = BoardState.unpackX(minerIndex, size);
+            int minerY = BoardState.unpackY(minerIndex, size);
+
+            mineWithAutominer(minerIndex);
+            if (minerX > 0) mineWithAutominer(minerIndex - 1);
+            if (minerX < size - 1) mineWithAutominer(minerIndex + 1);
+            if (minerY > 0) mineWithAutominer(minerIndex - size);
+            if (minerY < size - 1) mineWithAutominer(minerIndex + size);
+        }
+    }
 
-        List<Point> autominers = new ArrayList<>();
+    private void mineWithAutominer(int cellIndex) {
+        int turnsMined = boardState.getAutominerTurns(cellIndex);
 
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board.length; j++) {
-                Tile currentTile = board[i][j];
-                currentTile.update();
+        Tile tile = tiles[cellIndex];
 
-                if(currentTile.getItemsOnTile().stream().anyMatch(x -> x.getItemType() == ItemType.AUTOMINER)) {
-                    autominers.add(currentTile.getLocation());
-                }
+        if(tile instanceof EmptyTile) {
+            tile = tile.interact(null, TurnAction.MINE);
+        } else if(turnsMined > 0 && tile instanceof ResourceTile) {
+            if(turnsMined % AUTOMINER_MULTIPLIER == 0) {
+                tile = tile.interact(null, TurnAction.MINE);
             }
         }
 
-        // All tiles that are affected by at least one autominer
-        List<Point> affectedTiles = new ArrayList<>();
+        setTileAtTileLocation(tile);
 
-        for(Point miner : autominers) {
-            affectedTiles.add(new Point(miner.x, miner.y));
-            if(miner.x > 0) affectedTiles.add(new Point(miner.x - 1, miner.y));
-            if(miner.x < board.length - 1) affectedTiles.add(new Point(miner.x + 1, miner.y));
-            if(miner.y > 0) affectedTiles.add(new Point(miner.x, miner.y - 1));
-            if(miner.y < board.length - 1) affectedTiles.add(new Point(miner.x, miner.y + 1));
+        boardState.setAutominerTurns(cellIndex, turnsMined + 1);
+    }
+
+    /**
+     * @return Everything about this board that changes during a game. Players are not included
+     */
+    BoardSnapshot captureSnapshot() {
+        BitSet crackedCells = new BitSet(tiles.length);
+        ItemType[][] tileItems = new ItemType[tiles.length][];
+        for (int cellIndex = 0; cellIndex < tiles.length; cellIndex++) {
+            Tile tile = tiles[cellIndex];
+            if (tile instanceof CrackedTile) {
+                crackedCells.set(cellIndex);
+            }
+
+            List<InventoryItem> itemsOnTile = tile.getItemsOnTile();
+            if (!itemsOnTile.isEmpty()) {
+                ItemType[] itemTypes = new ItemType[itemsOnTile.size()];
+                for (int i = 0; i < itemTypes.length; i++) {
+                    itemTypes[i] = itemsOnTile.get(i).getItemType();
+                }
+                tileItems[cellIndex] = itemTypes;
+            }
         }
 
-        for(Point p : affectedTiles) {
-            int turnsMined = autominerTiles.getOrDefault(p, 0);
+        // The item lists are immutable, so only the array holding them needs to be copied
+        return new BoardSnapshot(new BoardState(boardState), crackedCells, tileItems, itemsOnGround.clone());
+    }
 
-            Tile tile = getTileAtLocation(p);
+    /**
+     * Puts every tile on this board back into a captured state. Tiles are reused when the tile at a cell is
+     *  already of the right kind. No players are left on any tile
+     *
+     * @param snapshot The state to restore, captured from a board of the same size
+     */
+    void restoreSnapshot(BoardSnapshot snapshot) {
+        BoardState savedState = snapshot.boardState;
+        for (int cellIndex = 0; cellIndex < tiles.length; cellIndex++) {
+            Tile oldTile = tiles[cellIndex];
+            TileType savedType = savedState.getTileType(cellIndex);
+            boolean savedCracked = snapshot.crackedCells.get(cellIndex);
+
+            Tile restoredTile = oldTile;
+            if (oldTile.getType() != savedType || (oldTile instanceof CrackedTile) != savedCracked) {
+                restoredTile = takeSpareTile(cellIndex, savedType, savedCracked);
+                oldTile.detachFromBoard();
+                restoredTile.attachToBoard(boardState, cellIndex);
+                spareTiles[cellIndex * NUM_TILE_KINDS + getTileKind(oldTile)] = oldTile;
+                tiles[cellIndex] = restoredTile;
+                setTileViewType(cellIndex, savedType);
+            }
+            restoredTile.setPlayerOnTile(null);
 
-            if(tile instanceof EmptyTile) {
-                tile = tile.interact(null, TurnAction.MINE);
-            } else if(turnsMined > 0 && tile instanceof ResourceTile) {
-                if(turnsMined % AUTOMINER_MULTIPLIER == 0) {
-                    tile = tile.interact(null, TurnAction.MINE);
+            List<InventoryItem> itemsOnTile = restoredTile.getItemsOnTile();
+            itemsOnTile.clear();
+            if (snapshot.tileItems[cellIndex] != null) {
+                for (ItemType itemType : snapshot.tileItems[cellIndex]) {
+                    itemsOnTile.add(new InventoryItem(itemType));
                 }
             }
+        }
 
-            setTileAtTileLocation(tile);
-
-            autominerTiles.put(p, turnsMined + 1);
+        // Mine progress and autominer turns come straight from the snapshot, then the registries are rebuilt
+        boardState.copyFrom(savedState);
+        for (int cellIndex = 0; cellIndex < tiles.length; cellIndex++) {
+            trackActiveTile(cellIndex, tiles[cellIndex]);
         }
 
+        itemsOnGround = snapshot.itemsOnGround.clone();
+        itemsOnGroundVersion++;
+        dirtyTileLocations.set(0, tiles.length);
+    }
+
+    private static Tile createTile(Point location, TileType tileType, boolean cracked) {
+        switch (tileType) {
+            case EMPTY:
+                return cracked ? new CrackedTile(location) : new EmptyTile(location);
+            case RED_MARKET:
+                return new MarketTile(location, true);
+            case BLUE_MARKET:
+                return new MarketTile(location, false);
+            case RECHARGE:
+                return new RechargeTile(location);
+            default:
+                return new ResourceTile(location, resourceTileTypes.get(tileType));
+        }
     }
 
     /**
@@ -211,12 +526,10 @@ public class GameBoard {
      */
     public PlayerBoardView convertToView(MinePlayer playerReceivingView, Point otherPlayerLocation,
                                          int otherPlayerScore) {
-        // Because we're passing around references, we don't want one strategy to change what the other sees
-        //  so we need to be careful and make copies of data being passed by reference
-        Map<Point, List<InventoryItem>> itemsOnGroundCopy = new HashMap<>();
-        for (Point pointWithItem : itemsOnGround.keySet()) {
-            Point pointCopy = new Point(pointWithItem.x, pointWithItem.y);
-            itemsOnGroundCopy.put(pointCopy, new ArrayList<>(itemsOnGround.get(pointWithItem)));
+        // Because we're passing around references, we don't want one strategy to change what the other sees.
+        //  The items view is immutable, so it is only rebuilt when an item has changed since the last view
+        if (itemsOnGroundView == null || itemsOnGroundView.getVersion() != itemsOnGroundVersion) {
+            itemsOnGroundView = new ItemsOnGroundView(itemsOnGround, size, itemsOnGroundVersion);
         }
 
         // Make copies of these locations so they may not be modified by a strategy
@@ -224,7 +537,22 @@ public class GameBoard {
         Point playerLocationCopy = new Point(playerLocation.x, playerLocation.y);
         Point otherLocationCopy = new Point(otherPlayerLocation.x, otherPlayerLocation.y);
         // We don't need to copy tileView because it is never given to the strategy by reference
-        return new PlayerBoardView(tileView, itemsOnGroundCopy, playerLocationCopy, otherLocationCopy, otherPlayerScore);
+        return new PlayerBoardView(tileView, itemsOnGroundView, playerLocationCopy, otherLocationCopy, otherPlayerScore);
+    }
+
+    /**
+     * Converts this GameBoard into a restricted information view like convertToView(), except the tile types it sees
+     *  stay the same while this GameBoard changes. For a strategy running on another thread while the game goes on.
+     *  Views share the tile types until a tile changes, so the board is only copied once per change
+     *
+     * @param playerReceivingView The player who will receive this restricted information view
+     * @param otherPlayer The opposing player
+     * @return A PlayerBoardView whose tile types this GameBoard won't change
+     */
+    public PlayerBoardView convertToDetachedView(MinePlayer playerReceivingView, MinePlayer otherPlayer) {
+        tileViewShared = true;
+        // The items view never changes once it is handed out either
+        return convertToView(playerReceivingView, otherPlayer);
     }
 
     /**
@@ -234,11 +562,8 @@ public class GameBoard {
      * @param imageManager The ImageManager object that manages all images for the JPanel component rendering this GameBoard
      */
     public void paint(Graphics2D brush, ImageManager imageManager) {
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                Tile currentTile = board[i][j];
-                currentTile.paint(brush, board.length, imageManager);
-            }
+        for (Tile currentTile : tiles) {
+            currentTile.paint(brush, size, imageManager);
         }
     }
 }
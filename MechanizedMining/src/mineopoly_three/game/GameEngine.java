@@ -2,29 +2,78 @@ package mineopoly_three.game;
 
 import mineopoly_three.action.Action;
 import mineopoly_three.action.TurnAction;
+import mineopoly_three.event.EventBus;
+import mineopoly_three.event.TurnCompletedEvent;
 import mineopoly_three.item.ItemType;
+import mineopoly_three.replay.BinaryReplayWriter;
 import mineopoly_three.replay.Replay;
 import mineopoly_three.strategy.MinePlayerStrategy;
 import mineopoly_three.strategy.PlayerBoardView;
 import mineopoly_three.tiles.Tile;
 
 import java.awt.Point;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Observable;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @SuppressWarnings("unused")
-public class GameEngine extends Observable {
+public class GameEngine {
     private static final int MAX_TURNS_PER_GAME = 1000;
     private static final double TURNS_PER_SECOND = 20;
-
-    private long randomSeed;
+    // The longest to wait for the GUI to finish loading before the game starts anyway
+    private static final long GUI_STARTUP_TIMEOUT_MILLIS = 2000;
+    // The longest to wait for a late strategy call to return before giving up on that strategy
+    private static final long LATE_STRATEGY_CALL_TIMEOUT_MILLIS = 1000;
+    private static final int NO_SEEK_REQUESTED = -1;
+
+    /**The number of turns between snapshots when watching a replay*/
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 50;
+
+    private GameSeeds gameSeeds;
+    private final BoardTemplateCache boardTemplateCache;
+    private BoardPool boardPool;
     private GameBoard board;
     private MinePlayer redPlayer;
     private MinePlayer bluePlayer;
     private Economy economy;
     private boolean guiEnabled;
     private int minScoreToWin;
+    private BinaryReplayWriter replayWriter;
+    private final EventBus eventBus = new EventBus();
+    private final PlaybackClock playbackClock = new PlaybackClock(TURNS_PER_SECOND);
+
+    // The state of the game loop between turns
+    private int turnNumber;
+    private boolean isRedTurn;
+    private boolean roundHasWinner;
+    private boolean strategiesInitialized;
+    private boolean roundEnded;
+
+    // Snapshots captured every snapshotInterval turns so the game can be moved back to an earlier turn
+    private int snapshotInterval;
+    private List<GameSnapshot> snapshots;
+    private volatile int requestedSeekTurn;
+
+    // How long each strategy takes to respond, and the optional limit on how long a turn may take
+    private StrategyLatencies redLatencies;
+    private StrategyLatencies blueLatencies;
+    private long turnTimeBudgetNanos;
+    private ExecutorService strategyExecutor;
+    // Completes once the strategy's last call to getTurnAction() has returned, even if it ran out of time. Kept
+    //  across games, since a late call can outlast the game it was made in, and removed once the call has returned
+    private final Map<MinePlayerStrategy, CompletableFuture<Void>> pendingStrategyCalls = new IdentityHashMap<>();
 
     // Variables to greatly simplify exception flow logic
     private MinePlayer playerWhoThrewException;
@@ -35,25 +84,89 @@ public class GameEngine extends Observable {
     }
 
     public GameEngine(int boardSize, MinePlayerStrategy redPlayerStrategy, MinePlayerStrategy bluePlayerStrategy, long randomSeed) {
+        this(boardSize, redPlayerStrategy, bluePlayerStrategy, GameSeeds.create(SeedScheme.LEGACY, randomSeed));
+    }
+
+    /**
+     * @param boardSize The size of the game board to generate
+     * @param redPlayerStrategy The red player's strategy
+     * @param bluePlayerStrategy The blue player's strategy
+     * @param gameSeeds The seeds of the world generator, both players and both strategies
+     */
+    public GameEngine(int boardSize, MinePlayerStrategy redPlayerStrategy, MinePlayerStrategy bluePlayerStrategy,
+                      GameSeeds gameSeeds) {
+        this(boardSize, redPlayerStrategy, bluePlayerStrategy, gameSeeds, null);
+    }
+
+    /**
+     * @param boardSize The size of the game board to generate
+     * @param redPlayerStrategy The red player's strategy
+     * @param bluePlayerStrategy The blue player's strategy
+     * @param gameSeeds The seeds of the world generator, both players and both strategies
+     * @param boardTemplateCache Where boards for this engine are looked up before being generated, or null for none.
+     *                            Also used by reset()
+     */
+    public GameEngine(int boardSize, MinePlayerStrategy redPlayerStrategy, MinePlayerStrategy bluePlayerStrategy,
+                      GameSeeds gameSeeds, BoardTemplateCache boardTemplateCache) {
+        this.boardTemplateCache = boardTemplateCache;
+
         // Generate a random GameBoard and set player start tiles
-        this.setupEngineForGame(boardSize, randomSeed);
+        this.setupEngineForGame(boardSize, gameSeeds);
 
         Tile redStartTile = board.getTileAtLocation(board.getRedStartTileLocation());
         Tile blueStartTile = board.getTileAtLocation(board.getBlueStartTileLocation());
-        this.redPlayer = new MinePlayer(redPlayerStrategy, redStartTile, economy, randomSeed, true);
-        this.bluePlayer = new MinePlayer(bluePlayerStrategy, blueStartTile, economy, randomSeed, false);
+        this.redPlayer = new MinePlayer(redPlayerStrategy, redStartTile, economy, gameSeeds.getPlayerSeed(true), true);
+        this.bluePlayer = new MinePlayer(bluePlayerStrategy, blueStartTile, economy, gameSeeds.getPlayerSeed(false),
+                                         false);
         this.guiEnabled = false;
+        this.snapshotInterval = 0;
     }
 
-    private void setupEngineForGame(int boardSize, long randomSeed) {
-        this.randomSeed = randomSeed;
-        WorldGenerator worldGenerator = new WorldGenerator(randomSeed);
-        this.board = worldGenerator.generateBoard(boardSize);
-        this.economy = new Economy(Arrays.stream(ItemType.values()).filter(ItemType::isResource).toArray(ItemType[]::new));
+    private void setupEngineForGame(int boardSize, GameSeeds gameSeeds) {
+        this.gameSeeds = gameSeeds;
+        // Forget the calls that have returned, including those of strategies this engine won't run again
+        pendingStrategyCalls.values().removeIf(CompletableFuture::isDone);
+        WorldGenerator worldGenerator = WorldGenerator.forGame(gameSeeds, boardTemplateCache);
+        if (board != null && board.getSize() != boardSize) {
+            // The last game's board is the wrong size, swap it for a pooled one of the right size if there is a pool
+            if (boardPool != null) {
+                boardPool.release(board);
+                board = boardPool.acquire(boardSize);
+            } else {
+                board = null;
+            }
+        }
+        if (board == null) {
+            this.board = worldGenerator.generateBoard(boardSize);
+        } else {
+            worldGenerator.regenerateBoard(board);
+        }
+
+        if (economy == null) {
+            ItemType[] resourceTypes = Arrays.stream(ItemType.values()).filter(ItemType::isResource).toArray(ItemType[]::new);
+            this.economy = new Economy(resourceTypes, eventBus);
+        } else {
+            economy.reset();
+        }
         this.minScoreToWin = 30 * boardSize * boardSize;
 
         this.playerWhoThrewException = null;
         this.exceptionThrown = null;
+        this.replayWriter = null;
+
+        this.turnNumber = 0;
+        this.isRedTurn = true;
+        this.roundHasWinner = false;
+        this.strategiesInitialized = false;
+        this.roundEnded = false;
+        if (snapshots == null) {
+            this.snapshots = new ArrayList<>();
+        } else {
+            snapshots.clear();
+        }
+        this.requestedSeekTurn = NO_SEEK_REQUESTED;
+        this.redLatencies = new StrategyLatencies();
+        this.blueLatencies = new StrategyLatencies();
     }
 
     /**
@@ -64,21 +177,65 @@ public class GameEngine extends Observable {
      * @param swapPlayers If true, the last red player will be the next blue player and vice versa
      */
     public void reset(int newBoardSize, long newSeed, boolean swapPlayers) {
-        this.setupEngineForGame(newBoardSize, newSeed);
+        reset(newBoardSize, GameSeeds.create(SeedScheme.LEGACY, newSeed), swapPlayers);
+    }
 
+    /**
+     * Allows the same GameEngine object to be used for multiple games
+     *
+     * @param newBoardSize The size of the new game board to be generated
+     * @param newSeeds The seeds of every part of the new game
+     * @param swapPlayers If true, the last red player will be the next blue player and vice versa
+     */
+    public void reset(int newBoardSize, GameSeeds newSeeds, boolean swapPlayers) {
         MinePlayerStrategy redPlayerStrategy = this.redPlayer.getStrategy();
         MinePlayerStrategy bluePlayerStrategy = this.bluePlayer.getStrategy();
-        Tile redStartTile = board.getTileAtLocation(board.getRedStartTileLocation());
-        Tile blueStartTile = board.getTileAtLocation(board.getBlueStartTileLocation());
         if (swapPlayers) {
-            this.redPlayer = new MinePlayer(bluePlayerStrategy, redStartTile, economy, randomSeed, true);
-            this.bluePlayer = new MinePlayer(redPlayerStrategy, blueStartTile, economy, randomSeed, false);
+            reset(newBoardSize, newSeeds, bluePlayerStrategy, redPlayerStrategy);
         } else {
-            this.redPlayer = new MinePlayer(redPlayerStrategy, redStartTile, economy, randomSeed, true);
-            this.bluePlayer = new MinePlayer(bluePlayerStrategy, blueStartTile, economy, randomSeed, false);
+            reset(newBoardSize, newSeeds, redPlayerStrategy, bluePlayerStrategy);
         }
     }
 
+    /**
+     * Allows the same GameEngine object to be used for another game between new strategies. The board, players and
+     *  economy are reinitialized in place rather than created again: the board is generated on the last game's board
+     *  if it is the same size, or on one from the board pool if one was set. A Replay from getReplay() keeps its
+     *  actions, but the previous game's snapshots and price history are cleared
+     *
+     * @param newBoardSize The size of the new game board to be generated
+     * @param newSeeds The seeds of every part of the new game
+     * @param newRedPlayerStrategy The red player's strategy in the new game
+     * @param newBluePlayerStrategy The blue player's strategy in the new game
+     */
+    public void reset(int newBoardSize, GameSeeds newSeeds, MinePlayerStrategy newRedPlayerStrategy,
+                      MinePlayerStrategy newBluePlayerStrategy) {
+        this.setupEngineForGame(newBoardSize, newSeeds);
+
+        Tile redStartTile = board.getTileAtLocation(board.getRedStartTileLocation());
+        Tile blueStartTile = board.getTileAtLocation(board.getBlueStartTileLocation());
+        this.redPlayer.reset(newRedPlayerStrategy, redStartTile, newSeeds.getPlayerSeed(true));
+        this.bluePlayer.reset(newBluePlayerStrategy, blueStartTile, newSeeds.getPlayerSeed(false));
+    }
+
+    /**
+     * Sets where boards of the wrong size go when this engine is reset to another board size, and where boards of
+     *  the new size come from
+     *
+     * @param boardPool The pool to share with other engines, or null to generate a new board when the size changes
+     */
+    public void setBoardPool(BoardPool boardPool) {
+        this.boardPool = boardPool;
+    }
+
+    /**
+     * @return The bus this engine and its Economy publish events on. Subscriptions carry over to later games
+     *  played after reset()
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
     public GameBoard getBoard() {
         return board;
     }
@@ -113,7 +270,11 @@ public class GameEngine extends Observable {
     }
 
     public long getRandomSeed() {
-        return randomSeed;
+        return gameSeeds.getRootSeed();
+    }
+
+    public GameSeeds getGameSeeds() {
+        return gameSeeds;
     }
 
     public boolean isGuiEnabled() {
@@ -124,11 +285,220 @@ public class GameEngine extends Observable {
         this.guiEnabled = guiEnabled;
     }
 
+    /**
+     * @return The clock pacing runGame() while the GUI is enabled, which can pause, step or change the speed of
+     *  the game while it is running. It carries over to later games
+     */
+    public PlaybackClock getPlaybackClock() {
+        return playbackClock;
+    }
+
+    /**
+     * Streams every action to a binary replay while the game is running, instead of only keeping them in memory
+     *  until getReplay() is called. The writer is finished at the end of the game but not closed, and it is
+     *  dropped when the engine is reset
+     *
+     * @param replayWriter A writer created with this game's board size and seed, or null to stop streaming
+     */
+    public void setReplayWriter(BinaryReplayWriter replayWriter) {
+        this.replayWriter = replayWriter;
+    }
+
+    /**
+     * Captures a snapshot of the whole game every snapshotInterval turns, starting with the first turn, so the game
+     *  can later be moved to any turn it has already passed by restoring the nearest snapshot and playing forward.
+     * Snapshots only copy the board's primitive arrays and the few tiles with items, so they are cheap to leave on
+     *
+     * @param snapshotInterval The number of turns between snapshots, or 0 to not capture snapshots
+     */
+    public void setSnapshotInterval(int snapshotInterval) {
+        if (snapshotInterval < 0) {
+            throw new IllegalArgumentException("The snapshot interval cannot be negative");
+        }
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
+    /**
+     * @return Every snapshot captured so far in this game, in turn order
+     */
+    public List<GameSnapshot> getSnapshots() {
+        return Collections.unmodifiableList(snapshots);
+    }
+
+    /**
+     * @return True if both strategies can be moved to any turn, so this engine can be restored to a snapshot
+     */
+    public boolean canSeek() {
+        return (redPlayer.getStrategy() instanceof SeekableStrategy)
+                && (bluePlayer.getStrategy() instanceof SeekableStrategy);
+    }
+
+    /**
+     * Asks a running game to move to a turn before it plays its next turn. This can be called from any thread,
+     *  like the GUI's, and the seek itself happens on the thread running the game
+     *
+     * @param targetTurn The turn to move to
+     */
+    public void requestSeek(int targetTurn) {
+        checkSeekTarget(targetTurn);
+        requestedSeekTurn = targetTurn;
+    }
+
+    /**
+     * Moves a game that is not currently running to a turn. Turns before the target are played instantly from the
+     *  nearest snapshot, or from the current turn if that is closer
+     *
+     * @param targetTurn The turn to move to, which must not be before the first snapshot
+     */
+    public void seekToTurn(int targetTurn) {
+        checkSeekTarget(targetTurn);
+        boolean reachedTarget;
+        try {
+            reachedTarget = seekWithinGame(targetTurn);
+        } catch (Exception e) {
+            handleStrategyException(e);
+            return;
+        }
+
+        if (!reachedTarget) {
+            throw new IllegalStateException("There is no snapshot at or before turn " + targetTurn);
+        }
+    }
+
+    private void checkSeekTarget(int targetTurn) {
+        if (!canSeek()) {
+            throw new IllegalStateException("Only games between seekable strategies, like replays, can seek");
+        }
+        if (targetTurn < 0 || targetTurn > MAX_TURNS_PER_GAME) {
+            throw new IllegalArgumentException("There is no turn " + targetTurn + " in a game");
+        }
+    }
+
+    /**
+     * @param targetTurn The turn to move to
+     * @return False if the target is before the current turn and before every snapshot, so it cannot be reached
+     */
+    private boolean seekWithinGame(int targetTurn) {
+        GameSnapshot nearestSnapshot = null;
+        for (GameSnapshot snapshot : snapshots) {
+            if (snapshot.getTurnNumber() <= targetTurn) {
+                nearestSnapshot = snapshot;
+            }
+        }
+
+        boolean mustGoBack = (turnNumber > targetTurn);
+        if (mustGoBack && nearestSnapshot == null) {
+            return false;
+        }
+        if (mustGoBack || (nearestSnapshot != null && nearestSnapshot.getTurnNumber() > turnNumber)) {
+            restoreSnapshot(nearestSnapshot);
+        }
+
+        while (turnNumber < targetTurn && !isGameOver()) {
+            playTurn();
+        }
+        return true;
+    }
+
+    /**
+     * @return A snapshot of the whole game at the start of the current turn
+     */
+    public GameSnapshot captureSnapshot() {
+        return new GameSnapshot(turnNumber, isRedTurn, board.captureSnapshot(), redPlayer.captureSnapshot(),
+                                bluePlayer.captureSnapshot(), economy.capturePrices());
+    }
+
+    /**
+     * Puts the whole game back into the state it was in when a snapshot was captured. Both strategies are moved
+     *  to the snapshot's turn. A replay being streamed stops streaming, because it cannot be rewound
+     *
+     * @param snapshot A snapshot captured from this game
+     */
+    public void restoreSnapshot(GameSnapshot snapshot) {
+        if (!canSeek()) {
+            throw new IllegalStateException("Only games between seekable strategies, like replays, can be restored");
+        }
+
+        board.restoreSnapshot(snapshot.board);
+        redPlayer.restoreSnapshot(snapshot.redPlayer, board.getTileAtLocation(snapshot.redPlayer.location));
+        bluePlayer.restoreSnapshot(snapshot.bluePlayer, board.getTileAtLocation(snapshot.bluePlayer.location));
+        economy.restorePrices(snapshot.resourcePrices, snapshot.getTurnNumber());
+
+        turnNumber = snapshot.getTurnNumber();
+        isRedTurn = snapshot.isRedTurn();
+        roundHasWinner = (redPlayer.getScore() >= minScoreToWin) || (bluePlayer.getScore() >= minScoreToWin);
+        playerWhoThrewException = null;
+        exceptionThrown = null;
+        replayWriter = null;
+
+        ((SeekableStrategy) redPlayer.getStrategy()).seekToTurn(turnNumber);
+        ((SeekableStrategy) bluePlayer.getStrategy()).seekToTurn(turnNumber);
+        publishTurnCompleted();
+    }
+
+    private void captureSnapshotIfDue() {
+        if (snapshotInterval <= 0 || turnNumber % snapshotInterval != 0) {
+            return;
+        }
+
+        // After seeking back, turns that already have a snapshot are played again
+        int lastSnapshotTurn = snapshots.isEmpty() ? -1 : snapshots.get(snapshots.size() - 1).getTurnNumber();
+        if (turnNumber > lastSnapshotTurn) {
+            snapshots.add(captureSnapshot());
+        }
+    }
+
+    /**
+     * Limits how long a strategy may take to choose each turn's action. With a budget, getTurnAction() is called on
+     *  the given executor, and a strategy that has not answered in time takes no action that turn and is
+     *  interrupted. Until the late call actually returns, that strategy also takes no action on its later turns,
+     *  and endRound() or the next game's initialize() wait for it to return, so a strategy is never called by two
+     *  threads at once. If it still hasn't returned after a second, the strategy is treated as if it threw an
+     *  exception instead. A timed call is given its own copy of the board view and the economy, since the game keeps
+     *  changing the real ones while a late call is still running.
+     * The executor should have a thread for each game using it, plus spares for strategies that ignore interrupts
+     *
+     * @param turnTimeBudgetNanos The most time a strategy may take to choose an action, or 0 for no limit
+     * @param strategyExecutor The executor to run strategies on while there is a limit. The engine does not shut it down
+     */
+    public void setTurnTimeBudget(long turnTimeBudgetNanos, ExecutorService strategyExecutor) {
+        if (turnTimeBudgetNanos > 0 && strategyExecutor == null) {
+            throw new IllegalArgumentException("A turn time budget needs an executor to run strategies on");
+        }
+        this.turnTimeBudgetNanos = Math.max(0, turnTimeBudgetNanos);
+        this.strategyExecutor = strategyExecutor;
+    }
+
+    /**
+     * @return How long the red player's strategy took to respond to every call made to it this game
+     */
+    public StrategyLatencies getRedPlayerLatencies() {
+        return redLatencies;
+    }
+
+    /**
+     * @return How long the blue player's strategy took to respond to every call made to it this game
+     */
+    public StrategyLatencies getBluePlayerLatencies() {
+        return blueLatencies;
+    }
+
+    private StrategyLatencies getLatencies(MinePlayer player) {
+        return player.isRedPlayer() ? redLatencies : blueLatencies;
+    }
+
     public Replay getReplay() {
         boolean redThrewException = (playerWhoThrewException == redPlayer);
         boolean blueThrewException = (playerWhoThrewException == bluePlayer);
-        return new Replay(board.getSize(), randomSeed, redPlayer.getAllTurnActions(), bluePlayer.getAllTurnActions(),
-                          redThrewException, blueThrewException);
+        // The action lists are copied because the players keep filling the same lists after a reset
+        return new Replay(board.getSize(), gameSeeds.getRootSeed(), gameSeeds.getSeedScheme(),
+                          new ArrayList<>(redPlayer.getAllTurnActions()),
+                          new ArrayList<>(bluePlayer.getAllTurnActions()), redThrewException,
+                          blueThrewException, redPlayer.getScore(), bluePlayer.getScore());
     }
 
     /**
@@ -137,64 +507,182 @@ public class GameEngine extends Observable {
      *  that strategy will receive a score of -1 and the game will end
      */
     public void runGame() {
-        // Wait a few seconds at the start for graphical components to load
-        delayBetweenGuiFrames(2000);
+        if (guiEnabled) {
+            // Don't start until the graphical components have loaded
+            playbackClock.awaitViewerReady(GUI_STARTUP_TIMEOUT_MILLIS);
+        }
+
+        initialize();
+        while (!isFinished()) {
+            if (guiEnabled) {
+                playbackClock.awaitNextTurn();
+            }
+            stepTurn();
+        }
+        finish();
+    }
+
+    /**
+     * Initializes both strategies, which must happen once before the first call to stepTurn(). Together with
+     *  stepTurn(), isFinished() and finish() this lets something outside the engine drive a game one turn at a time,
+     *  for example to interleave many games on one thread or to inspect the game between turns
+     */
+    public void initialize() {
+        if (strategiesInitialized) {
+            throw new IllegalStateException("The strategies have already been initialized");
+        }
 
+        strategiesInitialized = true;
         try {
-            runGameLoop();
+            initializePlayer(redPlayer, true);
+            initializePlayer(bluePlayer, false);
+            captureSnapshotIfDue();
         } catch (Exception e) {
-            // It's generally bad practice to catch generic Exceptions, but because a strategy can throw an exception
-            // of any type, it's unavoidable here
-            playerWhoThrewException.setScore(-1);
-            this.exceptionThrown = e;
-
-            // Let anything watching update
-            setChanged();
-            notifyObservers();
-            e.printStackTrace();
+            handleStrategyException(e);
         }
     }
 
-    private void runGameLoop() {
-        initializePlayer(redPlayer, true);
-        initializePlayer(bluePlayer, false);
+    /**
+     * Plays a single turn, or moves to the turn requested by requestSeek() if there is one. Turns are never delayed
+     *  for the GUI here, that is up to whatever is driving the game
+     *
+     * @return True if there are more turns to play, the same as !isFinished()
+     */
+    public boolean stepTurn() {
+        if (!strategiesInitialized) {
+            throw new IllegalStateException("initialize() must be called before the first turn");
+        }
+        if (isFinished()) {
+            return false;
+        }
 
-        int turnNumber = 0;
-        boolean isRedTurn = true;
-        MinePlayer firstPlayer;
-        MinePlayer secondPlayer;
-        boolean roundHasWinner = false;
+        try {
+            if (!seekIfRequested()) {
+                playTurn();
+            }
+        } catch (Exception e) {
+            handleStrategyException(e);
+        }
+        return !isFinished();
+    }
 
-        while (turnNumber < MAX_TURNS_PER_GAME && !roundHasWinner) {
-            delayBetweenGuiFrames((long) (1000 / TURNS_PER_SECOND));
+    /**
+     * @return True once no more turns can be played: the turn limit was reached, a player reached the score needed
+     *  to win, or a strategy threw an exception. finish() should be called after this
+     */
+    public boolean isFinished() {
+        return exceptionThrown != null || isGameOver();
+    }
 
-            if (isRedTurn) {
-                firstPlayer = redPlayer;
-                secondPlayer = bluePlayer;
-            } else {
-                firstPlayer = bluePlayer;
-                secondPlayer = redPlayer;
+    /**
+     * Ends the round, letting both strategies know the final scores unless one of them threw an exception, and
+     *  finishes the replay being streamed if there is one. Calling this more than once has no further effect
+     */
+    public void finish() {
+        if (roundEnded) {
+            return;
+        }
+
+        roundEnded = true;
+        if (exceptionThrown == null) {
+            try {
+                endRound();
+            } catch (Exception e) {
+                handleStrategyException(e);
             }
+        }
+        finishReplayStream();
+    }
+
+    /**
+     * Advances the game by one step: initializing both strategies, playing a single turn, or finishing the game once
+     *  no more turns can be played. Lets a GameScheduler interleave many headless games without caring which part
+     *  of the game each one is in
+     *
+     * @return True if the game has more steps left, false once it is over
+     */
+    public boolean step() {
+        if (roundEnded) {
+            return false;
+        }
+
+        if (!strategiesInitialized) {
+            initialize();
+        } else if (!isFinished()) {
+            stepTurn();
+        } else {
+            finish();
+            return false;
+        }
+        return true;
+    }
+
+    private void handleStrategyException(Exception e) {
+        // It's generally bad practice to catch generic Exceptions, but because a strategy can throw an exception
+        // of any type, it's unavoidable here
+        playerWhoThrewException.setScore(-1);
+        this.exceptionThrown = e;
 
-            processTurn(firstPlayer, secondPlayer, isRedTurn);
-            processTurn(secondPlayer, firstPlayer, isRedTurn);
+        // Let anything watching update
+        publishTurnCompleted();
+        e.printStackTrace();
+    }
 
-            board.update();
+    private boolean seekIfRequested() {
+        int seekTurn = requestedSeekTurn;
+        if (seekTurn == NO_SEEK_REQUESTED) {
+            return false;
+        }
 
-            firstPlayer.setCurrentTile(board.getTileAtLocation(firstPlayer.getCurrentTile().getLocation()));
-            secondPlayer.setCurrentTile(board.getTileAtLocation(secondPlayer.getCurrentTile().getLocation()));
+        // A request to go back before every snapshot can't be met, so it is dropped
+        requestedSeekTurn = NO_SEEK_REQUESTED;
+        seekWithinGame(seekTurn);
+        return true;
+    }
 
-            economy.increaseDemand();
+    private boolean isGameOver() {
+        return turnNumber >= MAX_TURNS_PER_GAME || roundHasWinner;
+    }
 
-            isRedTurn = !isRedTurn;
-            turnNumber++;
-            roundHasWinner = (redPlayer.getScore() >= minScoreToWin) || (bluePlayer.getScore() >= minScoreToWin);
-            // The state of the engine has changed, let anything observing it (like the GUI) know
-            this.setChanged();
-            this.notifyObservers();
+    private void playTurn() {
+        MinePlayer firstPlayer;
+        MinePlayer secondPlayer;
+        if (isRedTurn) {
+            firstPlayer = redPlayer;
+            secondPlayer = bluePlayer;
+        } else {
+            firstPlayer = bluePlayer;
+            secondPlayer = redPlayer;
         }
 
-        endRound();
+        // Players only change the tiles they leave and the tiles they end up on, every other change the board tracks
+        board.markTileDirty(firstPlayer.getCurrentTile().getLocation());
+        board.markTileDirty(secondPlayer.getCurrentTile().getLocation());
+        processTurn(firstPlayer, secondPlayer, isRedTurn);
+        processTurn(secondPlayer, firstPlayer, isRedTurn);
+
+        board.update();
+
+        firstPlayer.setCurrentTile(board.getTileAtLocation(firstPlayer.getCurrentTile().getLocation()));
+        secondPlayer.setCurrentTile(board.getTileAtLocation(secondPlayer.getCurrentTile().getLocation()));
+        board.markTileDirty(firstPlayer.getCurrentTile().getLocation());
+        board.markTileDirty(secondPlayer.getCurrentTile().getLocation());
+
+        economy.increaseDemand();
+
+        isRedTurn = !isRedTurn;
+        turnNumber++;
+        roundHasWinner = (redPlayer.getScore() >= minScoreToWin) || (bluePlayer.getScore() >= minScoreToWin);
+        captureSnapshotIfDue();
+        // The state of the engine has changed, let anything watching it (like the GUI) know
+        publishTurnCompleted();
+    }
+
+    private void publishTurnCompleted() {
+        if (eventBus.hasSubscribers(TurnCompletedEvent.class)) {
+            eventBus.publish(new TurnCompletedEvent(turnNumber, redPlayer.getScore(), bluePlayer.getScore(),
+                                                    isFinished(), board.takeDirtyTileLocations()));
+        }
     }
 
     private void initializePlayer(MinePlayer playerToInitialize, boolean isRedPlayer) {
@@ -219,8 +707,12 @@ public class GameEngine extends Observable {
 
         // Get the initial view of the board and finally initialize the strategy
         PlayerBoardView startingBoard = board.convertToView(playerToInitialize, opponentStartTile, 0);
+        awaitPendingStrategyCall(playerToInitialize.getStrategy());
+        long startTime = System.nanoTime();
         playerToInitialize.getStrategy().initialize(boardSize, maxInventorySize, maxCharge, minScoreToWin,
-                                                    startingBoard, playerStartCopy, isRedPlayer, new Random(randomSeed));
+                                                    startingBoard, playerStartCopy, isRedPlayer,
+                                                    new Random(gameSeeds.getStrategySeed(isRedPlayer)));
+        getLatencies(playerToInitialize).recordInitialize(System.nanoTime() - startTime);
         board.getTileAtLocation(startTileLocation).onEnter(playerToInitialize);
     }
 
@@ -228,11 +720,9 @@ public class GameEngine extends Observable {
         playerWhoThrewException = currentPlayer; // If an exception gets thrown, we know who did it
 
         // Ask the player what they want to do
-        PlayerBoardView boardView = board.convertToView(currentPlayer, otherPlayer);
-        MinePlayerStrategy playerStrategy = currentPlayer.getStrategy();
-        int robotCharge = currentPlayer.getCurrentEnergy();
-        TurnAction playerAction = playerStrategy.getTurnAction(boardView, economy, robotCharge, isRedTurn);
+        TurnAction playerAction = requestTurnAction(currentPlayer, otherPlayer, isRedTurn);
         currentPlayer.addTurnAction(playerAction);
+        streamTurnAction(currentPlayer, playerAction);
         if (playerAction == null) {
             return;
         }
@@ -242,25 +732,160 @@ public class GameEngine extends Observable {
         actionToPerform.performAction(board, currentPlayer, playerAction);
     }
 
-    private void endRound() {
-        int redPlayerScore = redPlayer.getScore();
-        int bluePlayerScore = bluePlayer.getScore();
-        playerWhoThrewException = redPlayer;
-        redPlayer.getStrategy().endRound(redPlayerScore, bluePlayerScore);
-        playerWhoThrewException = bluePlayer;
-        bluePlayer.getStrategy().endRound(bluePlayerScore, redPlayerScore);
-        playerWhoThrewException = null;
+    private TurnAction requestTurnAction(MinePlayer currentPlayer, MinePlayer otherPlayer, boolean isRedTurn) {
+        MinePlayerStrategy playerStrategy = currentPlayer.getStrategy();
+        StrategyLatencies latencies = getLatencies(currentPlayer);
+        int robotCharge = currentPlayer.getCurrentEnergy();
+        if (turnTimeBudgetNanos <= 0) {
+            PlayerBoardView boardView = board.convertToView(currentPlayer, otherPlayer);
+            long startTime = System.nanoTime();
+            TurnAction playerAction = playerStrategy.getTurnAction(boardView, economy, robotCharge, isRedTurn);
+            latencies.recordTurnAction(System.nanoTime() - startTime);
+            return playerAction;
+        }
+
+        CompletableFuture<Void> lastCall = pendingStrategyCalls.get(playerStrategy);
+        if (lastCall != null && !lastCall.isDone()) {
+            // The strategy is still working on a turn it already ran out of time on
+            latencies.recordTimedOutTurn(0);
+            return null;
+        }
+
+        // A late call keeps running while the game goes on, so it gets copies the game won't change under it
+        PlayerBoardView boardView = board.convertToDetachedView(currentPlayer, otherPlayer);
+        Economy economyView = economy.detach();
+        // Registered before the call is submitted, so the strategy counts as busy until the call has returned
+        CompletableFuture<Void> callReturned = new CompletableFuture<>();
+        AtomicBoolean callStarted = new AtomicBoolean(false);
+        pendingStrategyCalls.put(playerStrategy, callReturned);
+
+        long startTime = System.nanoTime();
+        Future<TurnAction> pendingAction;
+        try {
+            pendingAction = strategyExecutor.submit(() -> {
+                if (!callStarted.compareAndSet(false, true)) {
+                    // Cancelled before it started
+                    return null;
+                }
+                try {
+                    return playerStrategy.getTurnAction(boardView, economyView, robotCharge, isRedTurn);
+                } finally {
+                    callReturned.complete(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            callReturned.complete(null);
+            throw e;
+        }
+
+        try {
+            TurnAction playerAction = pendingAction.get(turnTimeBudgetNanos, TimeUnit.NANOSECONDS);
+            latencies.recordTurnAction(System.nanoTime() - startTime);
+            return playerAction;
+        } catch (TimeoutException e) {
+            cancelStrategyCall(pendingAction, callStarted, callReturned);
+            latencies.recordTimedOutTurn(System.nanoTime() - startTime);
+            return null;
+        } catch (InterruptedException e) {
+            // The game itself is being interrupted, so the strategy shouldn't be blamed for this turn
+            Thread.currentThread().interrupt();
+            cancelStrategyCall(pendingAction, callStarted, callReturned);
+            return null;
+        } catch (ExecutionException e) {
+            // Rethrow what the strategy threw, as if it had been called directly
+            Throwable strategyException = e.getCause();
+            if (strategyException instanceof RuntimeException) {
+                throw (RuntimeException) strategyException;
+            } else if (strategyException instanceof Error) {
+                throw (Error) strategyException;
+            }
+            throw new RuntimeException(strategyException);
+        }
+    }
+
+    private static void cancelStrategyCall(Future<TurnAction> pendingAction, AtomicBoolean callStarted,
+                                           CompletableFuture<Void> callReturned) {
+        pendingAction.cancel(true);
+        if (callStarted.compareAndSet(false, true)) {
+            // The call never started and now never will, otherwise it completes callReturned once it returns
+            callReturned.complete(null);
+        }
     }
 
-    private void delayBetweenGuiFrames(long millisecondsToWait) {
-        if (!guiEnabled) {
+    /**
+     * Waits for a call to getTurnAction() that ran out of time to return, so the strategy isn't called again while
+     *  it is still running. A call that still hasn't returned after LATE_STRATEGY_CALL_TIMEOUT_MILLIS is given up on,
+     *  and the strategy is treated as if it threw an exception instead of being called
+     *
+     * @param playerStrategy The strategy about to be called on the game's thread
+     */
+    private void awaitPendingStrategyCall(MinePlayerStrategy playerStrategy) {
+        CompletableFuture<Void> lastCall = pendingStrategyCalls.get(playerStrategy);
+        if (lastCall == null) {
             return;
         }
 
         try {
-            Thread.sleep(millisecondsToWait);
+            lastCall.get(LATE_STRATEGY_CALL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            pendingStrategyCalls.remove(playerStrategy);
+        } catch (TimeoutException e) {
+            // The call stays registered, so the strategy is still never called while it is running
+            throw new IllegalStateException("The strategy never returned from a turn it ran out of time on", e);
         } catch (InterruptedException e) {
-            System.err.println("Sleeping in between turns failed");
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a late strategy call to return", e);
+        } catch (ExecutionException e) {
+            // callReturned is only ever completed normally
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void streamTurnAction(MinePlayer player, TurnAction playerAction) {
+        if (replayWriter == null) {
+            return;
+        }
+
+        try {
+            if (player.isRedPlayer()) {
+                replayWriter.writeRedAction(playerAction);
+            } else {
+                replayWriter.writeBlueAction(playerAction);
+            }
+        } catch (IOException e) {
+            // A broken replay stream should never be blamed on a strategy, so stop streaming and keep playing
+            System.err.println("There was an error streaming the game replay");
+            e.printStackTrace();
+            replayWriter = null;
+        }
+    }
+
+    private void finishReplayStream() {
+        if (replayWriter == null) {
+            return;
+        }
+
+        try {
+            replayWriter.finish(playerWhoThrewException == redPlayer, playerWhoThrewException == bluePlayer,
+                                redPlayer.getScore(), bluePlayer.getScore());
+        } catch (IOException e) {
+            System.err.println("There was an error streaming the game replay");
+            e.printStackTrace();
         }
     }
+
+    private void endRound() {
+        int redPlayerScore = redPlayer.getScore();
+        int bluePlayerScore = bluePlayer.getScore();
+        playerWhoThrewException = redPlayer;
+        awaitPendingStrategyCall(redPlayer.getStrategy());
+        long startTime = System.nanoTime();
+        redPlayer.getStrategy().endRound(redPlayerScore, bluePlayerScore);
+        redLatencies.recordEndRound(System.nanoTime() - startTime);
+        playerWhoThrewException = bluePlayer;
+        awaitPendingStrategyCall(bluePlayer.getStrategy());
+        startTime = System.nanoTime();
+        bluePlayer.getStrategy().endRound(bluePlayerScore, redPlayerScore);
+        blueLatencies.recordEndRound(System.nanoTime() - startTime);
+        playerWhoThrewException = null;
+    }
 }
@@ -0,0 +1,99 @@
+package mineopoly_three.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * The seeds of every source of randomness in one game, all derived from a single root seed. With the SPLIT scheme
+ *  the world generator, each player and each strategy get their own stream split from the root in a fixed order, so
+ *  no two of them are correlated and a game is reproduced exactly from its root seed and scheme alone, no matter
+ *  which thread plays it or what other games are running.
+ */
+public final class GameSeeds {
+    private final SeedScheme seedScheme;
+    private final long rootSeed;
+    private final long worldSeed;
+    private final long redPlayerSeed;
+    private final long bluePlayerSeed;
+    private final long redStrategySeed;
+    private final long blueStrategySeed;
+
+    private GameSeeds(SeedScheme seedScheme, long rootSeed, long worldSeed, long redPlayerSeed, long bluePlayerSeed,
+                      long redStrategySeed, long blueStrategySeed) {
+        this.seedScheme = seedScheme;
+        this.rootSeed = rootSeed;
+        this.worldSeed = worldSeed;
+        this.redPlayerSeed = redPlayerSeed;
+        this.bluePlayerSeed = bluePlayerSeed;
+        this.redStrategySeed = redStrategySeed;
+        this.blueStrategySeed = blueStrategySeed;
+    }
+
+    /**
+     * @param seedScheme How to derive every seed from the root seed
+     * @param rootSeed The game's seed
+     * @return The seeds of every part of the game
+     */
+    public static GameSeeds create(SeedScheme seedScheme, long rootSeed) {
+        if (seedScheme == SeedScheme.LEGACY) {
+            return new GameSeeds(seedScheme, rootSeed, rootSeed, rootSeed, rootSeed, rootSeed, rootSeed);
+        }
+
+        // The order of these splits is part of the scheme, changing it would change every SPLIT game
+        SplittableRandom rootRandom = new SplittableRandom(rootSeed);
+        long worldSeed = rootRandom.split().nextLong();
+        long redPlayerSeed = rootRandom.split().nextLong();
+        long bluePlayerSeed = rootRandom.split().nextLong();
+        long redStrategySeed = rootRandom.split().nextLong();
+        long blueStrategySeed = rootRandom.split().nextLong();
+        return new GameSeeds(seedScheme, rootSeed, worldSeed, redPlayerSeed, bluePlayerSeed, redStrategySeed,
+                             blueStrategySeed);
+    }
+
+    /**
+     * Derives the root seed of every game in a tournament from one tournament seed. Each game's seed depends only on
+     *  the tournament seed and the game's position, never on how the games are scheduled
+     *
+     * @param tournamentSeed The seed of the whole tournament
+     * @param numGames The number of games to derive seeds for
+     * @return The root seed of each game
+     */
+    public static long[] deriveGameSeeds(long tournamentSeed, int numGames) {
+        SplittableRandom tournamentRandom = new SplittableRandom(tournamentSeed);
+        long[] gameSeeds = new long[numGames];
+        for (int gameNumber = 0; gameNumber < numGames; gameNumber++) {
+            gameSeeds[gameNumber] = tournamentRandom.nextLong();
+        }
+        return gameSeeds;
+    }
+
+    public SeedScheme getSeedScheme() {
+        return seedScheme;
+    }
+
+    /**
+     * @return The seed everything else was derived from, which is what replays and tournament results record
+     */
+    public long getRootSeed() {
+        return rootSeed;
+    }
+
+    public long getWorldSeed() {
+        return worldSeed;
+    }
+
+    /**
+     * @param isRedPlayer True for the red player's seed, false for the blue player's
+     * @return The seed of the random numbers the engine draws for the player (like how much a tile yields)
+     */
+    public long getPlayerSeed(boolean isRedPlayer) {
+        return isRedPlayer ? redPlayerSeed : bluePlayerSeed;
+    }
+
+    /**
+     * @param isRedPlayer True for the red player's strategy seed, false for the blue player's
+     * @return The seed of the Random given to the player's strategy in initialize()
+     */
+    public long getStrategySeed(boolean isRedPlayer) {
+        return isRedPlayer ? redStrategySeed : blueStrategySeed;
+    }
+}
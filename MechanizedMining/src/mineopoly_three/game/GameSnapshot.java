@@ -0,0 +1,36 @@
+package mineopoly_three.game;
+
+/**
+ * The complete state of a game at the start of a turn, which a GameEngine can be restored to.
+ * Strategies are not part of a snapshot, so only engines whose strategies implement SeekableStrategy
+ *  (like replays) can be restored.
+ */
+public class GameSnapshot {
+    private final int turnNumber;
+    private final boolean isRedTurn;
+    final BoardSnapshot board;
+    final PlayerSnapshot redPlayer;
+    final PlayerSnapshot bluePlayer;
+    final int[] resourcePrices;
+
+    GameSnapshot(int turnNumber, boolean isRedTurn, BoardSnapshot board, PlayerSnapshot redPlayer,
+                 PlayerSnapshot bluePlayer, int[] resourcePrices) {
+        this.turnNumber = turnNumber;
+        this.isRedTurn = isRedTurn;
+        this.board = board;
+        this.redPlayer = redPlayer;
+        this.bluePlayer = bluePlayer;
+        this.resourcePrices = resourcePrices;
+    }
+
+    /**
+     * @return The number of turns that had been played when this snapshot was captured
+     */
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
+    public boolean isRedTurn() {
+        return isRedTurn;
+    }
+}
@@ -0,0 +1,114 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.InventoryItem;
+
+import java.awt.Point;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A read-only Map from every location on the board to the items on the ground there, backed directly by the
+ *  GameBoard's per-cell item lists. Every list held by this map is immutable, and the GameBoard copies its
+ *  cell array before changing a cell that has been handed out, so a view never changes after it is created.
+ * This lets both players share one view per board version instead of each receiving a deep copy.
+ */
+class ItemsOnGroundView extends AbstractMap<Point, List<InventoryItem>> {
+    private final List<InventoryItem>[] itemCells;
+    private final int boardSize;
+    private final long version;
+    private Set<Map.Entry<Point, List<InventoryItem>>> entrySet;
+
+    /**
+     * @param itemCells The immutable item list of every cell, indexed by y * boardSize + x
+     * @param boardSize The length and width of the board
+     * @param version The GameBoard item version this view was taken at
+     */
+    ItemsOnGroundView(List<InventoryItem>[] itemCells, int boardSize, long version) {
+        this.itemCells = itemCells;
+        this.boardSize = boardSize;
+        this.version = version;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    @Override
+    public List<InventoryItem> get(Object key) {
+        int cellIndex = getCellIndex(key);
+        return (cellIndex < 0) ? null : itemCells[cellIndex];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return getCellIndex(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return itemCells.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return itemCells.length == 0;
+    }
+
+    private int getCellIndex(Object key) {
+        if (!(key instanceof Point)) {
+            return -1;
+        }
+
+        Point location = (Point) key;
+        boolean xInBounds = (location.x >= 0 && location.x < boardSize);
+        boolean yInBounds = (location.y >= 0 && location.y < boardSize);
+        return (xInBounds && yInBounds) ? (location.y * boardSize + location.x) : -1;
+    }
+
+    @Override
+    public Set<Map.Entry<Point, List<InventoryItem>>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Map.Entry<Point, List<InventoryItem>>>() {
+                @Override
+                public Iterator<Map.Entry<Point, List<InventoryItem>>> iterator() {
+                    return new CellIterator();
+                }
+
+                @Override
+                public int size() {
+                    return itemCells.length;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Creates the Point keys lazily, so strategies that only call get() never pay for them
+     */
+    private class CellIterator implements Iterator<Map.Entry<Point, List<InventoryItem>>> {
+        private int nextCellIndex = 0;
+
+        @Override
+        public boolean hasNext() {
+            return nextCellIndex < itemCells.length;
+        }
+
+        @Override
+        public Map.Entry<Point, List<InventoryItem>> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Point location = new Point(nextCellIndex % boardSize, nextCellIndex / boardSize);
+            List<InventoryItem> items = itemCells[nextCellIndex];
+            nextCellIndex++;
+            return new AbstractMap.SimpleImmutableEntry<>(location, items);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package mineopoly_three.game;
 import mineopoly_three.action.TurnAction;
 import mineopoly_three.graphics.ImageManager;
 import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.ItemType;
 import mineopoly_three.strategy.MinePlayerStrategy;
 import mineopoly_three.tiles.Tile;
 
@@ -34,7 +35,7 @@ public class MinePlayer {
     private List<TurnAction> actions;
     private Economy economy;
     private int currentEnergy;
-    private Random randomNumberGenerator;
+    private RestorableRandom randomNumberGenerator;
 
     protected MinePlayer(MinePlayerStrategy strategy, Tile startingTile, Economy economy,
                          long randomSeed, boolean isRedPlayer) {
@@ -44,10 +45,29 @@ public class MinePlayer {
         this.isRedPlayer = isRedPlayer;
         this.score = 0;
         this.lastMove = TurnAction.MOVE_DOWN;
-        this.actions = new LinkedList<>();
+        this.actions = new ArrayList<>();
         this.economy = economy;
         this.currentEnergy = MAX_ENERGY;
-        this.randomNumberGenerator = new Random(randomSeed);
+        this.randomNumberGenerator = new RestorableRandom(randomSeed);
+    }
+
+    /**
+     * Puts this player back to how it starts a game, for another game played by the same engine. The inventory and
+     *  action lists keep their storage
+     *
+     * @param strategy The strategy playing the next game
+     * @param startingTile The tile the player starts the next game on
+     * @param randomSeed The seed of this player's random number generator
+     */
+    void reset(MinePlayerStrategy strategy, Tile startingTile, long randomSeed) {
+        this.strategy = strategy;
+        this.inventory.clear();
+        this.currentTile = startingTile;
+        this.score = 0;
+        this.lastMove = TurnAction.MOVE_DOWN;
+        this.actions.clear();
+        this.currentEnergy = MAX_ENERGY;
+        this.randomNumberGenerator.setSeed(randomSeed);
     }
 
     public MinePlayerStrategy getStrategy() {
@@ -144,6 +164,44 @@ public class MinePlayer {
         return randomNumberGenerator;
     }
 
+    /**
+     * @return Everything about this player that changes during a game
+     */
+    PlayerSnapshot captureSnapshot() {
+        ItemType[] inventoryTypes = new ItemType[inventory.size()];
+        for (int i = 0; i < inventoryTypes.length; i++) {
+            inventoryTypes[i] = inventory.get(i).getItemType();
+        }
+
+        Point location = currentTile.getLocation();
+        return new PlayerSnapshot(new Point(location.x, location.y), score, currentEnergy, inventoryTypes, lastMove,
+                                  actions.toArray(new TurnAction[0]), randomNumberGenerator.getState());
+    }
+
+    /**
+     * Puts this player back into a captured state, including the turn actions taken up to the snapshot.
+     * The strategy is not told about any of this
+     *
+     * @param snapshot The state to restore
+     * @param restoredTile The tile at the snapshot's location on the restored board
+     */
+    void restoreSnapshot(PlayerSnapshot snapshot, Tile restoredTile) {
+        score = snapshot.score;
+        currentEnergy = snapshot.energy;
+        lastMove = snapshot.lastMove;
+        randomNumberGenerator.setState(snapshot.randomState);
+
+        inventory.clear();
+        for (ItemType itemType : snapshot.inventory) {
+            inventory.add(new InventoryItem(itemType));
+        }
+        actions.clear();
+        actions.addAll(Arrays.asList(snapshot.turnActions));
+
+        currentTile = restoredTile;
+        restoredTile.setPlayerOnTile(this);
+    }
+
     /**
      * Gets the Image corresponding the direction the player is currently facing
      *
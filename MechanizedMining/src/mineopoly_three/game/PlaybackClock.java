@@ -0,0 +1,164 @@
+package mineopoly_three.game;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when a game being watched plays its next turn. Playback can be paused, stepped one turn at a time while
+ *  paused, sped up from 1x to 100x the normal speed, or unthrottled to play turns as fast as they can be simulated.
+ *  Everything can be changed from any thread while the game is running, like the GUI's key bindings.
+ *
+ * The clock only paces the simulation, it never waits for anything to be drawn. The GUI draws the latest state
+ *  whenever it gets to it and skips the turns in between, so playback stays on time even when drawing can't keep up.
+ *  If the game itself falls far behind, the clock starts again from now instead of rushing through the missed turns.
+ */
+public class PlaybackClock {
+    public static final double MIN_SPEED = 1;
+    public static final double MAX_SPEED = 100;
+    // How far behind the game may fall before the clock gives up on catching up
+    private static final long MAX_LAG_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final double baseTurnsPerSecond;
+    private double speed;
+    private boolean paused;
+    private boolean unthrottled;
+    private int numStepsRequested;
+    private boolean viewerReady;
+    // When the next turn is due on the System.nanoTime() clock. Unless a turn is scheduled, it is played right away
+    private long nextTurnNanos;
+    private boolean turnScheduled;
+
+    /**
+     * @param baseTurnsPerSecond The number of turns played each second at 1x speed
+     */
+    public PlaybackClock(double baseTurnsPerSecond) {
+        if (baseTurnsPerSecond <= 0) {
+            throw new IllegalArgumentException("Playback must play a positive number of turns per second");
+        }
+
+        this.baseTurnsPerSecond = baseTurnsPerSecond;
+        this.speed = MIN_SPEED;
+        this.paused = false;
+        this.unthrottled = false;
+        this.numStepsRequested = 0;
+        this.viewerReady = false;
+        this.turnScheduled = false;
+    }
+
+    public synchronized double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * @param speed How many times faster than normal to play, clamped between MIN_SPEED and MAX_SPEED
+     */
+    public synchronized void setSpeed(double speed) {
+        this.speed = Math.max(MIN_SPEED, Math.min(MAX_SPEED, speed));
+        // Play the next turn right away and keep pace from there, instead of finishing the wait for the old speed
+        turnScheduled = false;
+        notifyAll();
+    }
+
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    public synchronized void setPaused(boolean paused) {
+        this.paused = paused;
+        numStepsRequested = 0;
+        turnScheduled = false;
+        notifyAll();
+    }
+
+    public synchronized void togglePaused() {
+        setPaused(!paused);
+    }
+
+    /**
+     * Lets a paused game play one more turn. Does nothing while the game isn't paused
+     */
+    public synchronized void requestStep() {
+        if (paused) {
+            numStepsRequested++;
+            notifyAll();
+        }
+    }
+
+    public synchronized boolean isUnthrottled() {
+        return unthrottled;
+    }
+
+    /**
+     * @param unthrottled True to play turns as fast as they can be simulated, ignoring the speed
+     */
+    public synchronized void setUnthrottled(boolean unthrottled) {
+        this.unthrottled = unthrottled;
+        turnScheduled = false;
+        notifyAll();
+    }
+
+    /**
+     * Called by whatever is showing the game once it is ready to, so the game doesn't start before the viewer can
+     *  show it
+     */
+    public synchronized void markViewerReady() {
+        viewerReady = true;
+        notifyAll();
+    }
+
+    /**
+     * Waits until markViewerReady() is called, or until a timeout in case the viewer never finishes loading
+     *
+     * @param timeoutMillis The longest time to wait
+     */
+    public synchronized void awaitViewerReady(long timeoutMillis) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            long remainingNanos;
+            while (!viewerReady && (remainingNanos = deadlineNanos - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until the next turn should be played: right away if unthrottled, once a step is requested if paused, and
+     *  one turn interval after the last turn otherwise
+     */
+    public synchronized void awaitNextTurn() {
+        try {
+            while (true) {
+                if (paused) {
+                    if (numStepsRequested > 0) {
+                        numStepsRequested--;
+                        return;
+                    }
+                    wait();
+                    continue;
+                }
+                if (unthrottled) {
+                    return;
+                }
+
+                long turnIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / (baseTurnsPerSecond * speed));
+                long currentNanos = System.nanoTime();
+                if (!turnScheduled || currentNanos - nextTurnNanos > MAX_LAG_NANOS) {
+                    // Nothing to keep pace with yet, or too far behind to catch up, so start again from now
+                    nextTurnNanos = currentNanos;
+                    turnScheduled = true;
+                }
+
+                long waitNanos = nextTurnNanos - currentNanos;
+                if (waitNanos <= 0) {
+                    nextTurnNanos += turnIntervalNanos;
+                    return;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+            }
+        } catch (InterruptedException e) {
+            // Play the turn now, whoever interrupted the game can stop it
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package mineopoly_three.game;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.item.ItemType;
+
+import java.awt.Point;
+
+/**
+ * Everything about a MinePlayer that changes during a game, captured at the start of a turn
+ */
+class PlayerSnapshot {
+    final Point location;
+    final int score;
+    final int energy;
+    final ItemType[] inventory;
+    final TurnAction lastMove;
+    final TurnAction[] turnActions;
+    final long randomState;
+
+    PlayerSnapshot(Point location, int score, int energy, ItemType[] inventory, TurnAction lastMove,
+                   TurnAction[] turnActions, long randomState) {
+        this.location = location;
+        this.score = score;
+        this.energy = energy;
+        this.inventory = inventory;
+        this.lastMove = lastMove;
+        this.turnActions = turnActions;
+        this.randomState = randomState;
+    }
+}
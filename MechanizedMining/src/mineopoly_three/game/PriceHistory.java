@@ -0,0 +1,344 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.ItemType;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The price of every sellable resource at the start of each turn, and how many of each were sold during the turn,
+ *  kept by the Economy as the game is played. Every resource has its own column of prices and of sales in a ring
+ *  buffer, so recording a turn only writes a few shorts and the default capacity holds a whole game.
+ */
+public class PriceHistory {
+    // Enough for every turn of a game, plus the start of the turn after the last one
+    public static final int DEFAULT_CAPACITY = 1024;
+    private static final int NO_TURN = -1;
+
+    private final ItemType[] resourceTypes;
+    private final int[] columnByOrdinal;
+    private final int capacity;
+    private short[][] pricesByColumn;
+    private short[][] numSoldByColumn;
+    private final int[] lastSaleTurnByColumn;
+    private int oldestTurn;
+    private int latestTurn;
+    // The furthest turn ever recorded, which is past latestTurn after the game goes back to an earlier turn
+    private int furthestTurn;
+    // A turn that was already played before the game went back, whose sales are kept until they are recorded again
+    private int turnWithStaleSales;
+    // The turns copies sharing the columns can see, which are copied before any of them is written again
+    private int oldestSharedTurn;
+    private int latestSharedTurn;
+
+    PriceHistory(ItemType[] resourceTypes, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A price history must hold at least one turn");
+        }
+
+        this.resourceTypes = resourceTypes;
+        this.columnByOrdinal = new int[ItemType.values().length];
+        Arrays.fill(columnByOrdinal, -1);
+        for (int column = 0; column < resourceTypes.length; column++) {
+            columnByOrdinal[resourceTypes[column].ordinal()] = column;
+        }
+
+        this.capacity = capacity;
+        this.pricesByColumn = new short[resourceTypes.length][capacity];
+        this.numSoldByColumn = new short[resourceTypes.length][capacity];
+        this.lastSaleTurnByColumn = new int[resourceTypes.length];
+        Arrays.fill(lastSaleTurnByColumn, NO_TURN);
+        this.oldestTurn = NO_TURN;
+        this.latestTurn = NO_TURN;
+        this.furthestTurn = NO_TURN;
+        this.turnWithStaleSales = NO_TURN;
+        this.oldestSharedTurn = NO_TURN;
+        this.latestSharedTurn = NO_TURN;
+    }
+
+    /**
+     * Copies every turn recorded so far, so the copy stays the same while the game goes on. The copy must only be
+     *  read: it shares its columns with priceHistory, which copies them before it next writes a turn the copy can see
+     *
+     * @param priceHistory The history to copy
+     */
+    PriceHistory(PriceHistory priceHistory) {
+        this.resourceTypes = priceHistory.resourceTypes;
+        this.columnByOrdinal = priceHistory.columnByOrdinal;
+        this.capacity = priceHistory.capacity;
+        this.pricesByColumn = priceHistory.pricesByColumn;
+        this.numSoldByColumn = priceHistory.numSoldByColumn;
+        this.lastSaleTurnByColumn = priceHistory.lastSaleTurnByColumn.clone();
+        this.oldestTurn = priceHistory.oldestTurn;
+        this.latestTurn = priceHistory.latestTurn;
+        this.furthestTurn = priceHistory.furthestTurn;
+        this.turnWithStaleSales = priceHistory.turnWithStaleSales;
+        this.oldestSharedTurn = NO_TURN;
+        this.latestSharedTurn = NO_TURN;
+
+        if (latestTurn != NO_TURN) {
+            priceHistory.oldestSharedTurn = (priceHistory.latestSharedTurn == NO_TURN)
+                    ? oldestTurn : Math.min(priceHistory.oldestSharedTurn, oldestTurn);
+            priceHistory.latestSharedTurn = Math.max(priceHistory.latestSharedTurn, latestTurn);
+        }
+    }
+
+    /**
+     * Forgets every turn recorded, keeping the storage for the next game unless a copy shares it
+     */
+    void clear() {
+        if (latestSharedTurn != NO_TURN) {
+            pricesByColumn = new short[resourceTypes.length][capacity];
+            numSoldByColumn = new short[resourceTypes.length][capacity];
+            oldestSharedTurn = NO_TURN;
+            latestSharedTurn = NO_TURN;
+        }
+        Arrays.fill(lastSaleTurnByColumn, NO_TURN);
+        oldestTurn = NO_TURN;
+        latestTurn = NO_TURN;
+        furthestTurn = NO_TURN;
+        turnWithStaleSales = NO_TURN;
+    }
+
+    /**
+     * Records the prices at the start of a turn, which must be the turn after the latest one
+     *
+     * @param turn The turn that is starting
+     * @param pricesByOrdinal The price of every ItemType, indexed by ordinal
+     */
+    void recordTurnStart(int turn, int[] pricesByOrdinal) {
+        copyColumnsBeforeWriting(turn);
+        int index = turn % capacity;
+        if (turn <= furthestTurn) {
+            // Keep the turn's sales in case the game moves on without playing the turn again
+            turnWithStaleSales = turn;
+        } else {
+            for (short[] numSold : numSoldByColumn) {
+                numSold[index] = 0;
+            }
+            turnWithStaleSales = NO_TURN;
+        }
+
+        for (int column = 0; column < resourceTypes.length; column++) {
+            pricesByColumn[column][index] = (short) pricesByOrdinal[resourceTypes[column].ordinal()];
+        }
+
+        latestTurn = turn;
+        if (turn <= furthestTurn) {
+            return;
+        }
+
+        furthestTurn = turn;
+        if (oldestTurn == NO_TURN) {
+            oldestTurn = turn;
+        } else if (furthestTurn - oldestTurn >= capacity) {
+            oldestTurn = furthestTurn - capacity + 1;
+        }
+    }
+
+    /**
+     * Records a sale during the latest turn
+     *
+     * @param numSoldByOrdinal The number of every ItemType sold, indexed by ordinal
+     */
+    void recordSale(int[] numSoldByOrdinal) {
+        if (latestTurn == NO_TURN) {
+            return;
+        }
+
+        copyColumnsBeforeWriting(latestTurn);
+        int index = latestTurn % capacity;
+        if (latestTurn == turnWithStaleSales) {
+            // The turn is being played again, and will record the same sales it did the first time
+            for (short[] numSold : numSoldByColumn) {
+                numSold[index] = 0;
+            }
+            turnWithStaleSales = NO_TURN;
+        }
+        for (int column = 0; column < resourceTypes.length; column++) {
+            int numSold = numSoldByOrdinal[resourceTypes[column].ordinal()];
+            if (numSold > 0) {
+                numSoldByColumn[column][index] += numSold;
+                lastSaleTurnByColumn[column] = latestTurn;
+            }
+        }
+    }
+
+    /**
+     * Moves the history to a turn the game has been restored to, backwards or forwards. Only games whose strategies
+     *  are seekable (like replays) can be restored, and they play the same turns every time, so turns recorded
+     *  before are kept: going back hides the turns after the target until they are played again, and going forward
+     *  to a turn already played shows them again
+     *
+     * @param turn The turn the game is now at the start of
+     * @param pricesByOrdinal The price of every ItemType at the start of that turn, indexed by ordinal
+     */
+    void rewindTo(int turn, int[] pricesByOrdinal) {
+        if (oldestTurn == NO_TURN || turn < oldestTurn || turn > furthestTurn + 1) {
+            // Nothing recorded connects to this turn, so start over from it
+            oldestTurn = NO_TURN;
+            furthestTurn = NO_TURN;
+        }
+        recordTurnStart(turn, pricesByOrdinal);
+
+        for (int column = 0; column < resourceTypes.length; column++) {
+            lastSaleTurnByColumn[column] = NO_TURN;
+            for (int pastTurn = turn - 1; pastTurn >= oldestTurn && pastTurn >= 0; pastTurn--) {
+                if (numSoldByColumn[column][pastTurn % capacity] > 0) {
+                    lastSaleTurnByColumn[column] = pastTurn;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The earliest turn whose prices are still held, or -1 if nothing has been recorded
+     */
+    public int getOldestTurn() {
+        return oldestTurn;
+    }
+
+    /**
+     * @return The latest turn whose prices have been recorded, or -1 if nothing has been recorded
+     */
+    public int getLatestTurn() {
+        return latestTurn;
+    }
+
+    /**
+     * @param resourceType A sellable resource type
+     * @param turn A turn from getOldestTurn() to getLatestTurn()
+     * @return The price of the resource at the start of the turn
+     */
+    public int getPrice(ItemType resourceType, int turn) {
+        return pricesByColumn[getColumn(resourceType)][getIndex(turn)];
+    }
+
+    /**
+     * @param resourceType A sellable resource type
+     * @param turn A turn from getOldestTurn() to getLatestTurn()
+     * @return The number of the resource sold by both players during the turn
+     */
+    public int getNumSold(ItemType resourceType, int turn) {
+        return numSoldByColumn[getColumn(resourceType)][getIndex(turn)];
+    }
+
+    /**
+     * @param resourceType A sellable resource type
+     * @param numTurns The number of turns to average over, ending with the latest turn
+     * @return The mean price of the resource at the start of those turns. Turns that are no longer held are left
+     *  out, and 0 is returned if nothing has been recorded
+     */
+    public double getMovingAverage(ItemType resourceType, int numTurns) {
+        if (latestTurn == NO_TURN || numTurns < 1) {
+            return 0;
+        }
+
+        short[] prices = pricesByColumn[getColumn(resourceType)];
+        int firstTurn = Math.max(oldestTurn, latestTurn - numTurns + 1);
+        long totalPrice = 0;
+        for (int turn = firstTurn; turn <= latestTurn; turn++) {
+            totalPrice += prices[turn % capacity];
+        }
+        return ((double) totalPrice) / (latestTurn - firstTurn + 1);
+    }
+
+    /**
+     * @param resourceType A sellable resource type
+     * @return The number of turns since the last turn the resource was sold in, 0 if it was sold this turn, or -1
+     *  if it hasn't been sold in any turn still held
+     */
+    public int getTurnsSinceLastSale(ItemType resourceType) {
+        int lastSaleTurn = lastSaleTurnByColumn[getColumn(resourceType)];
+        return (lastSaleTurn == NO_TURN) ? NO_TURN : latestTurn - lastSaleTurn;
+    }
+
+    /**
+     * Projects the price of a resource at the start of a turn, if nobody sells any of it before then. Prices rise by
+     *  the resource's priceIncreasePerTurn every turn until they reach its maxPrice
+     *
+     * @param resourceType A sellable resource type
+     * @param turn Any turn from getOldestTurn() on. Recorded prices are returned for past turns
+     * @return The projected price, or the resource's starting price if nothing has been recorded
+     */
+    public int getProjectedPrice(ItemType resourceType, int turn) {
+        if (latestTurn == NO_TURN) {
+            return resourceType.getStartingPrice();
+        }
+        if (turn <= latestTurn) {
+            return getPrice(resourceType, turn);
+        }
+
+        long projectedPrice = getPrice(resourceType, latestTurn)
+                + (long) resourceType.getPriceIncreasePerTurn() * (turn - latestTurn);
+        return (int) Math.min(projectedPrice, resourceType.getMaxPrice());
+    }
+
+    /**
+     * Writes every turn still held as CSV, one line per turn, with a header line naming each column:
+     *  turn,DIAMOND,EMERALD,RUBY,DIAMOND_sold,EMERALD_sold,RUBY_sold (for the default resources)
+     *
+     * @param csvOutput Where to write the CSV
+     * @throws IOException If csvOutput can't be written to
+     */
+    public void writeCsv(Appendable csvOutput) throws IOException {
+        csvOutput.append("turn");
+        for (ItemType resourceType : resourceTypes) {
+            csvOutput.append(',').append(resourceType.name());
+        }
+        for (ItemType resourceType : resourceTypes) {
+            csvOutput.append(',').append(resourceType.name()).append("_sold");
+        }
+        csvOutput.append('\n');
+
+        if (latestTurn == NO_TURN) {
+            return;
+        }
+        for (int turn = oldestTurn; turn <= latestTurn; turn++) {
+            int index = turn % capacity;
+            csvOutput.append(Integer.toString(turn));
+            for (short[] prices : pricesByColumn) {
+                csvOutput.append(',').append(Integer.toString(prices[index]));
+            }
+            for (short[] numSold : numSoldByColumn) {
+                csvOutput.append(',').append(Integer.toString(numSold[index]));
+            }
+            csvOutput.append('\n');
+        }
+    }
+
+    private void copyColumnsBeforeWriting(int turn) {
+        if (latestSharedTurn == NO_TURN) {
+            return;
+        }
+        // A turn past the shared ones only lands on a shared index once the ring buffer wraps around to them
+        if (turn <= latestSharedTurn || turn - capacity >= oldestSharedTurn) {
+            short[][] sharedPrices = pricesByColumn;
+            short[][] sharedNumSold = numSoldByColumn;
+            pricesByColumn = new short[resourceTypes.length][];
+            numSoldByColumn = new short[resourceTypes.length][];
+            for (int column = 0; column < resourceTypes.length; column++) {
+                pricesByColumn[column] = sharedPrices[column].clone();
+                numSoldByColumn[column] = sharedNumSold[column].clone();
+            }
+            oldestSharedTurn = NO_TURN;
+            latestSharedTurn = NO_TURN;
+        }
+    }
+
+    private int getColumn(ItemType resourceType) {
+        int column = columnByOrdinal[resourceType.ordinal()];
+        if (column < 0) {
+            throw new IllegalArgumentException(resourceType + " is not a sellable resource");
+        }
+        return column;
+    }
+
+    private int getIndex(int turn) {
+        if (latestTurn == NO_TURN || turn < oldestTurn || turn > latestTurn) {
+            throw new IllegalArgumentException("The prices at turn " + turn + " are not held in the history");
+        }
+        return turn % capacity;
+    }
+}
@@ -0,0 +1,70 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.ItemType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * An immutable view of every resource price at one moment. The Economy creates at most one snapshot each time its
+ *  prices change and hands the same object to every caller until they change again, so strategies can ask for
+ *  prices as often as they like without anything being copied.
+ */
+public class PriceSnapshot {
+    private final long version;
+    private final ItemType[] resourceTypes;
+    private final int[] pricesByOrdinal;
+
+    /**
+     * @param version The Economy's price version these prices were taken at
+     * @param resourceTypes The resource types that can be sold. This array is never modified
+     * @param pricesByOrdinal The price of every ItemType, indexed by ordinal. This array is never modified
+     */
+    PriceSnapshot(long version, ItemType[] resourceTypes, int[] pricesByOrdinal) {
+        this.version = version;
+        this.resourceTypes = resourceTypes;
+        this.pricesByOrdinal = pricesByOrdinal;
+    }
+
+    /**
+     * @return A number that increases every time the Economy's prices change. Two snapshots from the same Economy
+     *  with the same version have the same prices
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param itemType Any item type
+     * @return The price of the item type, or 0 if it can't be sold
+     */
+    public int getPrice(ItemType itemType) {
+        return pricesByOrdinal[itemType.ordinal()];
+    }
+
+    /**
+     * @return The number of resource types that can be sold
+     */
+    public int getNumResourceTypes() {
+        return resourceTypes.length;
+    }
+
+    /**
+     * @param index An index from 0 to getNumResourceTypes() - 1
+     * @return The sellable resource type at that index
+     */
+    public ItemType getResourceType(int index) {
+        return resourceTypes[index];
+    }
+
+    /**
+     * @return A new Map from each sellable resource type to its price
+     */
+    public Map<ItemType, Integer> toMap() {
+        Map<ItemType, Integer> resourcePrices = new EnumMap<>(ItemType.class);
+        for (ItemType resourceType : resourceTypes) {
+            resourcePrices.put(resourceType, pricesByOrdinal[resourceType.ordinal()]);
+        }
+        return resourcePrices;
+    }
+}
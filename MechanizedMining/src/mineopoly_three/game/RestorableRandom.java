@@ -0,0 +1,45 @@
+package mineopoly_three.game;
+
+import java.util.Random;
+
+/**
+ * A Random that produces exactly the same sequence as java.util.Random for the same seed, but whose internal
+ *  state can be read and restored. java.util.Random keeps its state private, so this reimplements its
+ *  linear congruential generator in next(), which every other method of Random is built on.
+ */
+class RestorableRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // No initializer on purpose: Random's constructor calls setSeed() before subclass fields are initialized
+    private long state;
+
+    RestorableRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        this.state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /**
+     * @return The generator's internal state, which can be passed to setState() to continue from this point
+     */
+    long getState() {
+        return state;
+    }
+
+    void setState(long state) {
+        this.state = state;
+    }
+}
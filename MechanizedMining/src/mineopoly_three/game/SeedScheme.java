@@ -0,0 +1,18 @@
+package mineopoly_three.game;
+
+/**
+ * How a game's random seed is turned into the seeds used by each part of the game. See GameSeeds
+ */
+public enum SeedScheme {
+    /**
+     * Every part of the game uses the game's seed directly, so both players and both strategies see the same random
+     *  sequence as the world generator. Games recorded before seed schemes existed were all played this way
+     */
+    LEGACY,
+
+    /**
+     * Every part of the game gets its own independent seed, split from the game's seed with a SplittableRandom, and
+     *  the world generator places resources without rejection sampling (see WorldGenerator)
+     */
+    SPLIT
+}
@@ -0,0 +1,15 @@
+package mineopoly_three.game;
+
+/**
+ * A strategy whose decisions only depend on the turn number, so it can be moved to any turn of a game.
+ * A GameEngine can only be restored to a GameSnapshot when both of its strategies implement this.
+ */
+public interface SeekableStrategy {
+    /**
+     * Called after the GameEngine is restored to a snapshot, so the next getTurnAction() call returns the action
+     *  for this turn
+     *
+     * @param turnNumber The number of turns that have already been played
+     */
+    void seekToTurn(int turnNumber);
+}
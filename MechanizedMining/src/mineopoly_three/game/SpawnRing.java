@@ -0,0 +1,104 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.ItemType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every cell a resource type can spawn on when a board of one size is generated, and how likely each cell is.
+ *
+ * The original generator picks a uniformly random angle and a uniformly random radius between the resource's min
+ *  and max spawn distance, then truncates the polar point to a cell. The weight of a cell here is how many points of
+ *  a fine, evenly spaced grid over (angle, radius) truncate to it, which is that same distribution measured
+ *  SAMPLES_PER_TILE times per tile in each direction. Rings only depend on the board size and resource type, so
+ *  each one is computed once and shared by every board generated afterwards.
+ */
+class SpawnRing {
+    private static final int SAMPLES_PER_TILE = 32;
+    private static final Map<Long, SpawnRing> RINGS_BY_KEY = new ConcurrentHashMap<>();
+
+    private final int[] cellXs;
+    private final int[] cellYs;
+    private final int[] cellWeights;
+
+    private SpawnRing(int[] cellXs, int[] cellYs, int[] cellWeights) {
+        this.cellXs = cellXs;
+        this.cellYs = cellYs;
+        this.cellWeights = cellWeights;
+    }
+
+    /**
+     * @param boardSize The size of the board being generated
+     * @param resourceType The resource type being spawned
+     * @return The ring of cells the resource type spawns on for that board size
+     */
+    static SpawnRing forResource(int boardSize, ItemType resourceType) {
+        long key = ((long) boardSize << 8) | resourceType.ordinal();
+        return RINGS_BY_KEY.computeIfAbsent(key, unused -> computeRing(boardSize, resourceType));
+    }
+
+    private static SpawnRing computeRing(int boardSize, ItemType resourceType) {
+        final int halfBoardSize = boardSize / 2;
+        final double minRadius = halfBoardSize * resourceType.getMinSpawnDistanceRatio();
+        final double maxRadius = halfBoardSize * resourceType.getMaxSpawnDistanceRatio();
+        final int numRadii = Math.max(1, (int) Math.ceil((maxRadius - minRadius) * SAMPLES_PER_TILE));
+        final int numAngles = Math.max(SAMPLES_PER_TILE, (int) Math.ceil(2 * Math.PI * maxRadius * SAMPLES_PER_TILE));
+
+        double[] cosines = new double[numAngles];
+        double[] sines = new double[numAngles];
+        for (int a = 0; a < numAngles; a++) {
+            double angle = (a + 0.5) / numAngles * (2 * Math.PI);
+            cosines[a] = Math.cos(angle);
+            sines[a] = Math.sin(angle);
+        }
+
+        // Points that land off the board are never placed, the original generator just tries again
+        int[] weightsByCell = new int[boardSize * boardSize];
+        int numCells = 0;
+        for (int r = 0; r < numRadii; r++) {
+            double radius = (r + 0.5) / numRadii * (maxRadius - minRadius) + minRadius;
+            for (int a = 0; a < numAngles; a++) {
+                int x = (int) (radius * cosines[a]) + halfBoardSize;
+                int y = (int) (radius * sines[a]) + halfBoardSize;
+                if (x >= 0 && x < boardSize && y >= 0 && y < boardSize) {
+                    int cellIndex = y * boardSize + x;
+                    if (weightsByCell[cellIndex] == 0) {
+                        numCells++;
+                    }
+                    weightsByCell[cellIndex]++;
+                }
+            }
+        }
+
+        int[] cellXs = new int[numCells];
+        int[] cellYs = new int[numCells];
+        int[] cellWeights = new int[numCells];
+        int cellNumber = 0;
+        for (int cellIndex = 0; cellIndex < weightsByCell.length; cellIndex++) {
+            if (weightsByCell[cellIndex] > 0) {
+                cellXs[cellNumber] = cellIndex % boardSize;
+                cellYs[cellNumber] = cellIndex / boardSize;
+                cellWeights[cellNumber] = weightsByCell[cellIndex];
+                cellNumber++;
+            }
+        }
+        return new SpawnRing(cellXs, cellYs, cellWeights);
+    }
+
+    int getNumCells() {
+        return cellWeights.length;
+    }
+
+    int getCellX(int cellNumber) {
+        return cellXs[cellNumber];
+    }
+
+    int getCellY(int cellNumber) {
+        return cellYs[cellNumber];
+    }
+
+    int getCellWeight(int cellNumber) {
+        return cellWeights[cellNumber];
+    }
+}
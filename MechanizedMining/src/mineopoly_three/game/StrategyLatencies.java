@@ -0,0 +1,80 @@
+package mineopoly_three.game;
+
+import mineopoly_three.util.LatencyHistogram;
+
+/**
+ * How long one player's strategy took to respond to each call the GameEngine made to it, and how many turns it
+ *  ran out of time on when the engine has a turn time budget.
+ */
+public class StrategyLatencies {
+    private final LatencyHistogram initializeLatency;
+    private final LatencyHistogram turnActionLatency;
+    private final LatencyHistogram endRoundLatency;
+    private int numTimedOutTurns;
+
+    public StrategyLatencies() {
+        this.initializeLatency = new LatencyHistogram();
+        this.turnActionLatency = new LatencyHistogram();
+        this.endRoundLatency = new LatencyHistogram();
+        this.numTimedOutTurns = 0;
+    }
+
+    void recordInitialize(long nanos) {
+        initializeLatency.record(nanos);
+    }
+
+    void recordTurnAction(long nanos) {
+        turnActionLatency.record(nanos);
+    }
+
+    /**
+     * Records a turn the strategy did not answer within the budget. The time waited still counts as its latency
+     *
+     * @param nanosWaited How long the engine waited before giving up on the strategy
+     */
+    void recordTimedOutTurn(long nanosWaited) {
+        turnActionLatency.record(nanosWaited);
+        numTimedOutTurns++;
+    }
+
+    void recordEndRound(long nanos) {
+        endRoundLatency.record(nanos);
+    }
+
+    /**
+     * Adds every latency recorded for another strategy (or the same strategy in another game) to this one
+     *
+     * @param other The latencies to add
+     */
+    public void merge(StrategyLatencies other) {
+        initializeLatency.merge(other.initializeLatency);
+        turnActionLatency.merge(other.turnActionLatency);
+        endRoundLatency.merge(other.endRoundLatency);
+        numTimedOutTurns += other.numTimedOutTurns;
+    }
+
+    public LatencyHistogram getInitializeLatency() {
+        return initializeLatency;
+    }
+
+    public LatencyHistogram getTurnActionLatency() {
+        return turnActionLatency;
+    }
+
+    public LatencyHistogram getEndRoundLatency() {
+        return endRoundLatency;
+    }
+
+    /**
+     * @return The number of turns the strategy's action was replaced by no action for running out of time
+     */
+    public int getNumTimedOutTurns() {
+        return numTimedOutTurns;
+    }
+
+    @Override
+    public String toString() {
+        return "getTurnAction: " + turnActionLatency + ", " + numTimedOutTurns + " timed out; initialize: "
+                + initializeLatency + "; endRound: " + endRoundLatency;
+    }
+}
@@ -1,13 +1,8 @@
 package mineopoly_three.game;
 
-import mineopoly_three.item.InventoryItem;
 import mineopoly_three.item.ItemType;
-import mineopoly_three.tiles.EmptyTile;
-import mineopoly_three.tiles.MarketTile;
-import mineopoly_three.tiles.RechargeTile;
-import mineopoly_three.tiles.ResourceTile;
-import mineopoly_three.tiles.Tile;
 import mineopoly_three.tiles.TileType;
+import mineopoly_three.util.FenwickTree;
 
 import java.awt.Point;
 import java.util.Arrays;
@@ -18,14 +13,46 @@ import java.util.Random;
  *  a seed value means that it will always generate the same "random" sequence whenever it is provided
  *  with the same seed value later. This allows us to generate an unpredictable GameBoard, but also
  *  generate that same exact GameBoard if necessary for replaying a match / reproducing bugs / other purposes
+ *
+ * Resources can be placed in two ways. The original way tries random polar coordinates until it finds an empty tile,
+ *  and gives up on a resource after MAX_EMPTY_TILE_SEARCHES misses, which gets slow and drops resources once a ring
+ *  fills up on a big board. The rejection free way samples each ring's empty cells without replacement, weighted by
+ *  how likely the original way is to land on them (see SpawnRing), so every draw places a resource. Both produce
+ *  the same distribution of boards, but not the same board for a seed, so games with LEGACY seeds keep the original
+ *  way and every game recorded before still replays exactly.
  */
 public class WorldGenerator {
     private static final float RANDOM_RESOURCE_CHANCE = 0.2f;
     private static final int MAX_EMPTY_TILE_SEARCHES = 50;
+    private final long rngSeedValue;
     private final Random randomGenerator;
+    private final boolean rejectionFree;
+    private final BoardTemplateCache boardTemplateCache;
 
     public WorldGenerator(long rngSeedValue) {
+        this(rngSeedValue, false, null);
+    }
+
+    /**
+     * @param rngSeedValue The seed of the generator
+     * @param rejectionFree True to sample each ring's empty cells directly instead of retrying random coordinates
+     * @param boardTemplateCache Where to look up and remember the resources of generated boards, or null for none
+     */
+    public WorldGenerator(long rngSeedValue, boolean rejectionFree, BoardTemplateCache boardTemplateCache) {
+        this.rngSeedValue = rngSeedValue;
         this.randomGenerator = new Random(rngSeedValue);
+        this.rejectionFree = rejectionFree;
+        this.boardTemplateCache = boardTemplateCache;
+    }
+
+    /**
+     * @param gameSeeds The seeds of the game the board is for. SPLIT games place resources rejection free
+     * @param boardTemplateCache Where to look up and remember the resources of generated boards, or null for none
+     * @return The world generator for the game
+     */
+    public static WorldGenerator forGame(GameSeeds gameSeeds, BoardTemplateCache boardTemplateCache) {
+        return new WorldGenerator(gameSeeds.getWorldSeed(), gameSeeds.getSeedScheme() == SeedScheme.SPLIT,
+                                  boardTemplateCache);
     }
 
     /**
@@ -35,25 +62,42 @@ public class WorldGenerator {
      * @return A GameBoard object ready for use in a round of Mine-opoly
      */
     protected GameBoard generateBoard(int boardSize) {
-        // Fill board with empty tiles to begin with
-        Tile[][] tilesOnBoard = new Tile[boardSize][boardSize];
-        for (int i = 0; i < tilesOnBoard.length; i++) {
-            for (int j = 0; j < tilesOnBoard[i].length; j++) {
-                // The top left corner is index (0, 0) but location (0, maxY)
-                // This is so MOVE_UP actually moves up relative to the bottom of the screen
-                Point tileLocation = new Point(j, (boardSize - 1) - i);
-                tilesOnBoard[i][j] = new EmptyTile(tileLocation);
-            }
-        }
+        GameBoard board = new GameBoard(boardSize);
+        this.populateBoard(board);
+        return board;
+    }
 
-        GameBoard board = new GameBoard(tilesOnBoard);
+    /**
+     * Generates a board in place on one used for an earlier game, reusing its storage and tiles. The board ends up
+     *  exactly like the board generateBoard() would have created
+     *
+     * @param reusedBoard A board of the size to generate. Everything on it is replaced
+     * @return reusedBoard, ready for use in a round of Mine-opoly
+     */
+    protected GameBoard regenerateBoard(GameBoard reusedBoard) {
+        reusedBoard.resetToEmpty();
+        this.populateBoard(reusedBoard);
+        return reusedBoard;
+    }
 
+    private void populateBoard(GameBoard board) {
         this.addChargingTiles(board);
         this.addMarketTiles(board);
-        this.generateResources(board);
+        if (boardTemplateCache == null) {
+            this.generateResources(board);
+        } else {
+            int boardSize = board.getSize();
+            BoardTemplateCache.ResourceLayout resourceLayout =
+                    boardTemplateCache.getLayout(boardSize, rngSeedValue, rejectionFree);
+            if (resourceLayout == null) {
+                this.generateResources(board);
+                resourceLayout = BoardTemplateCache.ResourceLayout.capture(board);
+                boardTemplateCache.putLayout(boardSize, rngSeedValue, rejectionFree, resourceLayout);
+            } else {
+                resourceLayout.applyTo(board);
+            }
+        }
         this.addAutominerTiles(board);
-
-        return board;
     }
 
     private void addChargingTiles(GameBoard board) {
@@ -61,8 +105,7 @@ public class WorldGenerator {
         int halfBoardSize = board.getSize() / 2;
         for (int y = halfBoardSize - 1; y <= halfBoardSize; y++) {
             for (int x = halfBoardSize - 1; x <= halfBoardSize; x++) {
-                Point chargingSquareLocation = new Point(x, y);
-                board.setTileAtTileLocation(new RechargeTile(chargingSquareLocation));
+                board.placeTile(x, y, TileType.RECHARGE);
             }
         }
     }
@@ -74,10 +117,10 @@ public class WorldGenerator {
         Point blueLowerMarketPoint = new Point(boardSize * 3 / 4, boardSize * 3 / 4);
         Point blueUpperMarketPoint = new Point(boardSize / 4, boardSize / 4);
 
-        board.setTileAtTileLocation(new MarketTile(redLowerMarketPoint, true));
-        board.setTileAtTileLocation(new MarketTile(redUpperMarketPoint, true));
-        board.setTileAtTileLocation(new MarketTile(blueLowerMarketPoint, false));
-        board.setTileAtTileLocation(new MarketTile(blueUpperMarketPoint, false));
+        board.placeTile(redLowerMarketPoint.x, redLowerMarketPoint.y, TileType.RED_MARKET);
+        board.placeTile(redUpperMarketPoint.x, redUpperMarketPoint.y, TileType.RED_MARKET);
+        board.placeTile(blueLowerMarketPoint.x, blueLowerMarketPoint.y, TileType.BLUE_MARKET);
+        board.placeTile(blueUpperMarketPoint.x, blueUpperMarketPoint.y, TileType.BLUE_MARKET);
 
         // Set the start points for both players to be their lower market
         board.setRedStartLocation(redLowerMarketPoint);
@@ -92,6 +135,11 @@ public class WorldGenerator {
 
         // Spawn rings of resources at increasing distances around the center of the board
         for (ItemType currentResourceType : resourceTypes) {
+            if (rejectionFree) {
+                this.sampleResourceRing(board, currentResourceType, resourceTypes);
+                continue;
+            }
+
             int numResourceTilesToSpawn = (int) (numTilesOnBoard * currentResourceType.getSpawnCountRatio());
             double minRadius = halfBoardSize * currentResourceType.getMinSpawnDistanceRatio();
             double maxRadius = halfBoardSize * currentResourceType.getMaxSpawnDistanceRatio();
@@ -109,7 +157,7 @@ public class WorldGenerator {
                     randomY = (int) (randomRadius * Math.sin(randomAngle)) + halfBoardSize;
 
                     numAttempts++;
-                    tileEmpty = (board.getTileAtLocation(randomX, randomY).getType() == TileType.EMPTY);
+                    tileEmpty = (board.getTileTypeAtLocation(randomX, randomY) == TileType.EMPTY);
                 } while (!tileEmpty && (numAttempts <= MAX_EMPTY_TILE_SEARCHES));
 
                 if (!tileEmpty) {
@@ -125,15 +173,45 @@ public class WorldGenerator {
                 }
 
                 // Plop this resource down at the random empty tile
-                Point randomLocation = new Point(randomX, randomY);
-                Tile resourceTile = new ResourceTile(randomLocation, typeToSpawn);
-                board.setTileAtTileLocation(resourceTile);
+                board.placeTile(randomX, randomY, typeToSpawn.getResourceTileType());
             }
         }
     }
 
+    private void sampleResourceRing(GameBoard board, ItemType ringResourceType, ItemType[] resourceTypes) {
+        final int boardSize = board.getSize();
+        final int numResourceTilesToSpawn = (int) (boardSize * boardSize * ringResourceType.getSpawnCountRatio());
+        SpawnRing spawnRing = SpawnRing.forResource(boardSize, ringResourceType);
+
+        // Only cells that are still empty can be drawn, and each one is removed once a resource is placed on it
+        int[] cellWeights = new int[spawnRing.getNumCells()];
+        for (int cellNumber = 0; cellNumber < cellWeights.length; cellNumber++) {
+            int x = spawnRing.getCellX(cellNumber);
+            int y = spawnRing.getCellY(cellNumber);
+            if (board.getTileTypeAtLocation(x, y) == TileType.EMPTY) {
+                cellWeights[cellNumber] = spawnRing.getCellWeight(cellNumber);
+            }
+        }
+        FenwickTree emptyCells = new FenwickTree(cellWeights);
+
+        for (int i = 0; i < numResourceTilesToSpawn && emptyCells.getTotal() > 0; i++) {
+            int cellNumber = emptyCells.findIndex(randomGenerator.nextInt(emptyCells.getTotal()));
+            emptyCells.setWeight(cellNumber, 0);
+
+            // Rarely spawn a resource of a different type
+            ItemType typeToSpawn = ringResourceType;
+            if (randomGenerator.nextFloat() <= RANDOM_RESOURCE_CHANCE) {
+                int randomIndex = randomGenerator.nextInt(resourceTypes.length);
+                typeToSpawn = resourceTypes[randomIndex];
+            }
+
+            board.placeTile(spawnRing.getCellX(cellNumber), spawnRing.getCellY(cellNumber),
+                            typeToSpawn.getResourceTileType());
+        }
+    }
+
     private void addAutominerTiles(GameBoard board) {
-        board.getTileAtLocation(1, board.getSize() - 2).getItemsOnTile().add(new InventoryItem(ItemType.AUTOMINER));
-        board.getTileAtLocation(board.getSize() - 2, board.getSize() - 2).getItemsOnTile().add(new InventoryItem(ItemType.AUTOMINER));
+        board.placeAutominer(new Point(1, board.getSize() - 2));
+        board.placeAutominer(new Point(board.getSize() - 2, board.getSize() - 2));
     }
 }
@@ -1,6 +1,9 @@
 package mineopoly_three.graphics;
 
+import mineopoly_three.event.GameEventListener;
+import mineopoly_three.event.PriceChangeEvent;
 import mineopoly_three.game.Economy;
+import mineopoly_three.game.PriceSnapshot;
 import mineopoly_three.item.ItemType;
 
 import java.awt.*;
@@ -10,16 +13,23 @@ import java.util.Comparator;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-public class EconomyDisplayPanel extends GameInfoDisplayPanel {
+public class EconomyDisplayPanel extends GameInfoDisplayPanel implements GameEventListener<PriceChangeEvent> {
     private static final int RESOURCE_IMAGE_SIZE = 60;
-    private Economy gameEconomy;
+    // The prices from the latest PriceChangeEvent, so painting never reads the Economy while the game changes it
+    private volatile PriceSnapshot resourcePrices;
 
     public EconomyDisplayPanel(int preferredWidth, Economy gameEconomy, ImageManager imageManager) {
         super(preferredWidth, imageManager);
-        this.gameEconomy = gameEconomy;
+        this.resourcePrices = gameEconomy.getPriceSnapshot();
         imageManager.rescaleImages(RESOURCE_IMAGE_SIZE, RESOURCE_IMAGE_SIZE);
     }
 
+    @Override
+    public void onEvent(PriceChangeEvent event) {
+        resourcePrices = event.getPrices();
+        repaint();
+    }
+
     @Override
     public void paint(Graphics g) {
         super.paint(g);
@@ -33,7 +43,7 @@ public class EconomyDisplayPanel extends GameInfoDisplayPanel {
         brush.setColor(Color.BLACK);
 
         // Sort ResourceTypes in descending order by price
-        Map<ItemType, Integer> resourcePrices = gameEconomy.getCurrentPrices();
+        Map<ItemType, Integer> resourcePrices = this.resourcePrices.toMap();
         List<ItemType> resourcesSortedByPrice = resourcePrices.entrySet().stream()
                 .sorted(Collections.reverseOrder(Comparator.comparingInt(Map.Entry::getValue)))
                 .map(Map.Entry::getKey)
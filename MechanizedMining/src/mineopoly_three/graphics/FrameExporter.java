@@ -0,0 +1,204 @@
+package mineopoly_three.graphics;
+
+import mineopoly_three.event.PriceChangeEvent;
+import mineopoly_three.event.TurnCompletedEvent;
+import mineopoly_three.game.Economy;
+import mineopoly_three.game.GameBoard;
+import mineopoly_three.game.GameEngine;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Plays a game without a window and writes what the GUI would have shown after every turn as a numbered PNG file,
+ *  for turning games into video clips. Works in java.awt.headless mode.
+ *
+ * Frames are drawn on the thread calling exportGame() by the same panels the GUI uses, so the board is composited
+ *  incrementally from the tiles that changed each turn. Encoding the PNG files is what takes time, so frames are
+ *  handed to an executor to be encoded in parallel while the game keeps playing. Only a fixed number of frame images
+ *  exist at once, so a slow disk makes the game wait instead of filling the heap with frames.
+ */
+public class FrameExporter {
+    private static final String FRAME_FILE_FORMAT = "frame_%05d.png";
+    // Trades slightly bigger files for a faster deflate level, which encodes about a third faster than the default
+    private static final float PNG_COMPRESSION_QUALITY = 0.8f;
+
+    private final ExecutorService encodingExecutor;
+    private final int numFrameBuffers;
+    private final int preferredWidth;
+
+    /**
+     * @param encodingExecutor The executor frames are encoded on. The exporter does not shut it down
+     * @param numFrameBuffers The most frames being drawn or encoded at once, at least 2. One more than the number of
+     *                        encoding threads keeps every thread busy
+     * @param preferredWidth The preferred width of the frames, which is rounded up the same way the GUI's is
+     */
+    public FrameExporter(ExecutorService encodingExecutor, int numFrameBuffers, int preferredWidth) {
+        if (numFrameBuffers < 2) {
+            throw new IllegalArgumentException("A frame must be able to be drawn while another one is encoded");
+        }
+
+        this.encodingExecutor = encodingExecutor;
+        this.numFrameBuffers = numFrameBuffers;
+        this.preferredWidth = preferredWidth;
+    }
+
+    /**
+     * Plays a game that has not been started yet to the end, writing a frame of the starting board and one after
+     *  every turn. The engine's GUI should be disabled, and nothing else should be subscribed to its
+     *  TurnCompletedEvents, otherwise every frame has to be drawn from scratch
+     *
+     * @param engine The game to play and export
+     * @param outputDirectoryPath The directory to write the frames to, which is created if it doesn't exist
+     * @return The number of frames written
+     * @throws IOException If the images could not be loaded or a frame could not be written
+     */
+    public int exportGame(GameEngine engine, String outputDirectoryPath) throws IOException {
+        File outputDirectory = new File(outputDirectoryPath);
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("Could not create the frame directory " + outputDirectoryPath);
+        }
+
+        GameBoard board = engine.getBoard();
+        Economy economy = engine.getEconomy();
+        final int frameWidth = UserInterface.fitWidthToBoard(preferredWidth, board.getSize());
+        final int playerInfoPanelWidth = (frameWidth * 3) / 8;
+        final int economyInfoPanelWidth = frameWidth - (2 * playerInfoPanelWidth);
+        SpriteAtlas spriteAtlas = UserInterface.loadDefaultSpriteAtlas();
+        ImageManager playerInfoImageManager = new ImageManager(spriteAtlas);
+        PlayerInfoDisplayPanel redPanel = new PlayerInfoDisplayPanel(playerInfoPanelWidth, engine.getRedPlayer(),
+                                                                     playerInfoImageManager);
+        EconomyDisplayPanel economyPanel = new EconomyDisplayPanel(economyInfoPanelWidth, economy,
+                                                                   new ImageManager(spriteAtlas));
+        PlayerInfoDisplayPanel bluePanel = new PlayerInfoDisplayPanel(playerInfoPanelWidth, engine.getBluePlayer(),
+                                                                      playerInfoImageManager);
+        GameBoardDisplayPanel boardPanel = new GameBoardDisplayPanel(frameWidth, board, new ImageManager(spriteAtlas));
+
+        // Lay the panels out exactly like the GUI does, with the info panels in a bar above the board
+        final int infoPanelHeight = redPanel.getPreferredSize().height;
+        redPanel.setBounds(0, 0, playerInfoPanelWidth, infoPanelHeight);
+        economyPanel.setBounds(playerInfoPanelWidth, 0, economyInfoPanelWidth, infoPanelHeight);
+        bluePanel.setBounds(playerInfoPanelWidth + economyInfoPanelWidth, 0, playerInfoPanelWidth, infoPanelHeight);
+        boardPanel.setBounds(0, infoPanelHeight, frameWidth, frameWidth);
+        Component[] panels = new Component[]{redPanel, economyPanel, bluePanel, boardPanel};
+
+        BlockingQueue<BufferedImage> freeFrames = new ArrayBlockingQueue<>(numFrameBuffers);
+        for (int i = 0; i < numFrameBuffers; i++) {
+            freeFrames.add(new BufferedImage(frameWidth, infoPanelHeight + frameWidth, BufferedImage.TYPE_INT_RGB));
+        }
+
+        List<Future<?>> encodedFrames = new ArrayList<>();
+        engine.initialize();
+        int frameNumber = 0;
+        while (true) {
+            // This exporter is the only one taking the board's changed tiles, unless something else is subscribed
+            BitSet changedTiles = engine.getEventBus().hasSubscribers(TurnCompletedEvent.class)
+                    ? allTiles(board) : board.takeDirtyTileLocations();
+            boardPanel.onEvent(new TurnCompletedEvent(engine.getTurnNumber(), engine.getRedPlayer().getScore(),
+                                                      engine.getBluePlayer().getScore(), engine.isFinished(),
+                                                      changedTiles));
+            economyPanel.onEvent(new PriceChangeEvent(economy.getPriceSnapshot()));
+
+            BufferedImage frame = takeFreeFrame(freeFrames);
+            drawFrame(frame, panels);
+            File frameFile = new File(outputDirectory, String.format(FRAME_FILE_FORMAT, frameNumber));
+            encodedFrames.add(encodingExecutor.submit(() -> {
+                try {
+                    writePng(frame, frameFile);
+                    return null;
+                } finally {
+                    freeFrames.add(frame);
+                }
+            }));
+            frameNumber++;
+
+            if (engine.isFinished()) {
+                break;
+            }
+            engine.stepTurn();
+        }
+        engine.finish();
+
+        waitForFrames(encodedFrames);
+        return frameNumber;
+    }
+
+    private static BitSet allTiles(GameBoard board) {
+        BitSet tiles = new BitSet(board.getSize() * board.getSize());
+        tiles.set(0, board.getSize() * board.getSize());
+        return tiles;
+    }
+
+    private static BufferedImage takeFreeFrame(BlockingQueue<BufferedImage> freeFrames) throws IOException {
+        try {
+            return freeFrames.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a frame to be encoded", e);
+        }
+    }
+
+    private static void drawFrame(BufferedImage frame, Component[] panels) {
+        Graphics2D brush = frame.createGraphics();
+        for (Component panel : panels) {
+            Graphics2D panelBrush = (Graphics2D) brush.create(panel.getX(), panel.getY(),
+                                                              panel.getWidth(), panel.getHeight());
+            panel.paint(panelBrush);
+            panelBrush.dispose();
+        }
+        brush.dispose();
+    }
+
+    private static void writePng(BufferedImage frame, File frameFile) throws IOException {
+        // Writers keep state while writing, so every frame gets its own
+        ImageWriter pngWriter = ImageIO.getImageWritersByFormatName("png").next();
+        try (ImageOutputStream frameOutput = ImageIO.createImageOutputStream(frameFile)) {
+            if (frameOutput == null) {
+                throw new IOException("Could not open " + frameFile.getPath() + " for writing");
+            }
+            ImageWriteParam writeParam = pngWriter.getDefaultWriteParam();
+            writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            writeParam.setCompressionQuality(PNG_COMPRESSION_QUALITY);
+            pngWriter.setOutput(frameOutput);
+            pngWriter.write(null, new IIOImage(frame, null, null), writeParam);
+        } finally {
+            pngWriter.dispose();
+        }
+    }
+
+    private static void waitForFrames(List<Future<?>> encodedFrames) throws IOException {
+        IOException firstError = null;
+        for (Future<?> encodedFrame : encodedFrames) {
+            try {
+                encodedFrame.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for frames to be encoded", e);
+            } catch (ExecutionException e) {
+                if (firstError == null) {
+                    Throwable encodingException = e.getCause();
+                    firstError = (encodingException instanceof IOException) ? (IOException) encodingException
+                            : new IOException("A frame could not be encoded", encodingException);
+                }
+            }
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
+}
@@ -1,19 +1,36 @@
 package mineopoly_three.graphics;
 
+import mineopoly_three.event.EventSubscription;
+import mineopoly_three.event.GameEventListener;
+import mineopoly_three.event.TurnCompletedEvent;
+import mineopoly_three.game.BoardState;
 import mineopoly_three.game.GameBoard;
+import mineopoly_three.tiles.Tile;
 
 import java.awt.*;
-import java.util.Observable;
-import java.util.Observer;
+import java.awt.image.BufferedImage;
+import java.util.BitSet;
 import javax.swing.*;
 
 /**
  * A panel on the JFrame for the main.game which can display the current GameBoard
+ *
+ * Every tile is composited once into an image of the whole board, and after that a tile is only composited again
+ *  when a TurnCompletedEvent says it changed. Painting the panel then just copies the part of that image being
+ *  repainted, instead of drawing every layer of every tile
  */
-public class GameBoardDisplayPanel extends JPanel implements Observer {
+public class GameBoardDisplayPanel extends JPanel implements GameEventListener<TurnCompletedEvent> {
     private GameBoard boardToRender;
     private ImageManager imageManager;
     private int preferredSize;
+    private int tileSize;
+
+    // The composited layers of every tile, only touched on the Event Dispatch Thread
+    private BufferedImage tileLayerCache;
+    // Tiles that changed since they were last composited, guarded by itself
+    private final BitSet dirtyTileLocations;
+    private EventSubscription<TurnCompletedEvent> turnSubscription;
+    private long numDroppedEventsSeen;
 
     public GameBoardDisplayPanel(int preferredSize, GameBoard board, ImageManager imageManager) {
         super();
@@ -23,16 +40,78 @@ public class GameBoardDisplayPanel extends JPanel implements Observer {
         this.setVisible(true);
 
         this.preferredSize = preferredSize;
-        int imageWidth = this.preferredSize / board.getSize();
-        int imageHeight = this.preferredSize / board.getSize();
-        imageManager.rescaleImages(imageWidth, imageHeight);
+        this.tileSize = this.preferredSize / board.getSize();
+        imageManager.rescaleImages(tileSize, tileSize);
         this.imageManager = imageManager;
+
+        this.tileLayerCache = null;
+        this.dirtyTileLocations = new BitSet(board.getSize() * board.getSize());
+        this.dirtyTileLocations.set(0, board.getSize() * board.getSize());
+        this.turnSubscription = null;
+        this.numDroppedEventsSeen = 0;
+    }
+
+    /**
+     * Lets this panel notice when its subscription drops events, since the tiles those events changed are then
+     *  unknown and every tile has to be composited again
+     *
+     * @param turnSubscription The subscription delivering TurnCompletedEvents to this panel
+     */
+    public void setTurnSubscription(EventSubscription<TurnCompletedEvent> turnSubscription) {
+        this.turnSubscription = turnSubscription;
     }
 
     @Override
     public void paint(Graphics g) {
         super.paint(g);
-        boardToRender.paint((Graphics2D) g, imageManager);
+        Graphics2D brush = (Graphics2D) g;
+        compositeDirtyTiles();
+        brush.drawImage(tileLayerCache, 0, 0, null);
+    }
+
+    private void compositeDirtyTiles() {
+        int boardSize = boardToRender.getSize();
+        if (tileLayerCache == null) {
+            tileLayerCache = createTileLayerCache(boardSize * tileSize);
+            markAllTilesDirty();
+        }
+
+        BitSet tilesToComposite;
+        synchronized (dirtyTileLocations) {
+            tilesToComposite = (BitSet) dirtyTileLocations.clone();
+            dirtyTileLocations.clear();
+        }
+
+        Graphics2D cacheBrush = tileLayerCache.createGraphics();
+        int numTiles = boardSize * boardSize;
+        for (int cellIndex = tilesToComposite.nextSetBit(0); cellIndex >= 0 && cellIndex < numTiles;
+             cellIndex = tilesToComposite.nextSetBit(cellIndex + 1)) {
+            int x = BoardState.unpackX(cellIndex, boardSize);
+            int y = BoardState.unpackY(cellIndex, boardSize);
+
+            // Tile overlays are partly transparent, so the tile's old pixels have to be cleared first
+            cacheBrush.setComposite(AlphaComposite.Clear);
+            cacheBrush.fillRect(x * tileSize, ((boardSize - 1) - y) * tileSize, tileSize, tileSize);
+            cacheBrush.setComposite(AlphaComposite.SrcOver);
+            Tile tile = boardToRender.getTileAtLocation(x, y);
+            tile.paint(cacheBrush, boardSize, imageManager);
+        }
+        cacheBrush.dispose();
+    }
+
+    private BufferedImage createTileLayerCache(int cacheSize) {
+        GraphicsConfiguration screenConfiguration = getGraphicsConfiguration();
+        if (screenConfiguration == null) {
+            return new BufferedImage(cacheSize, cacheSize, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        return screenConfiguration.createCompatibleImage(cacheSize, cacheSize, Transparency.TRANSLUCENT);
+    }
+
+    private void markAllTilesDirty() {
+        int numTiles = boardToRender.getSize() * boardToRender.getSize();
+        synchronized (dirtyTileLocations) {
+            dirtyTileLocations.set(0, numTiles);
+        }
     }
 
     @Override
@@ -41,7 +120,38 @@ public class GameBoardDisplayPanel extends JPanel implements Observer {
     }
 
     @Override
-    public void update(Observable o, Object arg) {
-        repaint();
+    public void onEvent(TurnCompletedEvent event) {
+        long numDroppedEvents = (turnSubscription == null) ? 0 : turnSubscription.getNumDropped();
+        if (numDroppedEvents != numDroppedEventsSeen) {
+            numDroppedEventsSeen = numDroppedEvents;
+            markAllTilesDirty();
+            repaint();
+            return;
+        }
+
+        BitSet changedTiles = event.getDirtyTileLocations();
+        if (changedTiles.isEmpty()) {
+            return;
+        }
+        synchronized (dirtyTileLocations) {
+            dirtyTileLocations.or(changedTiles);
+        }
+
+        // Only repaint the rectangle around the changed tiles, Swing merges it with any other pending repaint
+        int boardSize = boardToRender.getSize();
+        int minX = boardSize;
+        int maxX = -1;
+        int minRow = boardSize;
+        int maxRow = -1;
+        for (int cellIndex = changedTiles.nextSetBit(0); cellIndex >= 0;
+             cellIndex = changedTiles.nextSetBit(cellIndex + 1)) {
+            int x = BoardState.unpackX(cellIndex, boardSize);
+            int row = (boardSize - 1) - BoardState.unpackY(cellIndex, boardSize);
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+        }
+        repaint(minX * tileSize, minRow * tileSize, (maxX - minX + 1) * tileSize, (maxRow - minRow + 1) * tileSize);
     }
 }
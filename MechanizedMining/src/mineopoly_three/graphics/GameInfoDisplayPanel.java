@@ -2,10 +2,8 @@ package mineopoly_three.graphics;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Observable;
-import java.util.Observer;
 
-public abstract class GameInfoDisplayPanel extends JPanel implements Observer {
+public abstract class GameInfoDisplayPanel extends JPanel {
     private static final int DEFAULT_PANEL_HEIGHT = 110;
     protected int preferredWidth;
     protected ImageManager imageManager;
@@ -41,9 +39,4 @@ public abstract class GameInfoDisplayPanel extends JPanel implements Observer {
     public Dimension getPreferredSize() {
         return new Dimension(preferredWidth, DEFAULT_PANEL_HEIGHT);
     }
-
-    @Override
-    public void update(Observable o, Object arg) {
-        repaint();
-    }
 }
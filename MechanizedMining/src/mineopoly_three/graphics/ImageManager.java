@@ -3,68 +3,45 @@ package mineopoly_three.graphics;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Stack;
 
+/**
+ * Gives a panel the sprites of a shared SpriteAtlas at the one size the panel draws them, along with images the panel
+ *  generates itself. Images added to an ImageManager are only seen by that ImageManager
+ */
 public class ImageManager {
-    private Map<String, Image> rawImages;
+    private final SpriteAtlas spriteAtlas;
+    private Map<String, Image> addedImages;
     private Map<String, Image> scaledImages;
     private int imagesWidth;
     private int imagesHeight;
 
     /**
-     * Creates a new ImageManager and adds all image files in the specified directory and its subdirectories
+     * Creates a new ImageManager over the shared atlas of all image files in the specified directory and its
+     *  subdirectories, reading them only if no atlas of that directory has been loaded yet
      *
      * @param imageDirectoryPath The path to the directory containing the image files to load without scaling
      * @throws IOException if an error occurs trying to read from any of the image files
      */
     public ImageManager(String imageDirectoryPath) throws IOException {
-        File imageDirectory = new File(imageDirectoryPath);
-        assert imageDirectory.exists();
-        assert imageDirectory.isDirectory();
-        rawImages = new HashMap<>();
-        scaledImages = new HashMap<>();
-
-        // Perform a depth-first-search on the image file directory to recursively find all image files
-        ImageFileFilter imageFileFilter = new ImageFileFilter();
-        Stack<File> imageFileSubdirectories = new Stack<>();
-        imageFileSubdirectories.push(imageDirectory);
-        while (!imageFileSubdirectories.empty()) {
-            File currentImageSubdirectory = imageFileSubdirectories.pop();
-
-            for (File imageFileOrDirectory : currentImageSubdirectory.listFiles()) {
-                if (imageFileOrDirectory.isDirectory()) {
-                    // Subdirectory with image files found
-                    imageFileSubdirectories.push(imageFileOrDirectory);
-                    continue;
-                }
-
-                // Verify file is an image
-                String fileName = imageFileOrDirectory.getName();
-                boolean isImageFile = imageFileFilter.accept(imageFileOrDirectory, fileName);
-                if (!isImageFile) {
-                    continue;
-                }
-                byte[] imageFileContents = Files.readAllBytes(imageFileOrDirectory.toPath());
-                ImageIcon loadedImage = new ImageIcon(imageFileContents);
+        this(SpriteAtlas.load(imageDirectoryPath));
+    }
 
-                // Map images without the file extension, example: "diamond_item.png" -> "diamond_item"
-                String imageFileName = imageFileOrDirectory.getName();
-                String imageName = imageFileName.substring(0, imageFileName.indexOf('.'));
-                if (rawImages.containsKey(imageName)) {
-                    System.err.println("Warning: multiple images with name " + imageName);
-                }
-                rawImages.put(imageName, loadedImage.getImage());
-            }
-        }
+    /**
+     * Creates a new ImageManager over a sprite atlas, which may be shared with other ImageManagers
+     *
+     * @param spriteAtlas The atlas holding the sprites to draw
+     */
+    public ImageManager(SpriteAtlas spriteAtlas) {
+        this.spriteAtlas = spriteAtlas;
+        this.addedImages = new HashMap<>();
+        this.scaledImages = new HashMap<>();
 
         // Can't know what image scale is needed to start with
         this.imagesWidth = 0;
-        this.imagesWidth = 0;
+        this.imagesHeight = 0;
     }
 
     /**
@@ -88,7 +65,8 @@ public class ImageManager {
     }
 
     /**
-     * Clears the cache of already scaled images and resizes them to the new dimensions from the raw image data.
+     * Clears the cache of already scaled images and resizes them to the new dimensions from the raw image data. The
+     *  atlas starts scaling its sprites to the new dimensions in the background
      *
      * @param newWidth The new width for all scaled images in this ImageManager
      * @param newHeight The new height for all scaled images in this ImageManager
@@ -102,11 +80,7 @@ public class ImageManager {
         scaledImages.clear();
         this.imagesWidth = newWidth;
         this.imagesHeight = newHeight;
-    }
-
-    private Image rescaleImage(Image imageToRescale, int newWidth, int newHeight) {
-        ImageIcon rescaledImage = new ImageIcon(imageToRescale.getScaledInstance(newWidth, newHeight, Image.SCALE_DEFAULT));
-        return rescaledImage.getImage();
+        spriteAtlas.prescaleAsync(newWidth, newHeight);
     }
 
     /**
@@ -116,19 +90,23 @@ public class ImageManager {
      * @return The scaled image with the specified name, or null if no image by that name exists in the scaled cache
      */
     public Image getScaledImage(String imageName) {
-        if (this.scaledImages.containsKey(imageName)) {
-            return scaledImages.get(imageName);
+        Image scaledImage = scaledImages.get(imageName);
+        if (scaledImage != null) {
+            return scaledImage;
         }
 
         // We might have the raw image and it just hasn't been scaled and cached yet
-        if (this.hasImageWithName(imageName)) {
-            Image rawImage = rawImages.get(imageName);
-            Image rescaledImage = this.rescaleImage(rawImage, imagesWidth, imagesHeight);
-            scaledImages.put(imageName, rescaledImage);
-            return rescaledImage;
+        Image addedImage = addedImages.get(imageName);
+        if (addedImage != null) {
+            scaledImage = SpriteAtlas.scaleImage(addedImage, imagesWidth, imagesHeight);
+        } else {
+            scaledImage = spriteAtlas.getSprite(imageName, imagesWidth, imagesHeight);
+        }
+        if (scaledImage != null) {
+            scaledImages.put(imageName, scaledImage);
         }
-        // No image by that name exists
-        return null;
+        // Null if no image by that name exists
+        return scaledImage;
     }
 
     /**
@@ -138,18 +116,19 @@ public class ImageManager {
      * @return True if a raw image with the specified name exists, false otherwise
      */
     public boolean hasImageWithName(String imageName) {
-        return rawImages.containsKey(imageName);
+        return addedImages.containsKey(imageName) || spriteAtlas.hasSprite(imageName);
     }
 
     /**
-     * Adds an image to the raw image data and the scaled image cache under the specified name
+     * Adds an image to the raw image data and the scaled image cache under the specified name. The image is not added
+     *  to the shared atlas
      *
      * @param imageName The name of the image to add
      * @param imageToAdd The ImageIcon object representing the image to add
      */
     public void addImageFromIcon(String imageName, ImageIcon imageToAdd) {
         Image rawImageToAdd = imageToAdd.getImage();
-        this.rawImages.put(imageName, rawImageToAdd);
+        this.addedImages.put(imageName, rawImageToAdd);
 
         boolean widthMatches = (imageToAdd.getIconWidth() == this.imagesWidth);
         boolean heightMatches = (imageToAdd.getIconHeight() == this.imagesHeight);
@@ -159,7 +138,7 @@ public class ImageManager {
             return;
         }
         // Rescaling required
-        this.scaledImages.put(imageName, rescaleImage(rawImageToAdd, this.imagesWidth, this.imagesHeight));
+        this.scaledImages.put(imageName, SpriteAtlas.scaleImage(rawImageToAdd, this.imagesWidth, this.imagesHeight));
     }
 
     /**
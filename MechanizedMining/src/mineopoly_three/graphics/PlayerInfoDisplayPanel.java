@@ -1,12 +1,14 @@
 package mineopoly_three.graphics;
 
+import mineopoly_three.event.GameEventListener;
+import mineopoly_three.event.TurnCompletedEvent;
 import mineopoly_three.game.MinePlayer;
 import mineopoly_three.item.InventoryItem;
 
 import java.awt.*;
 import java.util.List;
 
-public class PlayerInfoDisplayPanel extends GameInfoDisplayPanel {
+public class PlayerInfoDisplayPanel extends GameInfoDisplayPanel implements GameEventListener<TurnCompletedEvent> {
     private static final Color defaultRedFontColor = new Color(179, 0, 0);
     private static final Color defaultBlueFontColor = new Color(0, 0, 179);
     private static final int RESOURCE_IMAGE_SIZE = 64;
@@ -33,6 +35,11 @@ public class PlayerInfoDisplayPanel extends GameInfoDisplayPanel {
         }
     }
 
+    @Override
+    public void onEvent(TurnCompletedEvent event) {
+        repaint();
+    }
+
     private void drawPlayerScores(Graphics2D brush, Color fontColor, boolean isRightAligned) {
         String playerScore = String.valueOf(player.getScore());
         brush.setFont(new Font("TimesRoman", Font.PLAIN, 32));
@@ -0,0 +1,189 @@
+package mineopoly_three.graphics;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every sprite in an image directory, decoded once into an image in the screen's own pixel format, along with copies
+ *  of them scaled to each size the GUI has asked for. The directory is only read the first time it is loaded, every
+ *  later load returns the same atlas, so all of the GUI's panels share one copy of each sprite. Safe to use from
+ *  any thread.
+ */
+public class SpriteAtlas {
+    private static final Map<String, SpriteAtlas> ATLASES_BY_DIRECTORY = new ConcurrentHashMap<>();
+
+    private final Map<String, BufferedImage> rawSprites;
+    // Scaled sprites by their size, packed as (width << 32) | height
+    private final Map<Long, Map<String, BufferedImage>> scaledSpritesBySize;
+
+    private SpriteAtlas(Map<String, BufferedImage> rawSprites) {
+        this.rawSprites = rawSprites;
+        this.scaledSpritesBySize = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the atlas of all image files in a directory and its subdirectories, reading them only if no atlas has been
+     *  loaded from that directory yet
+     *
+     * @param imageDirectoryPath The path to the directory containing the image files
+     * @return The shared atlas of that directory's images
+     * @throws IOException if an error occurs trying to read from any of the image files
+     */
+    public static SpriteAtlas load(String imageDirectoryPath) throws IOException {
+        String directoryKey = new File(imageDirectoryPath).getCanonicalPath();
+        SpriteAtlas atlas = ATLASES_BY_DIRECTORY.get(directoryKey);
+        if (atlas != null) {
+            return atlas;
+        }
+
+        // Two threads loading the same directory at once both read it, but only the first atlas is kept
+        SpriteAtlas loadedAtlas = new SpriteAtlas(readSprites(new File(imageDirectoryPath)));
+        atlas = ATLASES_BY_DIRECTORY.putIfAbsent(directoryKey, loadedAtlas);
+        return (atlas == null) ? loadedAtlas : atlas;
+    }
+
+    private static Map<String, BufferedImage> readSprites(File imageDirectory) throws IOException {
+        assert imageDirectory.exists();
+        assert imageDirectory.isDirectory();
+        Map<String, BufferedImage> rawSprites = new HashMap<>();
+
+        // Perform a depth-first-search on the image file directory to recursively find all image files
+        ImageFileFilter imageFileFilter = new ImageFileFilter();
+        Stack<File> imageFileSubdirectories = new Stack<>();
+        imageFileSubdirectories.push(imageDirectory);
+        while (!imageFileSubdirectories.empty()) {
+            File currentImageSubdirectory = imageFileSubdirectories.pop();
+
+            for (File imageFileOrDirectory : currentImageSubdirectory.listFiles()) {
+                if (imageFileOrDirectory.isDirectory()) {
+                    // Subdirectory with image files found
+                    imageFileSubdirectories.push(imageFileOrDirectory);
+                    continue;
+                }
+
+                // Verify file is an image
+                String fileName = imageFileOrDirectory.getName();
+                boolean isImageFile = imageFileFilter.accept(imageFileOrDirectory, fileName);
+                if (!isImageFile) {
+                    continue;
+                }
+                BufferedImage decodedImage = ImageIO.read(imageFileOrDirectory);
+                if (decodedImage == null) {
+                    throw new IOException("No image decoder for " + imageFileOrDirectory.getPath());
+                }
+
+                // Map images without the file extension, example: "diamond_item.png" -> "diamond_item"
+                String imageName = fileName.substring(0, fileName.indexOf('.'));
+                if (rawSprites.containsKey(imageName)) {
+                    System.err.println("Warning: multiple images with name " + imageName);
+                }
+                rawSprites.put(imageName, toCompatibleImage(decodedImage));
+            }
+        }
+        return Collections.unmodifiableMap(rawSprites);
+    }
+
+    /**
+     * @param spriteName The name of a sprite, its file name without the extension
+     * @return True if the atlas has a sprite with that name
+     */
+    public boolean hasSprite(String spriteName) {
+        return rawSprites.containsKey(spriteName);
+    }
+
+    /**
+     * Gets a sprite scaled to a size, scaling it now if it hasn't been scaled to that size yet
+     *
+     * @param spriteName The name of the sprite
+     * @param width The width of the scaled sprite
+     * @param height The height of the scaled sprite
+     * @return The scaled sprite, or null if the atlas has no sprite with that name
+     */
+    public BufferedImage getSprite(String spriteName, int width, int height) {
+        BufferedImage rawSprite = rawSprites.get(spriteName);
+        if (rawSprite == null) {
+            return null;
+        }
+        return getScaledSprites(width, height)
+                .computeIfAbsent(spriteName, unused -> scaleImage(rawSprite, width, height));
+    }
+
+    /**
+     * Starts scaling every sprite to a size on a background thread, so the first frames drawn at that size don't
+     *  have to. Sprites asked for before the background thread reaches them are scaled by the thread asking
+     *
+     * @param width The width to scale sprites to
+     * @param height The height to scale sprites to
+     */
+    public void prescaleAsync(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        Map<String, BufferedImage> scaledSprites = getScaledSprites(width, height);
+        if (scaledSprites.size() == rawSprites.size()) {
+            // Every sprite is already scaled to this size
+            return;
+        }
+
+        Thread prescaleThread = new Thread(() -> {
+            for (Map.Entry<String, BufferedImage> rawSprite : rawSprites.entrySet()) {
+                scaledSprites.computeIfAbsent(rawSprite.getKey(),
+                                              unused -> scaleImage(rawSprite.getValue(), width, height));
+            }
+        }, "SpriteAtlas-prescale-" + width + "x" + height);
+        prescaleThread.setDaemon(true);
+        prescaleThread.start();
+    }
+
+    private Map<String, BufferedImage> getScaledSprites(int width, int height) {
+        long sizeKey = ((long) width << 32) | (height & 0xFFFFFFFFL);
+        return scaledSpritesBySize.computeIfAbsent(sizeKey, unused -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Scales an image in one pass with bilinear filtering, so the result can be drawn straight to the screen without
+     *  any further conversion
+     *
+     * @param imageToScale The image to scale
+     * @param width The width of the scaled image
+     * @param height The height of the scaled image
+     * @return A new image in the screen's pixel format with the scaled contents
+     */
+    public static BufferedImage scaleImage(Image imageToScale, int width, int height) {
+        BufferedImage scaledImage = createCompatibleImage(Math.max(width, 1), Math.max(height, 1));
+        Graphics2D brush = scaledImage.createGraphics();
+        brush.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        brush.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        brush.drawImage(imageToScale, 0, 0, width, height, null);
+        brush.dispose();
+        return scaledImage;
+    }
+
+    private static BufferedImage toCompatibleImage(BufferedImage decodedImage) {
+        BufferedImage compatibleImage = createCompatibleImage(decodedImage.getWidth(), decodedImage.getHeight());
+        Graphics2D brush = compatibleImage.createGraphics();
+        brush.drawImage(decodedImage, 0, 0, null);
+        brush.dispose();
+        return compatibleImage;
+    }
+
+    private static BufferedImage createCompatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            // No screen to match, so use the format Java2D draws fastest in software
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        GraphicsConfiguration screenConfiguration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice()
+                .getDefaultConfiguration();
+        return screenConfiguration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+}
@@ -1,17 +1,25 @@
 package mineopoly_three.graphics;
 
+import mineopoly_three.event.EventBus;
+import mineopoly_three.event.PriceChangeEvent;
+import mineopoly_three.event.TurnCompletedEvent;
 import mineopoly_three.game.Economy;
 import mineopoly_three.game.GameBoard;
 import mineopoly_three.game.GameEngine;
 import mineopoly_three.game.MinePlayer;
+import mineopoly_three.game.PlaybackClock;
 
 import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
 import java.io.File;
 import java.io.IOException;
 
 public class UserInterface {
     /**
-     * Instantiates a JFrame and all the JPanel components necessary to render the game in real time.
+     * Instantiates a JFrame and all the JPanel components necessary to render the game in real time, then lets the
+     *  engine start the game. Playback is controlled from the keyboard: space pauses or resumes, the right arrow plays
+     *  one turn while paused, the up and down arrows double or halve the speed, and U plays as fast as possible.
      * This method must be called from the Event Dispatch Thread
      *
      * @param engine The GameEngine to be rendered in the JFrame created
@@ -24,24 +32,23 @@ public class UserInterface {
         ImageManager economyImageManager;
         ImageManager playerInfoImageManager;
         try {
-            boardImageManager = createDefaultImageManager();
-            economyImageManager = createDefaultImageManager();
-            playerInfoImageManager = createDefaultImageManager();
+            // Every panel draws from the same atlas, so each image file is only read once
+            SpriteAtlas spriteAtlas = loadDefaultSpriteAtlas();
+            boardImageManager = new ImageManager(spriteAtlas);
+            economyImageManager = new ImageManager(spriteAtlas);
+            playerInfoImageManager = new ImageManager(spriteAtlas);
         } catch (IOException e) {
             System.err.println("Error loading image resources");
             e.printStackTrace();
 
             // If we don't have images, we can't render a game
             engine.setGuiEnabled(false);
+            engine.getPlaybackClock().markViewerReady();
             return;
         }
 
-        // Ensure the GUI width is an exact multiple of the board size
         GameBoard board = engine.getBoard();
-        int numExtraPixels = (preferredGuiWidth % board.getSize());
-        if (numExtraPixels != 0) {
-            preferredGuiWidth += board.getSize() - numExtraPixels;
-        }
+        preferredGuiWidth = fitWidthToBoard(preferredGuiWidth, board.getSize());
 
         // Create the application window itself
         JFrame gameDisplayFrame = createApplicationWindowWithBoxLayout();
@@ -52,11 +59,35 @@ public class UserInterface {
 
         // Create the panel that actually renders the game board
         GameBoardDisplayPanel gameBoardDisplayPanel = new GameBoardDisplayPanel(preferredGuiWidth, board, boardImageManager);
-        engine.addObserver(gameBoardDisplayPanel);
+        // The board panel needs every event, since each one only has the tiles changed since the one before it
+        gameBoardDisplayPanel.setTurnSubscription(
+                engine.getEventBus().subscribe(TurnCompletedEvent.class, gameBoardDisplayPanel));
         gameDisplayFrame.add(gameBoardDisplayPanel);
 
         // Tell the application window to resize its contents to their preferred dimensions
         gameDisplayFrame.pack();
+
+        bindPlaybackKeys(gameDisplayFrame.getRootPane(), engine.getPlaybackClock());
+        engine.getPlaybackClock().markViewerReady();
+    }
+
+    private static void bindPlaybackKeys(JRootPane rootPane, PlaybackClock playbackClock) {
+        bindKey(rootPane, KeyEvent.VK_SPACE, "togglePaused", playbackClock::togglePaused);
+        bindKey(rootPane, KeyEvent.VK_RIGHT, "stepTurn", playbackClock::requestStep);
+        bindKey(rootPane, KeyEvent.VK_UP, "speedUp", () -> playbackClock.setSpeed(playbackClock.getSpeed() * 2));
+        bindKey(rootPane, KeyEvent.VK_DOWN, "slowDown", () -> playbackClock.setSpeed(playbackClock.getSpeed() / 2));
+        bindKey(rootPane, KeyEvent.VK_U, "toggleUnthrottled",
+                () -> playbackClock.setUnthrottled(!playbackClock.isUnthrottled()));
+    }
+
+    private static void bindKey(JRootPane rootPane, int keyCode, String actionName, Runnable keyAction) {
+        rootPane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(keyCode, 0), actionName);
+        rootPane.getActionMap().put(actionName, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                keyAction.run();
+            }
+        });
     }
 
     private static JFrame createApplicationWindowWithBoxLayout() {
@@ -68,11 +99,26 @@ public class UserInterface {
         return gameDisplayFrame;
     }
 
-    private static ImageManager createDefaultImageManager() throws IOException {
+    /**
+     * Ensures the GUI width is an exact multiple of the board size, so every tile is the same number of pixels wide
+     *
+     * @param preferredGuiWidth The preferred width of the GUI
+     * @param boardSize The size of the board being rendered
+     * @return The preferred width rounded up to a multiple of the board size
+     */
+    static int fitWidthToBoard(int preferredGuiWidth, int boardSize) {
+        int numExtraPixels = (preferredGuiWidth % boardSize);
+        if (numExtraPixels != 0) {
+            preferredGuiWidth += boardSize - numExtraPixels;
+        }
+        return preferredGuiWidth;
+    }
+
+    static SpriteAtlas loadDefaultSpriteAtlas() throws IOException {
         String currentDirectoryPath = System.getProperty("user.dir");
         String[] directoriesToImages = new String[]{currentDirectoryPath, "src", "mineopoly_three", "image_files/"};
         String imagesDirectoryPath = String.join(File.separator, directoriesToImages);
-        return new ImageManager(imagesDirectoryPath);
+        return SpriteAtlas.load(imagesDirectoryPath);
     }
 
     private static JPanel createTopGameInfoPanel(GameEngine engine, int preferredGuiWidth,
@@ -98,10 +144,12 @@ public class UserInterface {
         topInfoDisplayPanel.add(economyDisplayPanel);
         topInfoDisplayPanel.add(blueDisplayPanel);
 
-        // Set these panels to update when the engine tells them something changed
-        engine.addObserver(redDisplayPanel);
-        engine.addObserver(blueDisplayPanel);
-        engine.getEconomy().addObserver(economyDisplayPanel);
+        // Set these panels to update when the engine tells them something changed. A panel that can't keep up only
+        // needs the latest event, so it never falls behind the game
+        EventBus eventBus = engine.getEventBus();
+        eventBus.subscribeLatest(TurnCompletedEvent.class, redDisplayPanel);
+        eventBus.subscribeLatest(TurnCompletedEvent.class, blueDisplayPanel);
+        eventBus.subscribeLatest(PriceChangeEvent.class, economyDisplayPanel);
         return topInfoDisplayPanel;
     }
 }
@@ -0,0 +1,94 @@
+package mineopoly_three.replay;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Constants and primitive encodings shared by the BinaryReplayWriter and BinaryReplayReader.
+ * A binary replay file is laid out as:
+ * [magic "MRPY"][version byte][flags byte][board size varint][root seed zigzag varint]
+ * [action codes][final scores]
+ * where the action codes are 4 bit codes packed two to a byte (high half first). Each turn is a red code followed
+ *  by a blue code, and the codes end with any exception markers followed by an end code.
+ * Since version 2 the codes are followed by a byte that is 1 if the final scores were recorded, and if so the red
+ *  and blue final scores as zigzag varints. Everything after the header is deflate compressed if the compressed
+ *  flag is set. Since version 3 the split seeds flag is set for games played with SeedScheme.SPLIT.
+ */
+final class BinaryReplayFormat {
+    static final byte[] MAGIC = {'M', 'R', 'P', 'Y'};
+    static final int VERSION = 3;
+    static final int FIRST_VERSION_WITH_SCORES = 2;
+    static final int FLAG_COMPRESSED = 0x01;
+    static final int FLAG_SPLIT_SEEDS = 0x02;
+
+    // Codes 0 through 7 are TurnAction ordinals
+    static final int NO_ACTION_CODE = 8;        // The player returned a null action
+    static final int MISSING_ACTION_CODE = 10;  // The player has no action recorded for this turn
+    static final int RED_EXCEPTION_CODE = 12;
+    static final int BLUE_EXCEPTION_CODE = 13;
+    static final int END_CODE = 15;
+
+    private BinaryReplayFormat() {}
+
+    /**
+     * @param firstBytes The first bytes of a replay file
+     * @param length The number of valid bytes in firstBytes
+     * @return True if the bytes start with the binary replay magic, false if this is a text replay
+     */
+    static boolean isBinaryReplay(byte[] firstBytes, int length) {
+        if (length < MAGIC.length) {
+            return false;
+        }
+
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (firstBytes[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes an unsigned variable length integer, 7 bits per byte with the high bit set on all but the last byte
+     *
+     * @param out The stream to write to
+     * @param value The value to write, treated as unsigned
+     * @throws IOException If the stream could not be written to
+     */
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int nextByte = in.read();
+            if (nextByte < 0) {
+                throw new EOFException("Replay ended in the middle of a number");
+            }
+
+            value |= (long) (nextByte & 0x7F) << shift;
+            if ((nextByte & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Replay contains a malformed number");
+    }
+
+    /**
+     * Maps signed values to unsigned ones so negative seeds do not always take the full ten bytes
+     */
+    static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,247 @@
+package mineopoly_three.replay;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.SeedScheme;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads a replay in the binary replay format one turn at a time, so a replay can be processed without holding
+ *  every action in memory. The header is read as soon as the reader is created.
+ */
+public class BinaryReplayReader implements Closeable {
+    private static final TurnAction[] allTurnActions = TurnAction.values();
+
+    private final InputStream actionStream;
+    private final int boardSize;
+    private final long rootSeed;
+    private final SeedScheme seedScheme;
+    private final int version;
+    private int bufferedCode;
+    private TurnAction redAction;
+    private TurnAction blueAction;
+    private boolean hasRedAction;
+    private boolean hasBlueAction;
+    private boolean redThrewException;
+    private boolean blueThrewException;
+    private boolean hasFinalScores;
+    private int redFinalScore;
+    private int blueFinalScore;
+    private boolean reachedEnd;
+
+    /**
+     * Reads the replay header from a stream
+     *
+     * @param inputStream The stream containing a binary replay
+     * @throws IOException If the stream does not contain a binary replay or the header could not be read
+     */
+    public BinaryReplayReader(InputStream inputStream) throws IOException {
+        byte[] magic = inputStream.readNBytes(BinaryReplayFormat.MAGIC.length);
+        if (!BinaryReplayFormat.isBinaryReplay(magic, magic.length)) {
+            throw new IOException("Not a binary replay file");
+        }
+
+        this.version = inputStream.read();
+        if (version < 1 || version > BinaryReplayFormat.VERSION) {
+            throw new IOException("Unsupported binary replay version " + version);
+        }
+
+        int flags = inputStream.read();
+        if (flags < 0) {
+            throw new EOFException("Replay ended in the middle of the header");
+        }
+        this.boardSize = (int) BinaryReplayFormat.readVarLong(inputStream);
+        this.rootSeed = BinaryReplayFormat.zigzagDecode(BinaryReplayFormat.readVarLong(inputStream));
+        boolean splitSeeds = (flags & BinaryReplayFormat.FLAG_SPLIT_SEEDS) != 0;
+        this.seedScheme = splitSeeds ? SeedScheme.SPLIT : SeedScheme.LEGACY;
+
+        if ((flags & BinaryReplayFormat.FLAG_COMPRESSED) != 0) {
+            this.actionStream = new InflaterInputStream(inputStream);
+        } else {
+            this.actionStream = inputStream;
+        }
+        this.bufferedCode = -1;
+        this.reachedEnd = false;
+    }
+
+    /**
+     * Reads every remaining turn into a Replay object
+     *
+     * @return A Replay containing the header and every turn not yet read
+     * @throws IOException If the replay could not be read
+     */
+    public Replay readReplay() throws IOException {
+        List<TurnAction> redActionList = new LinkedList<>();
+        List<TurnAction> blueActionList = new LinkedList<>();
+        while (readTurn()) {
+            if (hasRedAction) {
+                redActionList.add(redAction);
+            }
+            if (hasBlueAction) {
+                blueActionList.add(blueAction);
+            }
+        }
+        if (hasFinalScores) {
+            return new Replay(boardSize, rootSeed, seedScheme, redActionList, blueActionList, redThrewException,
+                              blueThrewException, redFinalScore, blueFinalScore);
+        }
+        return new Replay(boardSize, rootSeed, seedScheme, redActionList, blueActionList, redThrewException,
+                          blueThrewException);
+    }
+
+    /**
+     * Reads the next turn, after which the actions of the turn can be retrieved with the getters
+     *
+     * @return True if a turn was read, false if the end of the replay has been reached
+     * @throws IOException If the replay could not be read
+     */
+    public boolean readTurn() throws IOException {
+        if (reachedEnd) {
+            return false;
+        }
+
+        int redCode = readCode();
+        if (redCode > BinaryReplayFormat.MISSING_ACTION_CODE) {
+            readEndOfReplay(redCode);
+            return false;
+        }
+
+        int blueCode = readCode();
+        hasRedAction = (redCode != BinaryReplayFormat.MISSING_ACTION_CODE);
+        hasBlueAction = (blueCode != BinaryReplayFormat.MISSING_ACTION_CODE);
+        redAction = decodeAction(redCode);
+        blueAction = decodeAction(blueCode);
+        return true;
+    }
+
+    private void readEndOfReplay(int code) throws IOException {
+        while (code != BinaryReplayFormat.END_CODE) {
+            if (code == BinaryReplayFormat.RED_EXCEPTION_CODE) {
+                redThrewException = true;
+            } else if (code == BinaryReplayFormat.BLUE_EXCEPTION_CODE) {
+                blueThrewException = true;
+            } else {
+                throw new IOException("Unexpected code " + code + " at the end of the replay");
+            }
+            code = readCode();
+        }
+
+        if (version >= BinaryReplayFormat.FIRST_VERSION_WITH_SCORES) {
+            int scoresRecorded = actionStream.read();
+            if (scoresRecorded < 0) {
+                throw new EOFException("Replay ended before its final scores");
+            }
+
+            hasFinalScores = (scoresRecorded == 1);
+            if (hasFinalScores) {
+                redFinalScore = (int) BinaryReplayFormat.zigzagDecode(BinaryReplayFormat.readVarLong(actionStream));
+                blueFinalScore = (int) BinaryReplayFormat.zigzagDecode(BinaryReplayFormat.readVarLong(actionStream));
+            }
+        }
+
+        hasRedAction = false;
+        hasBlueAction = false;
+        redAction = null;
+        blueAction = null;
+        reachedEnd = true;
+    }
+
+    private static TurnAction decodeAction(int code) {
+        return (code < allTurnActions.length) ? allTurnActions[code] : null;
+    }
+
+    private int readCode() throws IOException {
+        if (bufferedCode >= 0) {
+            int code = bufferedCode;
+            bufferedCode = -1;
+            return code;
+        }
+
+        int packedCodes = actionStream.read();
+        if (packedCodes < 0) {
+            throw new EOFException("Replay ended before its end marker");
+        }
+        bufferedCode = packedCodes & 0x0F;
+        return packedCodes >>> 4;
+    }
+
+    @Override
+    public void close() throws IOException {
+        actionStream.close();
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public long getRootSeed() {
+        return rootSeed;
+    }
+
+    public SeedScheme getSeedScheme() {
+        return seedScheme;
+    }
+
+    /**
+     * @return The red player's action on the last turn read, null if they did nothing
+     */
+    public TurnAction getRedAction() {
+        return redAction;
+    }
+
+    /**
+     * @return The blue player's action on the last turn read, null if they did nothing
+     */
+    public TurnAction getBlueAction() {
+        return blueAction;
+    }
+
+    /**
+     * @return False if the red player has no action recorded on the last turn read
+     */
+    public boolean hasRedAction() {
+        return hasRedAction;
+    }
+
+    /**
+     * @return False if the blue player has no action recorded on the last turn read
+     */
+    public boolean hasBlueAction() {
+        return hasBlueAction;
+    }
+
+    /**
+     * @return True if the red player threw an exception, only valid once readTurn() has returned false
+     */
+    public boolean redThrewException() {
+        return redThrewException;
+    }
+
+    /**
+     * @return True if the blue player threw an exception, only valid once readTurn() has returned false
+     */
+    public boolean blueThrewException() {
+        return blueThrewException;
+    }
+
+    /**
+     * @return True if the final scores were recorded, only valid once readTurn() has returned false
+     */
+    public boolean hasFinalScores() {
+        return hasFinalScores;
+    }
+
+    public int getRedFinalScore() {
+        return redFinalScore;
+    }
+
+    public int getBlueFinalScore() {
+        return blueFinalScore;
+    }
+}
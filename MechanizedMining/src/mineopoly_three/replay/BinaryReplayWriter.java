@@ -0,0 +1,247 @@
+package mineopoly_three.replay;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.SeedScheme;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a replay in the binary replay format one action at a time, so a game can be streamed to disk while it is
+ *  being played. Red and blue actions can be written in either order; each player's action is held until the other
+ *  player's action for the same turn arrives.
+ * Call finish() once the game is over to write the exception markers and flush everything to the output stream.
+ */
+public class BinaryReplayWriter implements Closeable {
+    private final OutputStream outputStream;
+    private final OutputStream actionStream;
+    // Only set when compressing. Holds native memory until end() is called, so it is ended once the replay finishes
+    private final Deflater deflater;
+    private int pendingCode;
+    private TurnAction pendingRedAction;
+    private TurnAction pendingBlueAction;
+    private boolean hasPendingRedAction;
+    private boolean hasPendingBlueAction;
+    private boolean finished;
+
+    /**
+     * Writes the replay header and prepares to write actions
+     *
+     * @param outputStream The stream to write the replay to
+     * @param boardSize The size of the board the game is played on
+     * @param rootSeed The seed of the game
+     * @param compress True if the actions should be deflate compressed
+     * @throws IOException If the header could not be written
+     */
+    public BinaryReplayWriter(OutputStream outputStream, int boardSize, long rootSeed, boolean compress)
+            throws IOException {
+        this(outputStream, boardSize, rootSeed, SeedScheme.LEGACY, compress);
+    }
+
+    /**
+     * Writes the replay header of a game played with any seed scheme and prepares to write actions
+     *
+     * @param outputStream The stream to write the replay to
+     * @param boardSize The size of the board the game is played on
+     * @param rootSeed The root seed of the game
+     * @param seedScheme How the game's seeds were derived from its root seed
+     * @param compress True if the actions should be deflate compressed
+     * @throws IOException If the header could not be written
+     */
+    public BinaryReplayWriter(OutputStream outputStream, int boardSize, long rootSeed, SeedScheme seedScheme,
+                              boolean compress) throws IOException {
+        this.outputStream = outputStream;
+        int flags = 0;
+        if (compress) {
+            flags |= BinaryReplayFormat.FLAG_COMPRESSED;
+        }
+        if (seedScheme == SeedScheme.SPLIT) {
+            flags |= BinaryReplayFormat.FLAG_SPLIT_SEEDS;
+        }
+        outputStream.write(BinaryReplayFormat.MAGIC);
+        outputStream.write(BinaryReplayFormat.VERSION);
+        outputStream.write(flags);
+        BinaryReplayFormat.writeVarLong(outputStream, boardSize);
+        BinaryReplayFormat.writeVarLong(outputStream, BinaryReplayFormat.zigzagEncode(rootSeed));
+
+        if (compress) {
+            this.deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            this.actionStream = new DeflaterOutputStream(outputStream, deflater);
+        } else {
+            this.deflater = null;
+            this.actionStream = outputStream;
+        }
+        this.pendingCode = -1;
+        this.finished = false;
+    }
+
+    /**
+     * Writes a whole Replay to a stream. The stream is not closed
+     *
+     * @param replay The replay to write
+     * @param outputStream The stream to write the replay to
+     * @param compress True if the actions should be deflate compressed
+     * @throws IOException If the replay could not be written
+     */
+    public static void writeReplay(Replay replay, OutputStream outputStream, boolean compress) throws IOException {
+        BinaryReplayWriter replayWriter =
+                new BinaryReplayWriter(outputStream, replay.getBoardSize(), replay.getRootSeed(),
+                                       replay.getSeedScheme(), compress);
+        Iterator<TurnAction> redActions = replay.getRedPlayerActions().iterator();
+        Iterator<TurnAction> blueActions = replay.getBluePlayerActions().iterator();
+        while (redActions.hasNext() || blueActions.hasNext()) {
+            if (redActions.hasNext()) {
+                replayWriter.writeRedAction(redActions.next());
+            }
+            if (blueActions.hasNext()) {
+                replayWriter.writeBlueAction(blueActions.next());
+            }
+        }
+        if (replay.hasFinalScores()) {
+            replayWriter.finish(replay.redThrewException(), replay.blueThrewException(),
+                                replay.getRedFinalScore(), replay.getBlueFinalScore());
+        } else {
+            replayWriter.finish(replay.redThrewException(), replay.blueThrewException());
+        }
+    }
+
+    /**
+     * @param action The red player's action for their next turn, null if they did nothing
+     * @throws IOException If the action could not be written
+     */
+    public void writeRedAction(TurnAction action) throws IOException {
+        if (hasPendingRedAction) {
+            // Blue never acted on the pending turn
+            writePendingTurn();
+        }
+        pendingRedAction = action;
+        hasPendingRedAction = true;
+        if (hasPendingBlueAction) {
+            writePendingTurn();
+        }
+    }
+
+    /**
+     * @param action The blue player's action for their next turn, null if they did nothing
+     * @throws IOException If the action could not be written
+     */
+    public void writeBlueAction(TurnAction action) throws IOException {
+        if (hasPendingBlueAction) {
+            // Red never acted on the pending turn
+            writePendingTurn();
+        }
+        pendingBlueAction = action;
+        hasPendingBlueAction = true;
+        if (hasPendingRedAction) {
+            writePendingTurn();
+        }
+    }
+
+    /**
+     * Writes every remaining action and the end of the replay. No actions can be written after this
+     *
+     * @param redThrewException True if the red player's strategy threw an exception
+     * @param blueThrewException True if the blue player's strategy threw an exception
+     * @throws IOException If the end of the replay could not be written
+     */
+    public void finish(boolean redThrewException, boolean blueThrewException) throws IOException {
+        finish(redThrewException, blueThrewException, false, 0, 0);
+    }
+
+    /**
+     * Writes every remaining action, the end of the replay and the final scores. No actions can be written after this
+     *
+     * @param redThrewException True if the red player's strategy threw an exception
+     * @param blueThrewException True if the blue player's strategy threw an exception
+     * @param redFinalScore The red player's score at the end of the game
+     * @param blueFinalScore The blue player's score at the end of the game
+     * @throws IOException If the end of the replay could not be written
+     */
+    public void finish(boolean redThrewException, boolean blueThrewException, int redFinalScore, int blueFinalScore)
+            throws IOException {
+        finish(redThrewException, blueThrewException, true, redFinalScore, blueFinalScore);
+    }
+
+    private void finish(boolean redThrewException, boolean blueThrewException, boolean hasFinalScores,
+                        int redFinalScore, int blueFinalScore) throws IOException {
+        if (finished) {
+            return;
+        }
+
+        if (hasPendingRedAction || hasPendingBlueAction) {
+            writePendingTurn();
+        }
+        if (redThrewException) {
+            writeCode(BinaryReplayFormat.RED_EXCEPTION_CODE);
+        }
+        if (blueThrewException) {
+            writeCode(BinaryReplayFormat.BLUE_EXCEPTION_CODE);
+        }
+        writeCode(BinaryReplayFormat.END_CODE);
+        if (pendingCode >= 0) {
+            // Fill the last half byte so the final code is not lost
+            writeCode(BinaryReplayFormat.END_CODE);
+        }
+
+        if (hasFinalScores) {
+            actionStream.write(1);
+            BinaryReplayFormat.writeVarLong(actionStream, BinaryReplayFormat.zigzagEncode(redFinalScore));
+            BinaryReplayFormat.writeVarLong(actionStream, BinaryReplayFormat.zigzagEncode(blueFinalScore));
+        } else {
+            actionStream.write(0);
+        }
+
+        if (deflater != null) {
+            ((DeflaterOutputStream) actionStream).finish();
+            deflater.end();
+        }
+        outputStream.flush();
+        finished = true;
+    }
+
+    /**
+     * Finishes the replay without exception markers if it was not already finished, then closes the stream
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            finish(false, false);
+            actionStream.close();
+        } finally {
+            // In case finishing failed part of the way through
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    private void writePendingTurn() throws IOException {
+        writeCode(hasPendingRedAction ? getActionCode(pendingRedAction) : BinaryReplayFormat.MISSING_ACTION_CODE);
+        writeCode(hasPendingBlueAction ? getActionCode(pendingBlueAction) : BinaryReplayFormat.MISSING_ACTION_CODE);
+        pendingRedAction = null;
+        pendingBlueAction = null;
+        hasPendingRedAction = false;
+        hasPendingBlueAction = false;
+    }
+
+    private static int getActionCode(TurnAction action) {
+        return (action == null) ? BinaryReplayFormat.NO_ACTION_CODE : action.ordinal();
+    }
+
+    private void writeCode(int code) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Cannot write to a replay after it has been finished");
+        }
+
+        if (pendingCode < 0) {
+            pendingCode = code;
+        } else {
+            actionStream.write((pendingCode << 4) | code);
+            pendingCode = -1;
+        }
+    }
+}
@@ -1,53 +1,121 @@
 package mineopoly_three.replay;
 
 import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.GameSeeds;
+import mineopoly_three.game.SeedScheme;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Scanner;
 
 public class Replay {
     private static final TurnAction[] allTurnActions = TurnAction.values();
+    private static final String SPLIT_SEED_PREFIX = "split:";
 
     private int boardSize;
-    private long worldSeed;
+    private long rootSeed;
+    private SeedScheme seedScheme;
     private List<TurnAction> redPlayerActions;
     private List<TurnAction> bluePlayerActions;
     private boolean redThrewException;
     private boolean blueThrewException;
+    private boolean hasFinalScores;
+    private int redFinalScore;
+    private int blueFinalScore;
 
-    public Replay(int boardSize, long worldSeed, List<TurnAction> redPlayerActions, List<TurnAction> bluePlayerActions,
+    public Replay(int boardSize, long rootSeed, List<TurnAction> redPlayerActions, List<TurnAction> bluePlayerActions,
                   boolean redThrewException, boolean blueThrewException) {
+        this(boardSize, rootSeed, SeedScheme.LEGACY, redPlayerActions, bluePlayerActions, redThrewException,
+             blueThrewException);
+    }
+
+    /**
+     * Creates a Replay of a game whose seeds were derived from its root seed with the given scheme
+     */
+    public Replay(int boardSize, long rootSeed, SeedScheme seedScheme, List<TurnAction> redPlayerActions,
+                  List<TurnAction> bluePlayerActions, boolean redThrewException, boolean blueThrewException) {
         this.boardSize = boardSize;
-        this.worldSeed = worldSeed;
+        this.rootSeed = rootSeed;
+        this.seedScheme = seedScheme;
         this.redPlayerActions = redPlayerActions;
         this.bluePlayerActions = bluePlayerActions;
         this.redThrewException = redThrewException;
         this.blueThrewException = blueThrewException;
+        this.hasFinalScores = false;
+    }
+
+    /**
+     * Creates a Replay that also records how the game ended, so re-simulating it can be checked against the original
+     */
+    public Replay(int boardSize, long rootSeed, List<TurnAction> redPlayerActions, List<TurnAction> bluePlayerActions,
+                  boolean redThrewException, boolean blueThrewException, int redFinalScore, int blueFinalScore) {
+        this(boardSize, rootSeed, SeedScheme.LEGACY, redPlayerActions, bluePlayerActions, redThrewException,
+             blueThrewException, redFinalScore, blueFinalScore);
+    }
+
+    /**
+     * Creates a Replay that records the seed scheme of the game and how the game ended
+     */
+    public Replay(int boardSize, long rootSeed, SeedScheme seedScheme, List<TurnAction> redPlayerActions,
+                  List<TurnAction> bluePlayerActions, boolean redThrewException, boolean blueThrewException,
+                  int redFinalScore, int blueFinalScore) {
+        this(boardSize, rootSeed, seedScheme, redPlayerActions, bluePlayerActions, redThrewException,
+             blueThrewException);
+        this.hasFinalScores = true;
+        this.redFinalScore = redFinalScore;
+        this.blueFinalScore = blueFinalScore;
     }
 
     /**
      * Decodes the file containing replay information into a Java Replay object
-     * The file format is:
+     * Binary replay files (see BinaryReplayWriter) are detected by their header, anything else is read as a
+     *  text replay file. The text file format is:
      * [board size]\r\n
-     * [world seed]\r\n
+     * [root seed]\r\n
      * [red player actions]\r\n
      * [blue player actions]\r\n
-     * (where player actions are a comma separated list of TurnAction indices)
+     * (where player actions are a comma separated list of TurnAction indices, and the root seed of a game played
+     *  with SeedScheme.SPLIT is prefixed with "split:")
      *
      * @param replayFilePathToRead The file path to the file containing replay information
      * @return A Replay object consisting of the information read from the file
      * @throws FileNotFoundException If Java cannot find the file at the specified path
-     * @throws NumberFormatException If there is an issue parsing any numbers in the replay file
+     * @throws IOException If there is an issue reading or decoding a binary replay file
+     * @throws NumberFormatException If there is an issue parsing any numbers in a text replay file
      */
-    public static Replay decodeReplayFile(String replayFilePathToRead) throws FileNotFoundException {
-        Scanner replayFileReader = new Scanner(new File(replayFilePathToRead));
+    public static Replay decodeReplayFile(String replayFilePathToRead) throws IOException {
+        try (InputStream replayInput = new BufferedInputStream(new FileInputStream(replayFilePathToRead))) {
+            byte[] header = new byte[BinaryReplayFormat.MAGIC.length];
+            replayInput.mark(header.length);
+            int headerLength = replayInput.readNBytes(header, 0, header.length);
+            replayInput.reset();
+
+            if (BinaryReplayFormat.isBinaryReplay(header, headerLength)) {
+                return new BinaryReplayReader(replayInput).readReplay();
+            }
+            return decodeTextReplay(new Scanner(replayInput));
+        }
+    }
+
+    private static Replay decodeTextReplay(Scanner replayFileReader) {
         int boardSize = Integer.parseInt(replayFileReader.nextLine().trim());
-        long worldSeed = Long.parseLong(replayFileReader.nextLine().trim());
+        String rootSeedLine = replayFileReader.nextLine().trim();
+        SeedScheme seedScheme = SeedScheme.LEGACY;
+        if (rootSeedLine.startsWith(SPLIT_SEED_PREFIX)) {
+            seedScheme = SeedScheme.SPLIT;
+            rootSeedLine = rootSeedLine.substring(SPLIT_SEED_PREFIX.length());
+        }
+        long rootSeed = Long.parseLong(rootSeedLine);
 
         // Split and decode the red and blue player actions lists
         String[] redActionEncoding = replayFileReader.nextLine().trim().split(",");
@@ -59,7 +127,8 @@ public class Replay {
         int lastBlueAction = Integer.parseInt(blueActionEncoding[blueActionEncoding.length - 1]);
         boolean redThrewException = (lastRedAction < 0);
         boolean blueThrewException = (lastBlueAction < 0);
-        return new Replay(boardSize, worldSeed, redActionList, blueActionList, redThrewException, blueThrewException);
+        return new Replay(boardSize, rootSeed, seedScheme, redActionList, blueActionList, redThrewException,
+                          blueThrewException);
     }
 
     /**
@@ -76,11 +145,32 @@ public class Replay {
         replayWriter.close();
     }
 
+    /**
+     * Writes a binary replay file from a given Replay object. Binary replays are several times smaller than
+     *  text replays, and decodeReplayFile() reads either kind
+     *
+     * @param replay The Replay object to encode into a replay file
+     * @param replayFilePathToWrite The file path of the replay file that will be written, if a file exists at this
+     *                               path, it will be overwritten
+     * @param compress True if the actions should be deflate compressed
+     * @throws IOException If there is an issue writing to the file at the specified path
+     */
+    public static void encodeBinaryReplayFile(Replay replay, String replayFilePathToWrite, boolean compress)
+            throws IOException {
+        try (OutputStream replayOutput = new BufferedOutputStream(new FileOutputStream(replayFilePathToWrite))) {
+            BinaryReplayWriter.writeReplay(replay, replayOutput, compress);
+        }
+    }
+
     @Override
     public String toString() {
         String encodedRedActions = encodeActionList(redPlayerActions, redThrewException);
         String encodedBlueActions = encodeActionList(bluePlayerActions, blueThrewException);
-        return String.join("\r\n", String.valueOf(boardSize), String.valueOf(worldSeed),
+        String encodedRootSeed = String.valueOf(rootSeed);
+        if (seedScheme == SeedScheme.SPLIT) {
+            encodedRootSeed = SPLIT_SEED_PREFIX + encodedRootSeed;
+        }
+        return String.join("\r\n", String.valueOf(boardSize), encodedRootSeed,
                            encodedRedActions, encodedBlueActions);
     }
 
@@ -131,8 +221,31 @@ public class Replay {
         return boardSize;
     }
 
+    /**
+     * @return The seed every other seed of the game was derived from with its seed scheme. Under SPLIT this is not
+     *  the seed the world was generated from, see getGameSeeds()
+     */
+    public long getRootSeed() {
+        return rootSeed;
+    }
+
+    /**
+     * @deprecated The seed kept is the game's root seed, which is only the world seed under LEGACY. Use getRootSeed()
+     */
+    @Deprecated
     public long getWorldSeed() {
-        return worldSeed;
+        return rootSeed;
+    }
+
+    public SeedScheme getSeedScheme() {
+        return seedScheme;
+    }
+
+    /**
+     * @return The seeds the recorded game was played with, which a GameEngine needs to play it again
+     */
+    public GameSeeds getGameSeeds() {
+        return GameSeeds.create(seedScheme, rootSeed);
     }
 
     public List<TurnAction> getRedPlayerActions() {
@@ -150,4 +263,19 @@ public class Replay {
     public boolean blueThrewException() {
         return blueThrewException;
     }
+
+    /**
+     * @return True if this replay recorded the final scores of the game. Text replay files never do
+     */
+    public boolean hasFinalScores() {
+        return hasFinalScores;
+    }
+
+    public int getRedFinalScore() {
+        return redFinalScore;
+    }
+
+    public int getBlueFinalScore() {
+        return blueFinalScore;
+    }
 }
@@ -0,0 +1,326 @@
+package mineopoly_three.replay;
+
+import mineopoly_three.game.SeedScheme;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Stores any number of game replays in one append-only data file, next to an index file that makes every game
+ *  directly reachable without reading the games before it. Games are numbered by the order they were added,
+ *  starting at 0.
+ * The data file is the binary replay of every game, one after another. The index file is one fixed size record
+ *  per game of [game id][root seed][data offset][board size][data length][seed scheme], so the record of any game
+ *  is at (game id * INDEX_RECORD_SIZE). Both files are read through memory mapping, and the games played with each
+ *  board size and seeds are looked up in memory, from a table built out of the index when the archive is opened.
+ * A game's data is always written and forced to disk before its index record, so a partly written game is never
+ *  visible in the index, even if the machine crashes in the middle of adding it. addReplays() forces the data of
+ *  many games to disk at once, which is much faster than adding them one at a time.
+ */
+public class ReplayArchive implements Closeable {
+    public static final String INDEX_FILE_EXTENSION = ".index";
+    static final int INDEX_RECORD_SIZE = 40;
+    private static final SeedScheme[] allSeedSchemes = SeedScheme.values();
+
+    private static final int GAME_ID_OFFSET = 0;
+    private static final int ROOT_SEED_OFFSET = 8;
+    private static final int DATA_OFFSET_OFFSET = 16;
+    private static final int BOARD_SIZE_OFFSET = 24;
+    private static final int DATA_LENGTH_OFFSET = 28;
+    private static final int SEED_SCHEME_OFFSET = 32;
+
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final boolean writable;
+    private long gameCount;
+    private MappedByteBuffer mappedIndex;
+    private long mappedGameCount;
+    private MappedByteBuffer mappedData;
+    // The ids of every game, in the order they were added, by the board size and seeds they were played with
+    private final Map<GameKey, List<Long>> gameIdsByKey;
+
+    /**
+     * Opens a replay archive, creating it if it is writable and does not exist yet
+     *
+     * @param dataFilePath The path of the archive's data file. The index is kept next to it with the same name
+     *                      plus INDEX_FILE_EXTENSION
+     * @param writable True if games will be added to the archive, false to open it read only
+     * @throws IOException If either archive file could not be opened
+     */
+    public ReplayArchive(String dataFilePath, boolean writable) throws IOException {
+        Path dataPath = Paths.get(dataFilePath);
+        Path indexPath = Paths.get(dataFilePath + INDEX_FILE_EXTENSION);
+        if (writable) {
+            this.dataChannel = FileChannel.open(dataPath, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                                StandardOpenOption.CREATE);
+            this.indexChannel = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                                 StandardOpenOption.CREATE);
+        } else {
+            this.dataChannel = FileChannel.open(dataPath, StandardOpenOption.READ);
+            this.indexChannel = FileChannel.open(indexPath, StandardOpenOption.READ);
+        }
+        this.writable = writable;
+
+        // A trailing partial record means the last append never finished, so that game does not exist
+        this.gameCount = indexChannel.size() / INDEX_RECORD_SIZE;
+        this.mappedGameCount = 0;
+        this.mappedData = null;
+
+        this.gameIdsByKey = new HashMap<>();
+        mapIndex();
+        for (long gameId = 0; gameId < gameCount; gameId++) {
+            int recordPosition = (int) (gameId * INDEX_RECORD_SIZE);
+            GameKey gameKey = new GameKey(mappedIndex.getInt(recordPosition + BOARD_SIZE_OFFSET),
+                                          mappedIndex.getLong(recordPosition + ROOT_SEED_OFFSET),
+                                          allSeedSchemes[mappedIndex.get(recordPosition + SEED_SCHEME_OFFSET)]);
+            gameIdsByKey.computeIfAbsent(gameKey, key -> new ArrayList<>()).add(gameId);
+        }
+    }
+
+    /**
+     * Adds a game to the end of the archive
+     *
+     * @param replay The replay of the game to add
+     * @return The id of the added game
+     * @throws IOException If the game could not be written
+     */
+    public long addReplay(Replay replay) throws IOException {
+        return addReplays(Collections.singletonList(replay));
+    }
+
+    /**
+     * Adds several games to the end of the archive, forcing their data to disk once for all of them
+     *
+     * @param replays The replays of the games to add, in the order they should be numbered
+     * @return The id of the first added game. The others follow it in order
+     * @throws IOException If the games could not be written
+     */
+    public synchronized long addReplays(List<Replay> replays) throws IOException {
+        if (!writable) {
+            throw new IllegalStateException("This replay archive was opened read only");
+        }
+
+        long firstGameId = gameCount;
+        ByteArrayOutputStream replayBytes = new ByteArrayOutputStream();
+        ByteBuffer indexRecords = ByteBuffer.allocate(replays.size() * INDEX_RECORD_SIZE);
+        long dataStart = dataChannel.size();
+        for (int i = 0; i < replays.size(); i++) {
+            Replay replay = replays.get(i);
+            int replayStart = replayBytes.size();
+            BinaryReplayWriter.writeReplay(replay, replayBytes, true);
+
+            int recordPosition = i * INDEX_RECORD_SIZE;
+            indexRecords.putLong(recordPosition + GAME_ID_OFFSET, firstGameId + i);
+            indexRecords.putLong(recordPosition + ROOT_SEED_OFFSET, replay.getRootSeed());
+            indexRecords.putLong(recordPosition + DATA_OFFSET_OFFSET, dataStart + replayStart);
+            indexRecords.putInt(recordPosition + BOARD_SIZE_OFFSET, replay.getBoardSize());
+            indexRecords.putInt(recordPosition + DATA_LENGTH_OFFSET, replayBytes.size() - replayStart);
+            indexRecords.put(recordPosition + SEED_SCHEME_OFFSET, (byte) replay.getSeedScheme().ordinal());
+        }
+
+        writeFully(dataChannel, ByteBuffer.wrap(replayBytes.toByteArray()), dataStart);
+        // Otherwise the OS may write the index records to disk before the data they point to
+        dataChannel.force(false);
+        writeFully(indexChannel, indexRecords, firstGameId * INDEX_RECORD_SIZE);
+
+        for (Replay replay : replays) {
+            GameKey gameKey = new GameKey(replay.getBoardSize(), replay.getRootSeed(), replay.getSeedScheme());
+            gameIdsByKey.computeIfAbsent(gameKey, key -> new ArrayList<>()).add(gameCount);
+            gameCount++;
+        }
+        return firstGameId;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Reads a single game without reading any other game in the archive. Games can be read by many threads at once
+     *
+     * @param gameId The id of the game to read
+     * @return The replay of the game
+     * @throws IOException If the game could not be read or decoded
+     */
+    public Replay getReplay(long gameId) throws IOException {
+        // Only finding the game's data needs the lock, it is decoded from a buffer no other thread uses
+        return new BinaryReplayReader(new ByteBufferInputStream(getReplayData(gameId))).readReplay();
+    }
+
+    private synchronized ByteBuffer getReplayData(long gameId) throws IOException {
+        int recordPosition = getRecordPosition(gameId);
+        long dataOffset = mappedIndex.getLong(recordPosition + DATA_OFFSET_OFFSET);
+        int dataLength = mappedIndex.getInt(recordPosition + DATA_LENGTH_OFFSET);
+
+        long dataEnd = dataOffset + dataLength;
+        if (mappedData == null || dataEnd > mappedData.capacity()) {
+            long dataSize = dataChannel.size();
+            if (dataSize > Integer.MAX_VALUE) {
+                // Too big to map at once, so map just this game
+                return dataChannel.map(FileChannel.MapMode.READ_ONLY, dataOffset, dataLength);
+            }
+            // Games were added since the data was last mapped, so map it again to see them
+            mappedData = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, dataSize);
+        }
+
+        ByteBuffer replayData = mappedData.duplicate();
+        replayData.limit((int) dataEnd);
+        replayData.position((int) dataOffset);
+        return replayData;
+    }
+
+    /**
+     * @param gameId The id of a game in the archive
+     * @return The root seed the game was played with
+     * @throws IOException If the index could not be read
+     */
+    public synchronized long getRootSeed(long gameId) throws IOException {
+        // The index has to be mapped before mappedIndex is read
+        int recordPosition = getRecordPosition(gameId);
+        return mappedIndex.getLong(recordPosition + ROOT_SEED_OFFSET);
+    }
+
+    /**
+     * @param gameId The id of a game in the archive
+     * @return The size of the board the game was played on
+     * @throws IOException If the index could not be read
+     */
+    public synchronized int getBoardSize(long gameId) throws IOException {
+        int recordPosition = getRecordPosition(gameId);
+        return mappedIndex.getInt(recordPosition + BOARD_SIZE_OFFSET);
+    }
+
+    /**
+     * @param gameId The id of a game in the archive
+     * @return How the game's seeds were derived from its root seed
+     * @throws IOException If the index could not be read
+     */
+    public synchronized SeedScheme getSeedScheme(long gameId) throws IOException {
+        int recordPosition = getRecordPosition(gameId);
+        return allSeedSchemes[mappedIndex.get(recordPosition + SEED_SCHEME_OFFSET)];
+    }
+
+    /**
+     * Finds every game played with particular seeds on a particular board size, without reading the archive
+     *
+     * @param boardSize The size of the board the games were played on
+     * @param rootSeed The root seed the games were played with
+     * @param seedScheme How the games' seeds were derived from the root seed
+     * @return The ids of every matching game in the order they were added
+     */
+    public synchronized List<Long> findGames(int boardSize, long rootSeed, SeedScheme seedScheme) {
+        List<Long> matchingGameIds = gameIdsByKey.get(new GameKey(boardSize, rootSeed, seedScheme));
+        return (matchingGameIds == null) ? new ArrayList<>() : new ArrayList<>(matchingGameIds);
+    }
+
+    public synchronized long getGameCount() {
+        return gameCount;
+    }
+
+    private int getRecordPosition(long gameId) throws IOException {
+        if (gameId < 0 || gameId >= gameCount) {
+            throw new IllegalArgumentException("There is no game " + gameId + " in this replay archive");
+        }
+
+        mapIndex();
+        return (int) (gameId * INDEX_RECORD_SIZE);
+    }
+
+    private void mapIndex() throws IOException {
+        if (mappedGameCount == gameCount) {
+            return;
+        }
+
+        // Games were added since the index was last mapped, so map it again to see their records
+        mappedIndex = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, gameCount * INDEX_RECORD_SIZE);
+        mappedGameCount = gameCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writable) {
+            dataChannel.force(false);
+            indexChannel.force(false);
+        }
+        dataChannel.close();
+        indexChannel.close();
+    }
+
+    private static final class GameKey {
+        private final int boardSize;
+        private final long rootSeed;
+        private final SeedScheme seedScheme;
+
+        private GameKey(int boardSize, long rootSeed, SeedScheme seedScheme) {
+            this.boardSize = boardSize;
+            this.rootSeed = rootSeed;
+            this.seedScheme = seedScheme;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof GameKey)) {
+                return false;
+            }
+            GameKey otherKey = (GameKey) other;
+            return boardSize == otherKey.boardSize && rootSeed == otherKey.rootSeed
+                    && seedScheme == otherKey.seedScheme;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(boardSize, rootSeed, seedScheme);
+        }
+    }
+
+    /**
+     * Lets a BinaryReplayReader decode a replay straight out of a mapped region of the data file
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int bytesRead = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, bytesRead);
+            return bytesRead;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
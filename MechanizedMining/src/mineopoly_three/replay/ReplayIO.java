@@ -1,10 +1,15 @@
 package mineopoly_three.replay;
 
 import mineopoly_three.game.GameEngine;
+import mineopoly_three.game.GameSeeds;
+import mineopoly_three.game.PriceHistory;
 import mineopoly_three.strategy.MinePlayerStrategy;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 public class ReplayIO {
     /**
@@ -21,22 +26,104 @@ public class ReplayIO {
             System.err.println("Could not locate the replay file at the given path");
             e.printStackTrace();
             return null;
-        } catch (NumberFormatException e) {
+        } catch (IOException | NumberFormatException e) {
             System.err.println("There was an issue decoding the replay file");
             e.printStackTrace();
             return null;
         }
 
+        return setupEngineForReplay(gameReplay);
+    }
+
+    /**
+     * Sets up a GameEngine to play a replay of a single past match stored in a replay archive
+     *
+     * @param replayArchive The archive containing the past match
+     * @param gameId The id of the past match in the archive
+     * @return A GameEngine ready for runGame() to be called to replay the match
+     */
+    public static GameEngine setupEngineForReplay(ReplayArchive replayArchive, long gameId) {
+        Replay gameReplay;
+        try {
+            gameReplay = replayArchive.getReplay(gameId);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("There was an issue reading game " + gameId + " from the replay archive");
+            e.printStackTrace();
+            return null;
+        }
+
+        return setupEngineForReplay(gameReplay);
+    }
+
+    private static GameEngine setupEngineForReplay(Replay gameReplay) {
         int boardSize = gameReplay.getBoardSize();
         MinePlayerStrategy redPlayerReplay = new ReplayStrategy(gameReplay);
         MinePlayerStrategy bluePlayerReplay = new ReplayStrategy(gameReplay);
-        long worldSeed = gameReplay.getWorldSeed();
+        GameSeeds gameSeeds = gameReplay.getGameSeeds();
 
-        GameEngine replayEngine = new GameEngine(boardSize, redPlayerReplay, bluePlayerReplay, worldSeed);
+        GameEngine replayEngine = new GameEngine(boardSize, redPlayerReplay, bluePlayerReplay, gameSeeds);
         replayEngine.setGuiEnabled(true); // I'm going to assume you're doing this to watch
+        replayEngine.setSnapshotInterval(GameEngine.DEFAULT_SNAPSHOT_INTERVAL); // So the viewer can jump to any turn
         return replayEngine;
     }
 
+    /**
+     * Re-simulates the match in a replay file without a GUI or any delay between turns, and checks that it ends
+     *  the same way it did when it was recorded
+     *
+     * @param replayFilePath The path to the replay file of a past match
+     * @return How the re-simulated match ended compared to the recording, or null if the file could not be read
+     */
+    public static ReplayVerificationResult verifyReplayFile(String replayFilePath) {
+        try {
+            return ReplayVerifier.verifyReplay(0, Replay.decodeReplayFile(replayFilePath));
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("There was an issue decoding the replay file");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Re-simulates the match in a replay file without a GUI and writes how resource prices changed over the match
+     *  as CSV, see PriceHistory.writeCsv(). This will overwrite a file if a file already exists at the csv path
+     *
+     * @param replayFilePath The path to the replay file of a past match
+     * @param csvFilePath The file path at which to write the CSV file
+     */
+    public static void writePriceHistoryToFile(String replayFilePath, String csvFilePath) {
+        Replay replay;
+        try {
+            replay = Replay.decodeReplayFile(replayFilePath);
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("There was an issue decoding the replay file");
+            e.printStackTrace();
+            return;
+        }
+
+        GameEngine replayEngine = new GameEngine(replay.getBoardSize(), new ReplayStrategy(replay),
+                                                 new ReplayStrategy(replay), replay.getGameSeeds());
+        replayEngine.setGuiEnabled(false);
+        replayEngine.runGame();
+        writePriceHistoryToFile(replayEngine.getEconomy().getPriceHistory(), csvFilePath);
+    }
+
+    /**
+     * Writes how resource prices changed over a game as CSV, see PriceHistory.writeCsv(). This will overwrite a file
+     *  if a file already exists at the specified path
+     *
+     * @param priceHistory The price history of a game, probably retrieved from the GameEngine's Economy
+     * @param csvFilePath The file path at which to write the CSV file
+     */
+    public static void writePriceHistoryToFile(PriceHistory priceHistory, String csvFilePath) {
+        try (Writer csvWriter = Files.newBufferedWriter(Paths.get(csvFilePath))) {
+            priceHistory.writeCsv(csvWriter);
+        } catch (IOException e) {
+            System.err.println("There was an error writing the price history");
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Writes a Replay object, probably retrieved from the GameEngine, to a file so it can be watched again in
      *  the future. This will overwrite a file if a file already exists at the specified path
@@ -52,4 +139,38 @@ public class ReplayIO {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Writes a Replay object to a compressed binary replay file, which is much smaller than a text replay file
+     *  and can be read back by setupEngineForReplay() the same way. This will overwrite a file if a file already
+     *  exists at the specified path
+     *
+     * @param replayToWrite The Replay object to write to a replay file
+     * @param replayFilePath The file path at which to write the replay file
+     */
+    public static void writeBinaryReplayToFile(Replay replayToWrite, String replayFilePath) {
+        try {
+            Replay.encodeBinaryReplayFile(replayToWrite, replayFilePath, true);
+        } catch (IOException e) {
+            System.err.println("There was an error encoding the game replay");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Opens a replay archive so single games can be read from it, or added to it if it is writable
+     *
+     * @param archiveFilePath The path of the archive's data file
+     * @param writable True to add games to the archive, creating it if needed, false to only read from it
+     * @return The opened archive, which should be closed when done, or null if it could not be opened
+     */
+    public static ReplayArchive openReplayArchive(String archiveFilePath, boolean writable) {
+        try {
+            return new ReplayArchive(archiveFilePath, writable);
+        } catch (IOException e) {
+            System.err.println("Could not open the replay archive at the given path");
+            e.printStackTrace();
+            return null;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package mineopoly_three.replay;
 
 import mineopoly_three.game.Economy;
+import mineopoly_three.game.SeekableStrategy;
 import mineopoly_three.action.TurnAction;
 import mineopoly_three.item.InventoryItem;
 import mineopoly_three.strategy.PlayerBoardView;
@@ -8,6 +9,7 @@ import mineopoly_three.strategy.MinePlayerStrategy;
 
 import java.awt.*;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 import java.util.Random;
 
@@ -16,7 +18,7 @@ import java.util.Random;
  * This class implements all the necessary functions for a MinePlayerStrategy, but when prompted for an action
  *  on its turn, it just returns the action performed on the same turn number in the game being replayed.
  */
-public class ReplayStrategy implements MinePlayerStrategy {
+public class ReplayStrategy implements MinePlayerStrategy, SeekableStrategy {
     private Replay gameToReplay;
     private Queue<TurnAction> actionsToReplay;
     private boolean exceptionThrown;
@@ -49,6 +51,14 @@ public class ReplayStrategy implements MinePlayerStrategy {
         return actionsToReplay.poll();
     }
 
+    @Override
+    public void seekToTurn(int turnNumber) {
+        List<TurnAction> recordedActions =
+                isRedPlayer ? gameToReplay.getRedPlayerActions() : gameToReplay.getBluePlayerActions();
+        int firstActionIndex = Math.min(turnNumber, recordedActions.size());
+        actionsToReplay = new LinkedList<>(recordedActions.subList(firstActionIndex, recordedActions.size()));
+    }
+
     @Override
     public String getName() {
         return "ReplayBot";
@@ -66,6 +76,11 @@ public class ReplayStrategy implements MinePlayerStrategy {
 
     @Override
     public void endRound(int totalRedPoints, int totalBluePoints) {
-        // Don't need it
+        // A player who played every recorded turn and still threw must have thrown here, at the end of the game
+        if (actionsToReplay.isEmpty() && exceptionThrown) {
+            String exceptionPlayer = isRedPlayer ? "Red" : "Blue";
+            throw new RuntimeException("An exception from the " + exceptionPlayer + " Player happened at the end of "
+                                               + "the round");
+        }
     }
 }
@@ -0,0 +1,82 @@
+package mineopoly_three.replay;
+
+/**
+ * The outcome of re-simulating one replay: how the game ended when it was recorded, and how it ended this time.
+ */
+public class ReplayVerificationResult {
+    private final long gameId;
+    private final Replay recordedReplay;
+    private final int redScore;
+    private final int blueScore;
+    private final boolean redThrewException;
+    private final boolean blueThrewException;
+
+    /**
+     * @param gameId The id of the replay in its archive, or its index in the list of replays verified
+     * @param recordedReplay The replay that was re-simulated
+     * @param redScore The red player's score at the end of the re-simulation
+     * @param blueScore The blue player's score at the end of the re-simulation
+     * @param redThrewException True if the red replay strategy threw an exception in the re-simulation
+     * @param blueThrewException True if the blue replay strategy threw an exception in the re-simulation
+     */
+    public ReplayVerificationResult(long gameId, Replay recordedReplay, int redScore, int blueScore,
+                                    boolean redThrewException, boolean blueThrewException) {
+        this.gameId = gameId;
+        this.recordedReplay = recordedReplay;
+        this.redScore = redScore;
+        this.blueScore = blueScore;
+        this.redThrewException = redThrewException;
+        this.blueThrewException = blueThrewException;
+    }
+
+    /**
+     * @return True if the re-simulation ended the same way as the recorded game. Replays without recorded final
+     *          scores can only have their exception flags checked
+     */
+    public boolean matchesRecording() {
+        boolean exceptionsMatch = (redThrewException == recordedReplay.redThrewException())
+                && (blueThrewException == recordedReplay.blueThrewException());
+        if (!recordedReplay.hasFinalScores()) {
+            return exceptionsMatch;
+        }
+        return exceptionsMatch && redScore == recordedReplay.getRedFinalScore()
+                && blueScore == recordedReplay.getBlueFinalScore();
+    }
+
+    public long getGameId() {
+        return gameId;
+    }
+
+    public Replay getRecordedReplay() {
+        return recordedReplay;
+    }
+
+    public int getRedScore() {
+        return redScore;
+    }
+
+    public int getBlueScore() {
+        return blueScore;
+    }
+
+    public boolean redThrewException() {
+        return redThrewException;
+    }
+
+    public boolean blueThrewException() {
+        return blueThrewException;
+    }
+
+    @Override
+    public String toString() {
+        String recordedScores = recordedReplay.hasFinalScores()
+                ? recordedReplay.getRedFinalScore() + " to " + recordedReplay.getBlueFinalScore()
+                : "not recorded";
+        return "Game " + gameId + " (board size " + recordedReplay.getBoardSize() + ", seed "
+                + recordedReplay.getRootSeed() + "): " + (matchesRecording() ? "matches" : "DOES NOT MATCH")
+                + ", recorded scores " + recordedScores + ", replayed scores " + redScore + " to " + blueScore
+                + ", recorded exceptions (" + recordedReplay.redThrewException() + ", "
+                + recordedReplay.blueThrewException() + "), replayed exceptions (" + redThrewException + ", "
+                + blueThrewException + ")";
+    }
+}
@@ -0,0 +1,115 @@
+package mineopoly_three.replay;
+
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.strategy.MinePlayerStrategy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Re-simulates recorded games headlessly at full speed and checks that they still end the same way. Running a
+ *  corpus of replays through this after changing the engine shows whether the change altered any game results.
+ */
+public class ReplayVerifier {
+    private final ExecutorService verificationExecutor;
+
+    /**
+     * @param verificationExecutor The executor replays will be re-simulated on. The verifier does not shut it down
+     */
+    public ReplayVerifier(ExecutorService verificationExecutor) {
+        this.verificationExecutor = verificationExecutor;
+    }
+
+    /**
+     * Re-simulates a single replay on the calling thread, without a GUI or any delay between turns
+     *
+     * @param gameId An id to report the result under
+     * @param replay The replay to re-simulate
+     * @return How the re-simulated game ended compared to the recording
+     */
+    public static ReplayVerificationResult verifyReplay(long gameId, Replay replay) {
+        MinePlayerStrategy redPlayerReplay = new ReplayStrategy(replay);
+        MinePlayerStrategy bluePlayerReplay = new ReplayStrategy(replay);
+        GameEngine replayEngine = new GameEngine(replay.getBoardSize(), redPlayerReplay, bluePlayerReplay,
+                                                 replay.getGameSeeds());
+        replayEngine.setGuiEnabled(false);
+        replayEngine.runGame();
+
+        Replay replayedGame = replayEngine.getReplay();
+        return new ReplayVerificationResult(gameId, replay, replayEngine.getRedPlayerScore(),
+                                            replayEngine.getBluePlayerScore(), replayedGame.redThrewException(),
+                                            replayedGame.blueThrewException());
+    }
+
+    /**
+     * Re-simulates every replay in parallel
+     *
+     * @param replays The replays to re-simulate
+     * @return The result of every replay, in the same order as the replays. Each result's id is its index
+     */
+    public List<ReplayVerificationResult> verifyReplays(List<Replay> replays) {
+        List<Future<ReplayVerificationResult>> verificationFutures = new ArrayList<>(replays.size());
+        for (int i = 0; i < replays.size(); i++) {
+            long gameId = i;
+            Replay replay = replays.get(i);
+            verificationFutures.add(verificationExecutor.submit(() -> verifyReplay(gameId, replay)));
+        }
+        return collectResults(verificationFutures);
+    }
+
+    /**
+     * Re-simulates every game in a replay archive in parallel. Each game is read from the archive by the thread
+     *  that re-simulates it, so the archive is never loaded into memory all at once
+     *
+     * @param replayArchive The archive containing the games to re-simulate
+     * @return The result of every game, in game id order
+     */
+    public List<ReplayVerificationResult> verifyArchive(ReplayArchive replayArchive) {
+        long gameCount = replayArchive.getGameCount();
+        List<Future<ReplayVerificationResult>> verificationFutures = new ArrayList<>();
+        for (long gameId = 0; gameId < gameCount; gameId++) {
+            long archivedGameId = gameId;
+            Callable<ReplayVerificationResult> verification =
+                    () -> verifyReplay(archivedGameId, replayArchive.getReplay(archivedGameId));
+            verificationFutures.add(verificationExecutor.submit(verification));
+        }
+        return collectResults(verificationFutures);
+    }
+
+    /**
+     * @param results The results of a verification run
+     * @return Only the results whose re-simulation did not match the recording
+     */
+    public static List<ReplayVerificationResult> getMismatches(List<ReplayVerificationResult> results) {
+        List<ReplayVerificationResult> mismatches = new ArrayList<>();
+        for (ReplayVerificationResult result : results) {
+            if (!result.matchesRecording()) {
+                mismatches.add(result);
+            }
+        }
+        return mismatches;
+    }
+
+    private List<ReplayVerificationResult> collectResults(List<Future<ReplayVerificationResult>> verificationFutures) {
+        List<ReplayVerificationResult> results = new ArrayList<>(verificationFutures.size());
+        for (Future<ReplayVerificationResult> verificationFuture : verificationFutures) {
+            try {
+                results.add(verificationFuture.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for replay verification", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw new IllegalStateException("A replay could not be read from the archive", e.getCause());
+                }
+                throw new IllegalStateException("A replay failed to re-simulate", e.getCause());
+            }
+        }
+        return results;
+    }
+}
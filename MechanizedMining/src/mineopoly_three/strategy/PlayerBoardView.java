@@ -56,7 +56,9 @@ public class PlayerBoardView {
     }
 
     /**
-     * Gets a map from every Point with an item on the ground to the InventoryItem on theground
+     * Gets a map from every Point with an item on the ground to the InventoryItem on theground.
+     * During a game this map and its lists are read-only and shared with the other player, so copy them
+     *  if your strategy needs to modify them
      *
      * @return The mapping for all locations with InventoryItems to those items
      */
@@ -17,6 +17,11 @@ public class RechargeTile extends StoneTile {
         return TileType.RECHARGE;
     }
 
+    @Override
+    public boolean updatesEachTurn() {
+        return true;
+    }
+
     @Override
     public void update() {
         if (super.playerOnTile != null) {
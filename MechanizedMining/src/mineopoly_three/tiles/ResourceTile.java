@@ -11,13 +11,11 @@ import java.awt.*;
 
 public class ResourceTile extends StoneTile {
     private ItemType tileResource;
-    private int numTimesMined;
 
     public ResourceTile(Point tileLocation, ItemType tileResource) {
         super(tileLocation);
         assert(tileResource.isResource());
         this.tileResource = tileResource;
-        this.numTimesMined = 0;
     }
 
     @Override
@@ -34,7 +32,8 @@ public class ResourceTile extends StoneTile {
         super.interact(playerOnTile, actionOnTile);
 
         if (actionOnTile == TurnAction.MINE) {
-            numTimesMined++;
+            int numTimesMined = getMineProgress() + 1;
+            setMineProgress(numTimesMined);
 
             if (numTimesMined >= tileResource.getTurnsToMine()) {
                 Tile minedTile = new CrackedTile(location);
@@ -57,7 +56,7 @@ public class ResourceTile extends StoneTile {
         imageOverlays[resourceTypeLayerIndex] = resourceTileOverlay;
 
         // Add crack textures if this has been mined
-        Image crackOverlay = imageManager.getScaledImage("crack_" + numTimesMined);
+        Image crackOverlay = imageManager.getScaledImage("crack_" + getMineProgress());
         int crackLayerIndex = TileRenderLayer.LAYER_CRACK.ordinal();
         imageOverlays[crackLayerIndex] = crackOverlay;
         return imageOverlays;
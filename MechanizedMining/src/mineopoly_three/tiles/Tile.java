@@ -1,5 +1,6 @@
 package mineopoly_three.tiles;
 
+import mineopoly_three.game.BoardState;
 import mineopoly_three.game.MinePlayer;
 import mineopoly_three.action.TurnAction;
 import mineopoly_three.graphics.ImageManager;
@@ -18,16 +19,80 @@ public abstract class Tile {
     protected List<InventoryItem> itemsOnTile;
     protected Point location;
 
+    // While on a GameBoard, a Tile is a view over the board's primitive state at its cell
+    private BoardState boardState;
+    private int cellIndex;
+    private int detachedMineProgress;
+
     protected Tile(Point tileLocation) {
         this.playerOnTile = null;
         this.itemsOnTile = new ArrayList<>();
         this.location = tileLocation;
+        this.boardState = null;
+        this.detachedMineProgress = 0;
+    }
+
+    /**
+     * Called by the GameBoard when this Tile is placed on it. From now on this Tile's simulation state is
+     *  stored in the board's primitive arrays
+     *
+     * @param boardState The primitive state of the board this Tile was placed on
+     * @param cellIndex The packed cell index of this Tile's location
+     */
+    public void attachToBoard(BoardState boardState, int cellIndex) {
+        int mineProgress = getMineProgress();
+        this.boardState = boardState;
+        this.cellIndex = cellIndex;
+        boardState.setTileType(cellIndex, getType());
+        boardState.setMineProgress(cellIndex, mineProgress);
+    }
+
+    /**
+     * Called by the GameBoard when this Tile is replaced, so it keeps its last state but stops sharing the cell
+     */
+    public void detachFromBoard() {
+        this.detachedMineProgress = getMineProgress();
+        this.boardState = null;
+    }
+
+    /**
+     * @return The number of times this Tile has been mined
+     */
+    public int getMineProgress() {
+        return (boardState != null) ? boardState.getMineProgress(cellIndex) : detachedMineProgress;
+    }
+
+    protected void setMineProgress(int timesMined) {
+        if (boardState != null) {
+            boardState.setMineProgress(cellIndex, timesMined);
+        } else {
+            detachedMineProgress = timesMined;
+        }
+    }
+
+    /**
+     * Clears everything that happened to this Tile during a game, so a GameBoard can put it back on a board
+     *  being generated for another game instead of creating a new Tile
+     */
+    public void resetForReuse() {
+        playerOnTile = null;
+        itemsOnTile.clear();
+        setMineProgress(0);
     }
 
     public MinePlayer getPlayerOnTile() {
         return playerOnTile;
     }
 
+    /**
+     * Puts a player on this tile without triggering onEnter(), for restoring a game to an earlier state
+     *
+     * @param playerOnTile The player standing on this tile, or null if no player is
+     */
+    public void setPlayerOnTile(MinePlayer playerOnTile) {
+        this.playerOnTile = playerOnTile;
+    }
+
     public Point getLocation() {
         return location;
     }
@@ -81,6 +146,13 @@ public abstract class Tile {
         return this;
     }
 
+    /**
+     * @return True if this Tile does anything in update(). The GameBoard only calls update() on these Tiles
+     */
+    public boolean updatesEachTurn() {
+        return false;
+    }
+
     /**
      * Called every turn for tiles to update their internal state, if they need to do so
      */
@@ -0,0 +1,85 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.game.StrategyLatencies;
+
+/**
+ * The outcome of a single headless game played as part of a Tournament.
+ * GameResults are never modified after the game ends, so they can be safely handed between the threads running games.
+ */
+public class GameResult {
+    private final int boardSize;
+    private final long randomSeed;
+    private final int redScore;
+    private final int blueScore;
+    private final int minScoreToWin;
+    private final boolean redThrewException;
+    private final boolean blueThrewException;
+    private final StrategyLatencies redLatencies;
+    private final StrategyLatencies blueLatencies;
+
+    public GameResult(int boardSize, long randomSeed, int redScore, int blueScore, int minScoreToWin,
+                      boolean redThrewException, boolean blueThrewException, StrategyLatencies redLatencies,
+                      StrategyLatencies blueLatencies) {
+        this.boardSize = boardSize;
+        this.randomSeed = randomSeed;
+        this.redScore = redScore;
+        this.blueScore = blueScore;
+        this.minScoreToWin = minScoreToWin;
+        this.redThrewException = redThrewException;
+        this.blueThrewException = blueThrewException;
+        this.redLatencies = redLatencies;
+        this.blueLatencies = blueLatencies;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public int getRedScore() {
+        return redScore;
+    }
+
+    public int getBlueScore() {
+        return blueScore;
+    }
+
+    public int getMinScoreToWin() {
+        return minScoreToWin;
+    }
+
+    public boolean redThrewException() {
+        return redThrewException;
+    }
+
+    public boolean blueThrewException() {
+        return blueThrewException;
+    }
+
+    public StrategyLatencies getRedLatencies() {
+        return redLatencies;
+    }
+
+    public StrategyLatencies getBlueLatencies() {
+        return blueLatencies;
+    }
+
+    /**
+     * A win is only counted if a player scores at least the minimum score, not just more than the other player
+     *
+     * @return True if the red player reached the minimum score to win
+     */
+    public boolean redWonByMinScore() {
+        return redScore >= minScoreToWin;
+    }
+
+    /**
+     * @return True if the blue player reached the minimum score to win
+     */
+    public boolean blueWonByMinScore() {
+        return blueScore >= minScoreToWin;
+    }
+}
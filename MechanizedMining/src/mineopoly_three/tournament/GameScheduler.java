@@ -0,0 +1,191 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.game.GameEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs many headless games at once on a small, fixed number of worker threads. Instead of tying up a thread for a
+ *  game's whole lifetime, every game waits in a single run queue and a worker advances it a few steps at a time with
+ *  GameEngine.step(), then puts it back at the end of the queue. Every running game gets its turn in order, so
+ *  thousands of games can share one JVM and all make progress at the same rate.
+ */
+public class GameScheduler {
+    private final int stepsPerSlice;
+    private final BlockingQueue<ScheduledGame> runQueue;
+    private final List<Thread> workers;
+    private final AtomicLong numGamesCompleted;
+    private final AtomicLong numStepsTaken;
+    private final long startTime;
+    // Held while checking shutDown and adding to the run queue, so nothing is added after shutDown() drains it
+    private final Object queueLock;
+    private volatile boolean shutDown;
+
+    /**
+     * @param numWorkers The number of threads that advance games
+     * @param stepsPerSlice How many steps a worker advances a game by before moving on to the next game
+     */
+    public GameScheduler(int numWorkers, int stepsPerSlice) {
+        if (numWorkers < 1 || stepsPerSlice < 1) {
+            throw new IllegalArgumentException("A scheduler needs at least one worker and one step per slice");
+        }
+
+        this.stepsPerSlice = stepsPerSlice;
+        this.runQueue = new LinkedBlockingQueue<>();
+        this.workers = new ArrayList<>(numWorkers);
+        this.numGamesCompleted = new AtomicLong();
+        this.numStepsTaken = new AtomicLong();
+        this.startTime = System.nanoTime();
+        this.queueLock = new Object();
+        this.shutDown = false;
+
+        for (int i = 0; i < numWorkers; i++) {
+            Thread worker = new Thread(this::runWorker, "GameScheduler-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Adds a game to the end of the run queue. The game should not have a GUI, since steps never wait between frames
+     *
+     * @param gameEngine A game that has not been started
+     * @return A future that completes with the same engine once its game is over
+     */
+    public CompletableFuture<GameEngine> submit(GameEngine gameEngine) {
+        ScheduledGame scheduledGame = new ScheduledGame(gameEngine);
+        synchronized (queueLock) {
+            if (shutDown) {
+                throw new IllegalStateException("The scheduler has been shut down");
+            }
+            runQueue.add(scheduledGame);
+        }
+        return scheduledGame.completion;
+    }
+
+    /**
+     * Runs every game to completion, interleaved with each other and with anything else already submitted
+     *
+     * @param gameEngines Games that have not been started
+     * @return The same engines in the same order, each with its game over
+     */
+    public List<GameEngine> runAll(List<GameEngine> gameEngines) {
+        List<CompletableFuture<GameEngine>> completions = new ArrayList<>(gameEngines.size());
+        for (GameEngine gameEngine : gameEngines) {
+            completions.add(submit(gameEngine));
+        }
+
+        List<GameEngine> finishedGames = new ArrayList<>(completions.size());
+        for (CompletableFuture<GameEngine> completion : completions) {
+            try {
+                finishedGames.add(completion.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for scheduled games", e);
+            } catch (ExecutionException e) {
+                // Strategy exceptions are handled by the engine, so this is an Error or a bug in the engine itself
+                throw new IllegalStateException("A scheduled game failed to run", e.getCause());
+            }
+        }
+        return finishedGames;
+    }
+
+    private void runWorker() {
+        while (!shutDown) {
+            ScheduledGame scheduledGame;
+            try {
+                scheduledGame = runQueue.take();
+            } catch (InterruptedException e) {
+                // Only shutDown() interrupts workers
+                return;
+            }
+
+            runSlice(scheduledGame);
+        }
+    }
+
+    private void runSlice(ScheduledGame scheduledGame) {
+        GameEngine gameEngine = scheduledGame.gameEngine;
+        try {
+            for (int i = 0; i < stepsPerSlice; i++) {
+                boolean hasMoreSteps = gameEngine.step();
+                numStepsTaken.incrementAndGet();
+                if (!hasMoreSteps) {
+                    numGamesCompleted.incrementAndGet();
+                    scheduledGame.completion.complete(gameEngine);
+                    return;
+                }
+            }
+        } catch (Throwable t) {
+            // The engine only catches a strategy's Exceptions, so an Error like a StackOverflowError ends up here.
+            //  Only this game fails, the worker goes on to the next one
+            scheduledGame.completion.completeExceptionally(t);
+            return;
+        }
+
+        synchronized (queueLock) {
+            if (!shutDown) {
+                // Back to the end of the queue, so every other waiting game gets a slice first
+                runQueue.add(scheduledGame);
+                return;
+            }
+        }
+        scheduledGame.completion.cancel(false);
+    }
+
+    /**
+     * @return The number of games that have run to completion
+     */
+    public long getNumGamesCompleted() {
+        return numGamesCompleted.get();
+    }
+
+    /**
+     * @return The number of steps taken across every game, counting both strategy initialization and end of round
+     */
+    public long getNumStepsTaken() {
+        return numStepsTaken.get();
+    }
+
+    /**
+     * @return The number of games completed per second since the scheduler was created
+     */
+    public double getGamesPerSecond() {
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+        return (elapsedSeconds <= 0) ? 0 : numGamesCompleted.get() / elapsedSeconds;
+    }
+
+    /**
+     * Stops every worker after the slice it is running. Games still waiting in the queue are cancelled
+     */
+    public void shutDown() {
+        synchronized (queueLock) {
+            shutDown = true;
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+
+        ScheduledGame waitingGame;
+        while ((waitingGame = runQueue.poll()) != null) {
+            waitingGame.completion.cancel(false);
+        }
+    }
+
+    private static class ScheduledGame {
+        private final GameEngine gameEngine;
+        private final CompletableFuture<GameEngine> completion;
+
+        private ScheduledGame(GameEngine gameEngine) {
+            this.gameEngine = gameEngine;
+            this.completion = new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.game.BoardPool;
+import mineopoly_three.game.BoardTemplateCache;
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.game.GameSeeds;
+import mineopoly_three.game.SeedScheme;
+import mineopoly_three.replay.BinaryReplayWriter;
+import mineopoly_three.replay.Replay;
+import mineopoly_three.strategy.MinePlayerStrategy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Runs many headless games of Mine-opoly in parallel on an ExecutorService (like a ForkJoinPool).
+ * Every game gets its own GameEngine and its own strategy instances from the suppliers, so strategies never
+ *  share state between games. Results are always merged in seed order, so a tournament run on any number
+ *  of threads gives exactly the same result as running the same seeds one after another.
+ *
+ * Engines are reused: a finished game's engine is reset in place for the next game a thread plays, and boards of
+ *  sizes no engine needs right now wait in a BoardPool. After the first few games, a game allocates little more
+ *  than its strategies, its replay and its result.
+ */
+public class Tournament {
+    private final Supplier<MinePlayerStrategy> redStrategySupplier;
+    private final Supplier<MinePlayerStrategy> blueStrategySupplier;
+    private final ExecutorService gameExecutor;
+    private long turnTimeBudgetNanos;
+    private ExecutorService strategyExecutor;
+    private SeedScheme seedScheme;
+    private BoardTemplateCache boardTemplateCache;
+    private final BoardPool boardPool;
+    private final ConcurrentLinkedDeque<GameEngine> idleEngines;
+    private TournamentResultStore resultStore;
+    private String redStrategyName;
+    private String blueStrategyName;
+
+    /**
+     * @param redStrategySupplier Creates a fresh red player strategy for every game
+     * @param blueStrategySupplier Creates a fresh blue player strategy for every game
+     * @param gameExecutor The executor the games will be run on. The tournament does not shut it down
+     */
+    public Tournament(Supplier<MinePlayerStrategy> redStrategySupplier,
+                      Supplier<MinePlayerStrategy> blueStrategySupplier, ExecutorService gameExecutor) {
+        this.redStrategySupplier = redStrategySupplier;
+        this.blueStrategySupplier = blueStrategySupplier;
+        this.gameExecutor = gameExecutor;
+        this.seedScheme = SeedScheme.LEGACY;
+        this.boardPool = new BoardPool();
+        this.idleEngines = new ConcurrentLinkedDeque<>();
+    }
+
+    /**
+     * Sets how every game's seeds are derived from its seed. With SeedScheme.SPLIT the world, both players and both
+     *  strategies each get their own independent random stream
+     *
+     * @param seedScheme The scheme to play every game with, LEGACY unless this is called
+     */
+    public void setSeedScheme(SeedScheme seedScheme) {
+        this.seedScheme = seedScheme;
+    }
+
+    /**
+     * Builds every game's board from a cache of boards generated before, so seeds that are played again (by running
+     *  the tournament again, or in another tournament sharing the cache) don't generate their boards again. Call
+     *  BoardTemplateCache.pregenerate() first to generate every board before any game starts
+     *
+     * @param boardTemplateCache The cache to share between every game, or null to generate every board
+     */
+    public void setBoardTemplateCache(BoardTemplateCache boardTemplateCache) {
+        this.boardTemplateCache = boardTemplateCache;
+        // Engines are created with their cache, so the idle ones would keep using the old one
+        idleEngines.clear();
+    }
+
+    /**
+     * Records every finished game in a result store, and skips every game the store already has a result for, using
+     *  the stored result instead. A tournament that was stopped part of the way through then picks up where it left
+     *  off when it is run again with the same seeds. Stored results have no latencies
+     *
+     * @param resultStore The store to record games in, or null to not record them
+     * @param redStrategyName The name the red player's strategy is stored under
+     * @param blueStrategyName The name the blue player's strategy is stored under
+     */
+    public void setResultStore(TournamentResultStore resultStore, String redStrategyName, String blueStrategyName) {
+        this.resultStore = resultStore;
+        this.redStrategyName = redStrategyName;
+        this.blueStrategyName = blueStrategyName;
+    }
+
+    /**
+     * Limits how long a strategy may take to choose each action in every game, see GameEngine.setTurnTimeBudget()
+     *
+     * @param turnTimeBudgetNanos The most time a strategy may take to choose an action, or 0 for no limit
+     * @param strategyExecutor The executor strategies are run on. It must not be the executor games are run on,
+     *                          or games waiting on their strategies could use up all of its threads
+     */
+    public void setTurnTimeBudget(long turnTimeBudgetNanos, ExecutorService strategyExecutor) {
+        this.turnTimeBudgetNanos = turnTimeBudgetNanos;
+        this.strategyExecutor = strategyExecutor;
+    }
+
+    /**
+     * Plays one game for every seed on every board size
+     *
+     * @param boardSizes The board sizes to play games on
+     * @param randomSeeds The seeds to play on each board size
+     * @return A map from each board size, in the order given, to the result of all games on that size
+     */
+    public Map<Integer, TournamentResult> run(int[] boardSizes, long[] randomSeeds) {
+        // Submit everything up front so games for different board sizes can run at the same time
+        Map<Integer, List<Future<GameResult>>> gamesBySize = new LinkedHashMap<>();
+        for (int boardSize : boardSizes) {
+            gamesBySize.put(boardSize, submitGames(boardSize, randomSeeds));
+        }
+
+        Map<Integer, TournamentResult> resultsBySize = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<Future<GameResult>>> sizeEntry : gamesBySize.entrySet()) {
+            resultsBySize.put(sizeEntry.getKey(), collectResults(sizeEntry.getKey(), sizeEntry.getValue()));
+        }
+        flushResultStore();
+        return resultsBySize;
+    }
+
+    /**
+     * Plays one game for every seed on a single board size
+     *
+     * @param boardSize The size of the board to play every game on
+     * @param randomSeeds The seeds of the games to play
+     * @return The result of all games played
+     */
+    public TournamentResult run(int boardSize, long[] randomSeeds) {
+        TournamentResult sizeResult = collectResults(boardSize, submitGames(boardSize, randomSeeds));
+        flushResultStore();
+        return sizeResult;
+    }
+
+    /**
+     * Plays a single game on the calling thread
+     *
+     * @param boardSize The size of the board to play on
+     * @param randomSeed The seed for world generation and the strategies
+     * @return The result of the game
+     */
+    public GameResult playGame(int boardSize, long randomSeed) {
+        MinePlayerStrategy redStrategy = redStrategySupplier.get();
+        MinePlayerStrategy blueStrategy = blueStrategySupplier.get();
+        GameSeeds gameSeeds = GameSeeds.create(seedScheme, randomSeed);
+        GameEngine gameEngine = idleEngines.pollFirst();
+        if (gameEngine == null) {
+            gameEngine = new GameEngine(boardSize, redStrategy, blueStrategy, gameSeeds, boardTemplateCache);
+            gameEngine.setGuiEnabled(false);
+            gameEngine.setBoardPool(boardPool);
+        } else {
+            gameEngine.reset(boardSize, gameSeeds, redStrategy, blueStrategy);
+        }
+        gameEngine.setTurnTimeBudget(turnTimeBudgetNanos, strategyExecutor);
+        gameEngine.runGame();
+
+        Replay gameReplay = gameEngine.getReplay();
+        GameResult gameResult = new GameResult(boardSize, randomSeed, gameEngine.getRedPlayerScore(),
+                                               gameEngine.getBluePlayerScore(), gameEngine.getMinScoreToWin(),
+                                               gameReplay.redThrewException(), gameReplay.blueThrewException(),
+                                               gameEngine.getRedPlayerLatencies(),
+                                               gameEngine.getBluePlayerLatencies());
+        if (resultStore != null) {
+            recordGame(gameResult, gameEngine.getTurnNumber(), gameReplay);
+        }
+        // Everything the result needs has been read, so the next game can reuse the engine
+        idleEngines.addFirst(gameEngine);
+        return gameResult;
+    }
+
+    private void recordGame(GameResult gameResult, int numTurns, Replay gameReplay) {
+        try {
+            ByteArrayOutputStream replayBytes = new ByteArrayOutputStream();
+            BinaryReplayWriter.writeReplay(gameReplay, replayBytes, true);
+            resultStore.recordGame(redStrategyName, blueStrategyName, seedScheme, gameResult, numTurns,
+                                   replayBytes.toByteArray());
+        } catch (IOException | SQLException e) {
+            throw new IllegalStateException("Could not record the result of a tournament game", e);
+        }
+    }
+
+    private List<Future<GameResult>> submitGames(int boardSize, long[] randomSeeds) {
+        Map<Long, GameResult> storedResults = loadStoredResults(boardSize);
+        List<Future<GameResult>> gameFutures = new ArrayList<>(randomSeeds.length);
+        for (long randomSeed : randomSeeds) {
+            GameResult storedResult = storedResults.get(randomSeed);
+            if (storedResult != null) {
+                // Already played before the tournament was stopped
+                gameFutures.add(CompletableFuture.completedFuture(storedResult));
+                continue;
+            }
+
+            Callable<GameResult> game = () -> playGame(boardSize, randomSeed);
+            gameFutures.add(gameExecutor.submit(game));
+        }
+        return gameFutures;
+    }
+
+    private Map<Long, GameResult> loadStoredResults(int boardSize) {
+        if (resultStore == null) {
+            return Map.of();
+        }
+
+        try {
+            return resultStore.loadGameResults(redStrategyName, blueStrategyName, seedScheme, boardSize);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not load stored tournament results", e);
+        }
+    }
+
+    private void flushResultStore() {
+        if (resultStore == null) {
+            return;
+        }
+
+        try {
+            resultStore.flush();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not record the results of tournament games", e);
+        }
+    }
+
+    private TournamentResult collectResults(int boardSize, List<Future<GameResult>> gameFutures) {
+        // Futures are read back in submission order, so the merge order never depends on scheduling
+        TournamentResult sizeResult = new TournamentResult(boardSize);
+        for (Future<GameResult> gameFuture : gameFutures) {
+            try {
+                sizeResult.addGameResult(gameFuture.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for tournament games", e);
+            } catch (ExecutionException e) {
+                // Strategy exceptions are handled by the engine, so this is a bug in the engine itself
+                throw new IllegalStateException("A tournament game failed to run", e.getCause());
+            }
+        }
+        return sizeResult;
+    }
+}
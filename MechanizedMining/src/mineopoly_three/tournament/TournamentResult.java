@@ -0,0 +1,159 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.game.StrategyLatencies;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregated statistics for every game played on one board size in a Tournament.
+ * Only sums and counts are kept, so the result does not depend on the order games finished in.
+ */
+public class TournamentResult {
+    /**The width of each bucket in the score histograms*/
+    public static final int SCORE_BUCKET_WIDTH = 1000;
+
+    private final int boardSize;
+    private int numGames;
+    private int numRedWins;
+    private int numBlueWins;
+    private int numRedExceptions;
+    private int numBlueExceptions;
+    private long totalRedScore;
+    private long totalBlueScore;
+    private final Map<Integer, Integer> redScoreHistogram;
+    private final Map<Integer, Integer> blueScoreHistogram;
+    private final StrategyLatencies redLatencies;
+    private final StrategyLatencies blueLatencies;
+
+    public TournamentResult(int boardSize) {
+        this.boardSize = boardSize;
+        this.redScoreHistogram = new TreeMap<>();
+        this.blueScoreHistogram = new TreeMap<>();
+        this.redLatencies = new StrategyLatencies();
+        this.blueLatencies = new StrategyLatencies();
+    }
+
+    /**
+     * Adds the outcome of a single game to this result
+     *
+     * @param gameResult The result of a game played on this result's board size
+     */
+    public void addGameResult(GameResult gameResult) {
+        assert gameResult.getBoardSize() == boardSize;
+        numGames++;
+        if (gameResult.redWonByMinScore()) {
+            numRedWins++;
+        }
+        if (gameResult.blueWonByMinScore()) {
+            numBlueWins++;
+        }
+        if (gameResult.redThrewException()) {
+            numRedExceptions++;
+        }
+        if (gameResult.blueThrewException()) {
+            numBlueExceptions++;
+        }
+
+        totalRedScore += gameResult.getRedScore();
+        totalBlueScore += gameResult.getBlueScore();
+        redScoreHistogram.merge(getScoreBucket(gameResult.getRedScore()), 1, Integer::sum);
+        blueScoreHistogram.merge(getScoreBucket(gameResult.getBlueScore()), 1, Integer::sum);
+        redLatencies.merge(gameResult.getRedLatencies());
+        blueLatencies.merge(gameResult.getBlueLatencies());
+    }
+
+    /**
+     * Combines the games counted by another result for the same board size into this result
+     *
+     * @param otherResult The result to merge into this one
+     */
+    public void merge(TournamentResult otherResult) {
+        assert otherResult.boardSize == boardSize;
+        numGames += otherResult.numGames;
+        numRedWins += otherResult.numRedWins;
+        numBlueWins += otherResult.numBlueWins;
+        numRedExceptions += otherResult.numRedExceptions;
+        numBlueExceptions += otherResult.numBlueExceptions;
+        totalRedScore += otherResult.totalRedScore;
+        totalBlueScore += otherResult.totalBlueScore;
+        otherResult.redScoreHistogram.forEach((bucket, count) -> redScoreHistogram.merge(bucket, count, Integer::sum));
+        otherResult.blueScoreHistogram.forEach((bucket, count) -> blueScoreHistogram.merge(bucket, count, Integer::sum));
+        redLatencies.merge(otherResult.redLatencies);
+        blueLatencies.merge(otherResult.blueLatencies);
+    }
+
+    private static int getScoreBucket(int score) {
+        // Scores of -1 (exceptions) fall into their own negative bucket
+        return Math.floorDiv(score, SCORE_BUCKET_WIDTH) * SCORE_BUCKET_WIDTH;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getNumGames() {
+        return numGames;
+    }
+
+    public int getNumRedWins() {
+        return numRedWins;
+    }
+
+    public int getNumBlueWins() {
+        return numBlueWins;
+    }
+
+    public int getNumRedExceptions() {
+        return numRedExceptions;
+    }
+
+    public int getNumBlueExceptions() {
+        return numBlueExceptions;
+    }
+
+    public double getRedWinPercent() {
+        return (numGames == 0) ? 0.0 : ((double) numRedWins) / numGames * 100.0;
+    }
+
+    public double getBlueWinPercent() {
+        return (numGames == 0) ? 0.0 : ((double) numBlueWins) / numGames * 100.0;
+    }
+
+    public double getAverageRedScore() {
+        return (numGames == 0) ? 0.0 : ((double) totalRedScore) / numGames;
+    }
+
+    public double getAverageBlueScore() {
+        return (numGames == 0) ? 0.0 : ((double) totalBlueScore) / numGames;
+    }
+
+    /**
+     * @return A sorted map from the lowest score in each bucket to the number of red scores in that bucket
+     */
+    public Map<Integer, Integer> getRedScoreHistogram() {
+        return Collections.unmodifiableMap(redScoreHistogram);
+    }
+
+    /**
+     * @return A sorted map from the lowest score in each bucket to the number of blue scores in that bucket
+     */
+    public Map<Integer, Integer> getBlueScoreHistogram() {
+        return Collections.unmodifiableMap(blueScoreHistogram);
+    }
+
+    /**
+     * @return How long the red strategy took to respond to the engine, over every game counted
+     */
+    public StrategyLatencies getRedLatencies() {
+        return redLatencies;
+    }
+
+    /**
+     * @return How long the blue strategy took to respond to the engine, over every game counted
+     */
+    public StrategyLatencies getBlueLatencies() {
+        return blueLatencies;
+    }
+}
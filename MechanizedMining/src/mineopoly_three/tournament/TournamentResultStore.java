@@ -0,0 +1,236 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.game.SeedScheme;
+import mineopoly_three.game.StrategyLatencies;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the result of every finished tournament game in a local SQLite database, so a long tournament that dies
+ *  part of the way through can be started again and only play the games it hasn't finished yet.
+ * Games are identified by both strategies, the seed scheme, the board size and the seed. Results are written in
+ *  batches of batchSize games, each in one transaction, so at most one batch of games is lost if the JVM dies.
+ * Needs the sqlite-jdbc driver on the classpath. Safe to share between the threads running games.
+ */
+public class TournamentResultStore implements AutoCloseable {
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS games ("
+            + "red_strategy TEXT NOT NULL, blue_strategy TEXT NOT NULL, seed_scheme TEXT NOT NULL,"
+            + " board_size INTEGER NOT NULL, seed INTEGER NOT NULL,"
+            + " red_score INTEGER NOT NULL, blue_score INTEGER NOT NULL, min_score_to_win INTEGER NOT NULL,"
+            + " num_turns INTEGER NOT NULL, red_threw_exception INTEGER NOT NULL,"
+            + " blue_threw_exception INTEGER NOT NULL, replay BLOB,"
+            + " PRIMARY KEY (red_strategy, blue_strategy, seed_scheme, board_size, seed))";
+    private static final String INSERT_GAME_SQL =
+            "INSERT OR REPLACE INTO games VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_GAMES_SQL = "SELECT seed, red_score, blue_score, min_score_to_win,"
+            + " red_threw_exception, blue_threw_exception FROM games"
+            + " WHERE red_strategy = ? AND blue_strategy = ? AND seed_scheme = ? AND board_size = ?";
+    private static final String SELECT_REPLAY_SQL = "SELECT replay FROM games"
+            + " WHERE red_strategy = ? AND blue_strategy = ? AND seed_scheme = ? AND board_size = ? AND seed = ?";
+    private static final String SELECT_WIN_PERCENTS_SQL = "SELECT board_size,"
+            + " 100.0 * SUM(red_score >= min_score_to_win) / COUNT(*) FROM games"
+            + " WHERE red_strategy = ? AND blue_strategy = ? GROUP BY board_size ORDER BY board_size";
+
+    private final Connection connection;
+    private final PreparedStatement insertGame;
+    private final int batchSize;
+    private int numGamesInBatch;
+
+    /**
+     * Opens the database at a path, creating it if it doesn't exist yet
+     *
+     * @param databaseFilePath The path of the SQLite database file
+     * @throws SQLException If the database could not be opened
+     */
+    public TournamentResultStore(String databaseFilePath) throws SQLException {
+        this(databaseFilePath, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Opens the database at a path, creating it if it doesn't exist yet
+     *
+     * @param databaseFilePath The path of the SQLite database file
+     * @param batchSize The number of games written in each transaction
+     * @throws SQLException If the database could not be opened
+     */
+    public TournamentResultStore(String databaseFilePath, int batchSize) throws SQLException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Games must be written in batches of at least one");
+        }
+
+        this.connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFilePath);
+        try (Statement statement = connection.createStatement()) {
+            // The write ahead log lets aggregate queries read while a batch is being written
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute(CREATE_TABLE_SQL);
+        }
+        connection.setAutoCommit(false);
+        this.insertGame = connection.prepareStatement(INSERT_GAME_SQL);
+        this.batchSize = batchSize;
+        this.numGamesInBatch = 0;
+    }
+
+    /**
+     * Adds a finished game to the current batch, writing the batch once it is full
+     *
+     * @param redStrategyName The name of the red player's strategy
+     * @param blueStrategyName The name of the blue player's strategy
+     * @param seedScheme The scheme the game's seed was used with
+     * @param gameResult The result of the game
+     * @param numTurns The number of turns the game lasted
+     * @param replayBytes The game's binary replay, or null to not store it
+     * @throws SQLException If the batch could not be written
+     */
+    public synchronized void recordGame(String redStrategyName, String blueStrategyName, SeedScheme seedScheme,
+                                        GameResult gameResult, int numTurns, byte[] replayBytes) throws SQLException {
+        insertGame.setString(1, redStrategyName);
+        insertGame.setString(2, blueStrategyName);
+        insertGame.setString(3, seedScheme.name());
+        insertGame.setInt(4, gameResult.getBoardSize());
+        insertGame.setLong(5, gameResult.getRandomSeed());
+        insertGame.setInt(6, gameResult.getRedScore());
+        insertGame.setInt(7, gameResult.getBlueScore());
+        insertGame.setInt(8, gameResult.getMinScoreToWin());
+        insertGame.setInt(9, numTurns);
+        insertGame.setBoolean(10, gameResult.redThrewException());
+        insertGame.setBoolean(11, gameResult.blueThrewException());
+        insertGame.setBytes(12, replayBytes);
+        insertGame.addBatch();
+
+        numGamesInBatch++;
+        if (numGamesInBatch >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes every game in the current batch in one transaction
+     *
+     * @throws SQLException If the batch could not be written. The batch is rolled back
+     */
+    public synchronized void flush() throws SQLException {
+        if (numGamesInBatch == 0) {
+            return;
+        }
+
+        try {
+            insertGame.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            insertGame.clearBatch();
+            numGamesInBatch = 0;
+        }
+    }
+
+    /**
+     * Loads every stored game of a matchup on one board size. Latencies are not stored, so the results have none
+     *
+     * @param redStrategyName The name of the red player's strategy
+     * @param blueStrategyName The name of the blue player's strategy
+     * @param seedScheme The scheme the games' seeds were used with
+     * @param boardSize The board size of the games
+     * @return A map from the seed of every stored game to its result
+     * @throws SQLException If the games could not be read
+     */
+    public synchronized Map<Long, GameResult> loadGameResults(String redStrategyName, String blueStrategyName,
+                                                              SeedScheme seedScheme, int boardSize)
+            throws SQLException {
+        flush();
+        Map<Long, GameResult> resultsBySeed = new LinkedHashMap<>();
+        try (PreparedStatement selectGames = connection.prepareStatement(SELECT_GAMES_SQL)) {
+            setMatchup(selectGames, redStrategyName, blueStrategyName, seedScheme, boardSize);
+            try (ResultSet games = selectGames.executeQuery()) {
+                while (games.next()) {
+                    long seed = games.getLong(1);
+                    resultsBySeed.put(seed, new GameResult(boardSize, seed, games.getInt(2), games.getInt(3),
+                                                           games.getInt(4), games.getBoolean(5),
+                                                           games.getBoolean(6), new StrategyLatencies(),
+                                                           new StrategyLatencies()));
+                }
+            }
+        }
+        return resultsBySeed;
+    }
+
+    /**
+     * @param redStrategyName The name of the red player's strategy
+     * @param blueStrategyName The name of the blue player's strategy
+     * @param seedScheme The scheme the game's seed was used with
+     * @param boardSize The board size of the game
+     * @param seed The seed of the game
+     * @return The game's binary replay, or null if the game or its replay is not stored
+     * @throws SQLException If the replay could not be read
+     */
+    public synchronized byte[] loadReplay(String redStrategyName, String blueStrategyName, SeedScheme seedScheme,
+                                          int boardSize, long seed) throws SQLException {
+        flush();
+        try (PreparedStatement selectReplay = connection.prepareStatement(SELECT_REPLAY_SQL)) {
+            setMatchup(selectReplay, redStrategyName, blueStrategyName, seedScheme, boardSize);
+            selectReplay.setLong(5, seed);
+            try (ResultSet replay = selectReplay.executeQuery()) {
+                return replay.next() ? replay.getBytes(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Counts wins on every board size with a single aggregate query, over every seed scheme. A win is only counted if
+     *  a player reaches the minimum score to win
+     *
+     * @param redStrategyName The name of the red player's strategy
+     * @param blueStrategyName The name of the blue player's strategy
+     * @return A map from every board size with stored games, smallest first, to the percent of them red won
+     * @throws SQLException If the query failed
+     */
+    public synchronized Map<Integer, Double> getRedWinPercentBySize(String redStrategyName, String blueStrategyName)
+            throws SQLException {
+        flush();
+        Map<Integer, Double> winPercentBySize = new LinkedHashMap<>();
+        try (PreparedStatement selectWinPercents = connection.prepareStatement(SELECT_WIN_PERCENTS_SQL)) {
+            selectWinPercents.setString(1, redStrategyName);
+            selectWinPercents.setString(2, blueStrategyName);
+            try (ResultSet winPercents = selectWinPercents.executeQuery()) {
+                while (winPercents.next()) {
+                    winPercentBySize.put(winPercents.getInt(1), winPercents.getDouble(2));
+                }
+            }
+        }
+        return winPercentBySize;
+    }
+
+    private static void setMatchup(PreparedStatement statement, String redStrategyName, String blueStrategyName,
+                                   SeedScheme seedScheme, int boardSize) throws SQLException {
+        statement.setString(1, redStrategyName);
+        statement.setString(2, blueStrategyName);
+        statement.setString(3, seedScheme.name());
+        statement.setInt(4, boardSize);
+    }
+
+    /**
+     * Writes the current batch and closes the database
+     *
+     * @throws SQLException If the batch could not be written or the database could not be closed
+     */
+    @Override
+    public synchronized void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            insertGame.close();
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package mineopoly_three.util;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * A precomputed manhattan distance field over a square board. A multi-source breadth-first search from every
+ *  source cell records, for every cell on the board, the distance to the closest source and which source
+ *  that is. After that, finding the closest source to any location is an O(1) lookup.
+ *
+ * Cells are identified by the packed index (y * boardSize + x). When several sources are equally close,
+ *  the one that comes first in column-major order (x in the outer loop, y in the inner loop) is used,
+ *  which matches scanning the board column by column and keeping the first strictly closer tile.
+ *
+ * Sources that stop being sources, like a resource tile that gets mined out, can be patched out with
+ *  removeStaleSources(), which only searches again from the cells that had one of them as their closest source.
+ */
+public class DistanceField {
+    private static final int NO_SOURCE = -1;
+
+    private final int boardSize;
+    private final int[] distances;
+    private final int[] closestSources;
+    private final int[] searchQueue;
+    // The cells bordering the cells being patched, sorted by distance, and how many cells are at each distance
+    private final int[] patchSeeds;
+    private final int[] numCellsAtDistance;
+    private boolean hasSources;
+
+    public DistanceField(int boardSize) {
+        this.boardSize = boardSize;
+        this.distances = new int[boardSize * boardSize];
+        this.closestSources = new int[boardSize * boardSize];
+        this.searchQueue = new int[boardSize * boardSize];
+        this.patchSeeds = new int[boardSize * boardSize];
+        // The furthest apart two cells can be is 2 * (boardSize - 1)
+        this.numCellsAtDistance = new int[2 * boardSize];
+        this.hasSources = false;
+    }
+
+    /**
+     * Recomputes the whole field from scratch
+     *
+     * @param isSource Tests whether the cell at a packed index (y * boardSize + x) is a source
+     */
+    public void compute(IntPredicate isSource) {
+        int queueHead = 0;
+        int queueTail = 0;
+        for (int cellIndex = 0; cellIndex < distances.length; cellIndex++) {
+            if (isSource.test(cellIndex)) {
+                distances[cellIndex] = 0;
+                closestSources[cellIndex] = cellIndex;
+                searchQueue[queueTail++] = cellIndex;
+            } else {
+                distances[cellIndex] = NO_SOURCE;
+                closestSources[cellIndex] = NO_SOURCE;
+            }
+        }
+        hasSources = (queueTail > 0);
+
+        // Every cell at distance d is dequeued before any cell at distance d + 1, so by the time a cell is
+        //  dequeued every neighbor that could be its closest path to a source has already offered its source
+        while (queueHead < queueTail) {
+            int cellIndex = searchQueue[queueHead++];
+            int x = cellIndex % boardSize;
+            int y = cellIndex / boardSize;
+            if (x > 0) queueTail = relax(cellIndex, cellIndex - 1, queueTail);
+            if (x < boardSize - 1) queueTail = relax(cellIndex, cellIndex + 1, queueTail);
+            if (y > 0) queueTail = relax(cellIndex, cellIndex - boardSize, queueTail);
+            if (y < boardSize - 1) queueTail = relax(cellIndex, cellIndex + boardSize, queueTail);
+        }
+    }
+
+    /**
+     * Patches the field after some of its sources stopped being sources, giving the same result as compute()
+     *  would. Only cells whose closest source was removed are searched again, from the cells around them.
+     *  Cells that became sources since the field was computed are not noticed, compute() has to be used for those
+     *
+     * @param isSource Tests whether the cell at a packed index (y * boardSize + x) is still a source
+     */
+    public void removeStaleSources(IntPredicate isSource) {
+        // Cells whose closest source is still a source keep both their distance and their closest source, since
+        //  removing sources can't bring any other source closer or give it a better tie break
+        int numStaleCells = 0;
+        for (int cellIndex = 0; cellIndex < distances.length; cellIndex++) {
+            int sourceIndex = closestSources[cellIndex];
+            if (sourceIndex != NO_SOURCE && !isSource.test(sourceIndex)) {
+                searchQueue[numStaleCells++] = cellIndex;
+            }
+        }
+        if (numStaleCells == 0) {
+            return;
+        }
+        for (int i = 0; i < numStaleCells; i++) {
+            int cellIndex = searchQueue[i];
+            distances[cellIndex] = NO_SOURCE;
+            closestSources[cellIndex] = NO_SOURCE;
+        }
+
+        // The search starts again from every kept cell next to a stale cell, sorted by distance with a counting sort.
+        //  The board is connected, so there are no such cells only if every source was removed
+        Arrays.fill(numCellsAtDistance, 0);
+        int numSeeds = 0;
+        for (int cellIndex = 0; cellIndex < distances.length; cellIndex++) {
+            if (distances[cellIndex] != NO_SOURCE && hasStaleNeighbor(cellIndex)) {
+                numCellsAtDistance[distances[cellIndex]]++;
+                searchQueue[numSeeds++] = cellIndex;
+            }
+        }
+        hasSources = (numSeeds > 0);
+        int nextSeedPosition = 0;
+        for (int distance = 0; distance < numCellsAtDistance.length; distance++) {
+            int numAtDistance = numCellsAtDistance[distance];
+            numCellsAtDistance[distance] = nextSeedPosition;
+            nextSeedPosition += numAtDistance;
+        }
+        for (int i = 0; i < numSeeds; i++) {
+            int cellIndex = searchQueue[i];
+            patchSeeds[numCellsAtDistance[distances[cellIndex]]++] = cellIndex;
+        }
+
+        // Merge the sorted seeds with the cells found from them, which are found in order of distance, so every
+        //  cell at distance d is still dequeued before any cell at distance d + 1
+        int seedHead = 0;
+        int queueHead = 0;
+        int queueTail = 0;
+        while (seedHead < numSeeds || queueHead < queueTail) {
+            int cellIndex;
+            if (queueHead == queueTail
+                    || (seedHead < numSeeds && distances[patchSeeds[seedHead]] <= distances[searchQueue[queueHead]])) {
+                cellIndex = patchSeeds[seedHead++];
+            } else {
+                cellIndex = searchQueue[queueHead++];
+            }
+
+            int x = cellIndex % boardSize;
+            int y = cellIndex / boardSize;
+            if (x > 0) queueTail = relax(cellIndex, cellIndex - 1, queueTail);
+            if (x < boardSize - 1) queueTail = relax(cellIndex, cellIndex + 1, queueTail);
+            if (y > 0) queueTail = relax(cellIndex, cellIndex - boardSize, queueTail);
+            if (y < boardSize - 1) queueTail = relax(cellIndex, cellIndex + boardSize, queueTail);
+        }
+    }
+
+    private boolean hasStaleNeighbor(int cellIndex) {
+        int x = cellIndex % boardSize;
+        int y = cellIndex / boardSize;
+        return (x > 0 && distances[cellIndex - 1] == NO_SOURCE)
+                || (x < boardSize - 1 && distances[cellIndex + 1] == NO_SOURCE)
+                || (y > 0 && distances[cellIndex - boardSize] == NO_SOURCE)
+                || (y < boardSize - 1 && distances[cellIndex + boardSize] == NO_SOURCE);
+    }
+
+    private int relax(int fromCell, int toCell, int queueTail) {
+        int nextDistance = distances[fromCell] + 1;
+        if (distances[toCell] == NO_SOURCE) {
+            distances[toCell] = nextDistance;
+            closestSources[toCell] = closestSources[fromCell];
+            searchQueue[queueTail++] = toCell;
+        } else if (distances[toCell] == nextDistance
+                && getTieBreakRank(closestSources[fromCell]) < getTieBreakRank(closestSources[toCell])) {
+            closestSources[toCell] = closestSources[fromCell];
+        }
+        return queueTail;
+    }
+
+    private int getTieBreakRank(int cellIndex) {
+        // Column-major order: x first, then y
+        return (cellIndex % boardSize) * boardSize + (cellIndex / boardSize);
+    }
+
+    /**
+     * @return True if at least one source was found the last time this field was computed
+     */
+    public boolean hasSources() {
+        return hasSources;
+    }
+
+    /**
+     * Gets the manhattan distance from a location to the closest source
+     *
+     * @param x The x coordinate of the location
+     * @param y The y coordinate of the location
+     * @return The distance to the closest source, or -1 if there are no sources
+     */
+    public int getDistance(int x, int y) {
+        return distances[y * boardSize + x];
+    }
+
+    /**
+     * Gets the location of the closest source to a location
+     *
+     * @param x The x coordinate of the location
+     * @param y The y coordinate of the location
+     * @return The closest source's location, or null if there are no sources
+     */
+    public Point getClosestSource(int x, int y) {
+        int sourceIndex = closestSources[y * boardSize + x];
+        if (sourceIndex == NO_SOURCE) {
+            return null;
+        }
+        return new Point(sourceIndex % boardSize, sourceIndex / boardSize);
+    }
+}
@@ -0,0 +1,95 @@
+package mineopoly_three.util;
+
+/**
+ * A Fenwick (binary indexed) tree over non-negative int weights. Changing a weight and finding which index a running
+ *  total falls in both take O(log n), which makes it a weighted sampler that items can be removed from cheaply:
+ *  draw a number below getTotal(), look up its index, then set that index's weight to 0.
+ */
+public class FenwickTree {
+    private final int[] tree;
+    private final int[] weights;
+    private final int highestPowerOfTwo;
+    private int total;
+
+    /**
+     * Builds the tree in O(n)
+     *
+     * @param weights The starting weight of every index, none negative. The array is copied
+     */
+    public FenwickTree(int[] weights) {
+        this.weights = weights.clone();
+        this.tree = new int[weights.length + 1];
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Weights can't be negative");
+            }
+            tree[i + 1] += weights[i];
+            int parent = (i + 1) + ((i + 1) & -(i + 1));
+            if (parent < tree.length) {
+                tree[parent] += tree[i + 1];
+            }
+            total += weights[i];
+        }
+        this.highestPowerOfTwo = (weights.length == 0) ? 0 : Integer.highestOneBit(weights.length);
+    }
+
+    /**
+     * @return The sum of every weight
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @param index An index from 0 to size() - 1
+     * @return The current weight at that index
+     */
+    public int getWeight(int index) {
+        return weights[index];
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    /**
+     * @param index An index from 0 to size() - 1
+     * @param weight The new weight at that index, not negative
+     */
+    public void setWeight(int index, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weights can't be negative");
+        }
+
+        int delta = weight - weights[index];
+        weights[index] = weight;
+        total += delta;
+        for (int node = index + 1; node < tree.length; node += node & -node) {
+            tree[node] += delta;
+        }
+    }
+
+    /**
+     * Finds the index whose range of the running total contains a value, so an index is found for exactly as many
+     *  values as its weight
+     *
+     * @param value A value from 0 to getTotal() - 1
+     * @return The smallest index whose weight, added to the weights of every index before it, is more than value
+     */
+    public int findIndex(int value) {
+        if (value < 0 || value >= total) {
+            throw new IllegalArgumentException("Value " + value + " is outside of the total weight " + total);
+        }
+
+        int node = 0;
+        int remaining = value;
+        for (int step = highestPowerOfTwo; step > 0; step >>= 1) {
+            int next = node + step;
+            if (next < tree.length && tree[next] <= remaining) {
+                node = next;
+                remaining -= tree[next];
+            }
+        }
+        return node;
+    }
+}
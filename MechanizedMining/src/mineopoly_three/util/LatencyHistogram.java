@@ -0,0 +1,117 @@
+package mineopoly_three.util;
+
+/**
+ * A fixed size histogram of durations in nanoseconds. Durations below 16ns are counted exactly, and every larger
+ *  duration is counted in a bucket that keeps its 5 most significant bits, so any percentile is reported within
+ *  about 6% of the real value while the histogram never grows, no matter how many durations are recorded.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final long[] bucketCounts;
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    public LatencyHistogram() {
+        this.bucketCounts = new long[NUM_BUCKETS];
+        this.count = 0;
+        this.totalNanos = 0;
+        this.maxNanos = 0;
+    }
+
+    /**
+     * Records one duration
+     *
+     * @param nanos The duration in nanoseconds. Negative durations are recorded as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        bucketCounts[getBucketIndex(nanos)]++;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+    }
+
+    /**
+     * Adds every duration recorded in another histogram to this one
+     *
+     * @param other The histogram to add
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            bucketCounts[i] += other.bucketCounts[i];
+        }
+        count += other.count;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    private static int getBucketIndex(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) {
+            return (int) nanos;
+        }
+
+        // Keep the highest set bit and the SUB_BUCKET_BITS bits below it
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (nanos >>> shift) - SUB_BUCKET_COUNT;
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long getBucketUpperBound(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+
+        int shift = bucketIndex / SUB_BUCKET_COUNT - 1;
+        long mantissa = SUB_BUCKET_COUNT + (bucketIndex % SUB_BUCKET_COUNT);
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * Gets the duration that a percentage of recorded durations were at or below
+     *
+     * @param percentile The percentage, from 0 to 100
+     * @return The duration in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+
+        long targetCount = Math.max(1, (long) Math.ceil(count * (percentile / 100.0)));
+        long countSoFar = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            countSoFar += bucketCounts[i];
+            if (countSoFar >= targetCount) {
+                return Math.min(getBucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public double getMeanNanos() {
+        return (count == 0) ? 0 : ((double) totalNanos) / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("p50 %.1fus, p99 %.1fus, max %.1fus (%d calls)", getPercentile(50) / 1000.0,
+                             getPercentile(99) / 1000.0, getMaxNanos() / 1000.0, count);
+    }
+}
@@ -0,0 +1,162 @@
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.SeedScheme;
+import mineopoly_three.replay.BinaryReplayReader;
+import mineopoly_three.replay.BinaryReplayWriter;
+import mineopoly_three.replay.Replay;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BinaryReplayTest {
+  private static final int boardSize = 14;
+  private static final long rootSeed = -1234567890123L;
+
+  // The header of an uncompressed replay on a 14x14 board with root seed 3, before and after the version byte
+  private static final byte[] headerStart = {'M', 'R', 'P', 'Y'};
+  private static final int[] headerEnd = {0x00, 14, 6};
+
+  private static byte[] writeReplay(Replay replay, boolean compress) throws IOException {
+    ByteArrayOutputStream replayBytes = new ByteArrayOutputStream();
+    BinaryReplayWriter.writeReplay(replay, replayBytes, compress);
+    return replayBytes.toByteArray();
+  }
+
+  private static Replay readReplay(byte[] replayBytes) throws IOException {
+    try (BinaryReplayReader replayReader = new BinaryReplayReader(new ByteArrayInputStream(replayBytes))) {
+      return replayReader.readReplay();
+    }
+  }
+
+  private static byte[] handWrittenReplay(int version, int... body) {
+    byte[] replayBytes = Arrays.copyOf(headerStart, headerStart.length + 1 + headerEnd.length + body.length);
+    int index = headerStart.length;
+    replayBytes[index++] = (byte) version;
+    for (int headerByte : headerEnd) {
+      replayBytes[index++] = (byte) headerByte;
+    }
+    for (int bodyByte : body) {
+      replayBytes[index++] = (byte) bodyByte;
+    }
+    return replayBytes;
+  }
+
+  private static void assertSameReplay(Replay expected, Replay actual) {
+    assertEquals(expected.getBoardSize(), actual.getBoardSize());
+    assertEquals(expected.getRootSeed(), actual.getRootSeed());
+    assertEquals(expected.getSeedScheme(), actual.getSeedScheme());
+    assertEquals(expected.getRedPlayerActions(), actual.getRedPlayerActions());
+    assertEquals(expected.getBluePlayerActions(), actual.getBluePlayerActions());
+    assertEquals(expected.redThrewException(), actual.redThrewException());
+    assertEquals(expected.blueThrewException(), actual.blueThrewException());
+    assertEquals(expected.hasFinalScores(), actual.hasFinalScores());
+    assertEquals(expected.getRedFinalScore(), actual.getRedFinalScore());
+    assertEquals(expected.getBlueFinalScore(), actual.getBlueFinalScore());
+  }
+
+  @Test
+  // Tests that every action survives being written and read back, both compressed and uncompressed
+  public void testRoundTrip() throws IOException {
+    List<TurnAction> redActions = new ArrayList<>();
+    List<TurnAction> blueActions = new ArrayList<>();
+    TurnAction[] allTurnActions = TurnAction.values();
+    for (int i = 0; i < 200; i++) {
+      redActions.add(allTurnActions[i % allTurnActions.length]);
+      blueActions.add(allTurnActions[(i * 3 + 1) % allTurnActions.length]);
+    }
+    Replay replay = new Replay(boardSize, rootSeed, SeedScheme.SPLIT, redActions, blueActions, false, false);
+
+    assertSameReplay(replay, readReplay(writeReplay(replay, false)));
+    assertSameReplay(replay, readReplay(writeReplay(replay, true)));
+  }
+
+  @Test
+  // Tests that a null action is read back as null, and that a player with fewer actions gets no extra ones
+  public void testNullActions() throws IOException {
+    List<TurnAction> redActions = Arrays.asList(TurnAction.MINE, null, TurnAction.MOVE_UP);
+    List<TurnAction> blueActions = Arrays.asList(null, TurnAction.PLACE_AUTOMINER);
+    Replay replay = new Replay(boardSize, rootSeed, redActions, blueActions, false, false);
+
+    Replay readBack = readReplay(writeReplay(replay, false));
+    assertSameReplay(replay, readBack);
+    assertEquals(3, readBack.getRedPlayerActions().size());
+    assertEquals(2, readBack.getBluePlayerActions().size());
+  }
+
+  @Test
+  // Tests that the exception markers of each player are kept apart
+  public void testExceptionFlags() throws IOException {
+    List<TurnAction> actions = List.of(TurnAction.MOVE_LEFT);
+    Replay redThrew = new Replay(boardSize, rootSeed, actions, actions, true, false);
+    Replay blueThrew = new Replay(boardSize, rootSeed, actions, actions, false, true);
+    Replay bothThrew = new Replay(boardSize, rootSeed, actions, actions, true, true);
+
+    assertSameReplay(redThrew, readReplay(writeReplay(redThrew, true)));
+    assertSameReplay(blueThrew, readReplay(writeReplay(blueThrew, true)));
+    assertSameReplay(bothThrew, readReplay(writeReplay(bothThrew, true)));
+  }
+
+  @Test
+  // Tests that an odd number of codes is padded with a second end code, and the scores after it are still read
+  public void testOddNibbleEndPadding() throws IOException {
+    // One turn and the end code make three codes, which leaves the last half byte to be padded
+    Replay replay = new Replay(boardSize, 3, List.of(TurnAction.MINE), List.of(TurnAction.MOVE_DOWN), false, false,
+                               7, 11);
+    byte[] replayBytes = writeReplay(replay, false);
+
+    int codesStart = replayBytes.length - 5;
+    assertEquals(0x41, replayBytes[codesStart] & 0xFF);
+    assertEquals(0xFF, replayBytes[codesStart + 1] & 0xFF);
+    assertEquals(1, replayBytes[codesStart + 2]);
+    assertSameReplay(replay, readReplay(replayBytes));
+  }
+
+  @Test
+  // Tests that final scores, including the -1 of a player who threw an exception, are read back
+  public void testScores() throws IOException {
+    List<TurnAction> actions = List.of(TurnAction.PICK_UP_RESOURCE, TurnAction.MOVE_RIGHT);
+    Replay withScores = new Replay(boardSize, rootSeed, actions, actions, false, true, 123456, -1);
+    Replay withoutScores = new Replay(boardSize, rootSeed, actions, actions, false, false);
+
+    Replay readBack = readReplay(writeReplay(withScores, true));
+    assertSameReplay(withScores, readBack);
+    assertTrue(readBack.hasFinalScores());
+    assertFalse(readReplay(writeReplay(withoutScores, true)).hasFinalScores());
+  }
+
+  @Test
+  // Tests that a version 1 replay, which ends right after its end code, can still be read
+  public void testReadsVersionOneReplay() throws IOException {
+    // Red mines and blue does nothing, then the end code padded with another
+    Replay replay = readReplay(handWrittenReplay(1, 0x48, 0xFF));
+
+    assertEquals(boardSize, replay.getBoardSize());
+    assertEquals(3, replay.getRootSeed());
+    assertEquals(SeedScheme.LEGACY, replay.getSeedScheme());
+    assertEquals(List.of(TurnAction.MINE), replay.getRedPlayerActions());
+    assertEquals(Arrays.asList((TurnAction) null), replay.getBluePlayerActions());
+    assertFalse(replay.hasFinalScores());
+  }
+
+  @Test
+  // Tests that a version 2 replay, which has its scores but no seed scheme flag, can still be read
+  public void testReadsVersionTwoReplay() throws IOException {
+    // A red exception, then the end code followed by red's score of 25 and blue's score of -1 as zigzag varints
+    Replay replay = readReplay(handWrittenReplay(2, 0x48, 0xCF, 0x01, 50, 1));
+
+    assertEquals(List.of(TurnAction.MINE), replay.getRedPlayerActions());
+    assertTrue(replay.redThrewException());
+    assertFalse(replay.blueThrewException());
+    assertTrue(replay.hasFinalScores());
+    assertEquals(25, replay.getRedFinalScore());
+    assertEquals(-1, replay.getBlueFinalScore());
+  }
+}
@@ -0,0 +1,103 @@
+import mineopoly_three.util.DistanceField;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+public class DistanceFieldTest {
+  private static final int boardSize = 9;
+
+  private static DistanceField computeField(int size, boolean[] isSource) {
+    DistanceField field = new DistanceField(size);
+    field.compute(cellIndex -> isSource[cellIndex]);
+    return field;
+  }
+
+  // Checks every cell of a patched field against a field computed from scratch with the same sources
+  private static void assertSameAsFreshField(int size, boolean[] isSource, DistanceField patchedField) {
+    DistanceField freshField = computeField(size, isSource);
+    assertEquals(freshField.hasSources(), patchedField.hasSources());
+    for (int x = 0; x < size; x++) {
+      for (int y = 0; y < size; y++) {
+        String cell = "(" + x + ", " + y + ")";
+        assertEquals(cell, freshField.getDistance(x, y), patchedField.getDistance(x, y));
+        assertEquals(cell, freshField.getClosestSource(x, y), patchedField.getClosestSource(x, y));
+      }
+    }
+  }
+
+  @Test
+  // Tests that removing random sources a few at a time always gives the field compute() would
+  public void testRandomRemovals() {
+    Random random = new Random(42);
+    for (int trial = 0; trial < 500; trial++) {
+      int size = 1 + random.nextInt(20);
+      boolean[] isSource = new boolean[size * size];
+      double sourceChance = random.nextDouble() * 0.3;
+      for (int cellIndex = 0; cellIndex < isSource.length; cellIndex++) {
+        isSource[cellIndex] = random.nextDouble() < sourceChance;
+      }
+
+      DistanceField patchedField = computeField(size, isSource);
+      for (int round = 0; round < 4; round++) {
+        double removeChance = random.nextDouble();
+        for (int cellIndex = 0; cellIndex < isSource.length; cellIndex++) {
+          if (isSource[cellIndex] && random.nextDouble() < removeChance) {
+            isSource[cellIndex] = false;
+          }
+        }
+        patchedField.removeStaleSources(cellIndex -> isSource[cellIndex]);
+        assertSameAsFreshField(size, isSource, patchedField);
+      }
+    }
+  }
+
+  @Test
+  // Tests that cells left between sources at equal distances pick the same source compute() would
+  public void testTiesAfterRemoval() {
+    // Every other cell of every other row is a source, so most cells are equally close to several of them
+    boolean[] isSource = new boolean[boardSize * boardSize];
+    for (int y = 0; y < boardSize; y += 2) {
+      for (int x = 0; x < boardSize; x += 2) {
+        isSource[y * boardSize + x] = true;
+      }
+    }
+    DistanceField patchedField = computeField(boardSize, isSource);
+
+    // Take out the middle source, leaving the cells around it tied between the four sources next to it
+    isSource[4 * boardSize + 4] = false;
+    patchedField.removeStaleSources(cellIndex -> isSource[cellIndex]);
+    assertSameAsFreshField(boardSize, isSource, patchedField);
+    assertEquals(2, patchedField.getDistance(4, 4));
+
+    // Then every source in one column, which ties the cells in it between the columns on either side
+    for (int y = 0; y < boardSize; y += 2) {
+      isSource[y * boardSize + 2] = false;
+    }
+    patchedField.removeStaleSources(cellIndex -> isSource[cellIndex]);
+    assertSameAsFreshField(boardSize, isSource, patchedField);
+  }
+
+  @Test
+  // Tests that a field whose sources are all removed has no distances or closest sources left
+  public void testRemoveEverySource() {
+    boolean[] isSource = new boolean[boardSize * boardSize];
+    isSource[3] = true;
+    isSource[boardSize * boardSize - 1] = true;
+    DistanceField patchedField = computeField(boardSize, isSource);
+    assertTrue(patchedField.hasSources());
+
+    patchedField.removeStaleSources(cellIndex -> false);
+    assertFalse(patchedField.hasSources());
+    for (int x = 0; x < boardSize; x++) {
+      for (int y = 0; y < boardSize; y++) {
+        assertEquals(-1, patchedField.getDistance(x, y));
+        assertNull(patchedField.getClosestSource(x, y));
+      }
+    }
+  }
+}
@@ -0,0 +1,131 @@
+import mineopoly_three.game.GameBoard;
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.game.GameSnapshot;
+import mineopoly_three.game.MinePlayer;
+import mineopoly_three.item.InventoryItem;
+import mineopoly_three.replay.Replay;
+import mineopoly_three.replay.ReplayStrategy;
+import mineopoly_three.strategy.AssignmentStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import mineopoly_three.tiles.Tile;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameSeekTest {
+  private static final int boardSize = 14;
+  private static final long seed = 42;
+  private static final int snapshotInterval = 25;
+
+  private static Replay recordedGame;
+  // The state of the replayed game at the start of every turn, played straight through without seeking
+  private static List<String> statesByTurn;
+  private GameEngine seekingEngine;
+
+  @Before
+  public void setUp() {
+    // This is run before every test.
+    if (recordedGame == null) {
+      GameEngine recordingEngine = new GameEngine(boardSize, new AssignmentStrategy(), new RandomStrategy(), seed);
+      recordingEngine.runGame();
+      recordedGame = recordingEngine.getReplay();
+
+      GameEngine straightEngine = createReplayEngine();
+      statesByTurn = new ArrayList<>();
+      straightEngine.initialize();
+      statesByTurn.add(describeState(straightEngine));
+      while (straightEngine.stepTurn()) {
+        statesByTurn.add(describeState(straightEngine));
+      }
+      statesByTurn.add(describeState(straightEngine));
+    }
+
+    seekingEngine = createReplayEngine();
+    seekingEngine.setSnapshotInterval(snapshotInterval);
+    seekingEngine.initialize();
+  }
+
+  private static GameEngine createReplayEngine() {
+    return new GameEngine(recordedGame.getBoardSize(), new ReplayStrategy(recordedGame),
+                          new ReplayStrategy(recordedGame), recordedGame.getGameSeeds());
+  }
+
+  // Everything a seek has to put back: scores, players, every tile and the items on it, and the prices
+  private static String describeState(GameEngine engine) {
+    StringBuilder state = new StringBuilder();
+    state.append("turn ").append(engine.getTurnNumber()).append('\n');
+    describePlayer(state, engine.getRedPlayer());
+    describePlayer(state, engine.getBluePlayer());
+    GameBoard board = engine.getBoard();
+    for (int y = 0; y < board.getSize(); y++) {
+      for (int x = 0; x < board.getSize(); x++) {
+        Tile tile = board.getTileAtLocation(x, y);
+        state.append(tile.getType()).append(tile.getMineProgress());
+        for (InventoryItem item : tile.getItemsOnTile()) {
+          state.append(' ').append(item.getItemType());
+        }
+        state.append(',');
+      }
+      state.append('\n');
+    }
+    state.append(engine.getEconomy().getCurrentPrices());
+    return state.toString();
+  }
+
+  private static void describePlayer(StringBuilder state, MinePlayer player) {
+    state.append(player.getScore()).append(' ').append(player.getCurrentEnergy()).append(' ')
+        .append(player.getCurrentTile().getLocation()).append(' ');
+    for (InventoryItem item : player.getInventory()) {
+      state.append(item.getItemType()).append(' ');
+    }
+    state.append('\n');
+  }
+
+  private void assertAtTurn(int turn) {
+    assertEquals(turn, seekingEngine.getTurnNumber());
+    assertEquals(statesByTurn.get(turn), describeState(seekingEngine));
+  }
+
+  @Test
+  // Tests that seeking forwards, backwards past several snapshots, and between snapshots matches a straight game
+  public void testSeekForwardsAndBackwards() {
+    int lastTurn = statesByTurn.size() - 1;
+    int[] seekTargets = {lastTurn, lastTurn / 2 + 7, 3, lastTurn / 3, lastTurn / 3 - 1, lastTurn - 1, 0};
+    for (int seekTarget : seekTargets) {
+      seekingEngine.seekToTurn(seekTarget);
+      assertAtTurn(seekTarget);
+    }
+  }
+
+  @Test
+  // Tests that a game moved back to an earlier turn plays on exactly like it did the first time
+  public void testPlayOnAfterSeekingBack() {
+    int lastTurn = statesByTurn.size() - 1;
+    seekingEngine.seekToTurn(lastTurn);
+    int seekTarget = lastTurn / 2 + snapshotInterval / 2;
+    seekingEngine.seekToTurn(seekTarget);
+
+    for (int turn = seekTarget + 1; turn <= lastTurn; turn++) {
+      seekingEngine.stepTurn();
+      assertAtTurn(turn);
+    }
+  }
+
+  @Test
+  // Tests that restoring a snapshot captured between the engine's own snapshots puts that turn back
+  public void testRestoreSnapshot() {
+    int snapshotTurn = snapshotInterval + 3;
+    seekingEngine.seekToTurn(snapshotTurn);
+    GameSnapshot snapshot = seekingEngine.captureSnapshot();
+    seekingEngine.seekToTurn(statesByTurn.size() - 1);
+
+    seekingEngine.restoreSnapshot(snapshot);
+    assertAtTurn(snapshotTurn);
+    seekingEngine.stepTurn();
+    assertAtTurn(snapshotTurn + 1);
+  }
+}
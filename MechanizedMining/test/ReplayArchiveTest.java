@@ -0,0 +1,158 @@
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.SeedScheme;
+import mineopoly_three.replay.Replay;
+import mineopoly_three.replay.ReplayArchive;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+public class ReplayArchiveTest {
+  private Path archiveDirectory;
+  private String dataFilePath;
+
+  // Three small games, the first and last played on the same board with the same seed, and a fourth played there
+  //  with the same seed split into independent seeds
+  private static final Replay firstGame = new Replay(14, 101, List.of(TurnAction.MINE, TurnAction.MOVE_UP),
+      List.of(TurnAction.MOVE_DOWN, TurnAction.MOVE_DOWN), false, false, 40, 12);
+  private static final Replay secondGame = new Replay(20, -7, Arrays.asList(null, TurnAction.PLACE_AUTOMINER),
+      List.of(TurnAction.PICK_UP_RESOURCE), false, true, 5, -1);
+  private static final Replay thirdGame = new Replay(14, 101, List.of(TurnAction.MOVE_LEFT),
+      List.of(TurnAction.MOVE_RIGHT), false, false, 0, 0);
+  private static final Replay splitSeedGame = new Replay(14, 101, SeedScheme.SPLIT, List.of(TurnAction.MOVE_UP),
+      List.of(TurnAction.MINE), false, false, 3, 4);
+
+  @Before
+  public void setUp() throws IOException {
+    // This is run before every test.
+    archiveDirectory = Files.createTempDirectory("replay-archive-test");
+    dataFilePath = archiveDirectory.resolve("games.replays").toString();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(Paths.get(dataFilePath + ReplayArchive.INDEX_FILE_EXTENSION));
+    Files.deleteIfExists(Paths.get(dataFilePath));
+    Files.deleteIfExists(archiveDirectory);
+  }
+
+  private static void assertSameReplay(Replay expected, Replay actual) {
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(expected.getRedFinalScore(), actual.getRedFinalScore());
+    assertEquals(expected.getBlueFinalScore(), actual.getBlueFinalScore());
+  }
+
+  @Test
+  // Tests that games get ids in the order they are added, and each one can be read back by its id
+  public void testAddThenReadById() throws IOException {
+    try (ReplayArchive archive = new ReplayArchive(dataFilePath, true)) {
+      assertEquals(0, archive.addReplay(firstGame));
+      assertEquals(1, archive.addReplay(secondGame));
+      assertEquals(2, archive.addReplay(thirdGame));
+      assertEquals(3, archive.addReplay(splitSeedGame));
+    }
+
+    try (ReplayArchive archive = new ReplayArchive(dataFilePath, false)) {
+      assertEquals(4, archive.getGameCount());
+      assertSameReplay(secondGame, archive.getReplay(1));
+      assertSameReplay(thirdGame, archive.getReplay(2));
+      assertSameReplay(firstGame, archive.getReplay(0));
+      assertSameReplay(splitSeedGame, archive.getReplay(3));
+      assertEquals(-7, archive.getRootSeed(1));
+      assertEquals(20, archive.getBoardSize(1));
+      assertEquals(SeedScheme.LEGACY, archive.getSeedScheme(1));
+      assertEquals(SeedScheme.SPLIT, archive.getSeedScheme(3));
+    }
+  }
+
+  @Test
+  // Tests that games are found by board size, seed and seed scheme, both as they are added and after reopening
+  public void testFindGames() throws IOException {
+    try (ReplayArchive archive = new ReplayArchive(dataFilePath, true)) {
+      archive.addReplay(firstGame);
+      archive.addReplay(splitSeedGame);
+      assertEquals(List.of(0L), archive.findGames(14, 101, SeedScheme.LEGACY));
+      archive.addReplay(secondGame);
+      archive.addReplay(thirdGame);
+      assertEquals(List.of(0L, 3L), archive.findGames(14, 101, SeedScheme.LEGACY));
+    }
+
+    try (ReplayArchive archive = new ReplayArchive(dataFilePath, false)) {
+      assertEquals(List.of(0L, 3L), archive.findGames(14, 101, SeedScheme.LEGACY));
+      assertEquals(List.of(1L), archive.findGames(14, 101, SeedScheme.SPLIT));
+      assertEquals(List.of(2L), archive.findGames(20, -7, SeedScheme.LEGACY));
+      assertEquals(List.of(), archive.findGames(20, 101, SeedScheme.LEGACY));
+    }
+  }
+
+  @Test
+  // Tests that games added together are numbered in order and read back like games added one at a time
+  public void testAddSeveral() throws IOException {
+    try (ReplayArchive archive = new ReplayArchive(dataFilePath, true)) {
+      assertEquals(0, archive.addReplay(secondGame));
+      assertEquals(1, archive.addReplays(List.of(firstGame, splitSeedGame, thirdGame)));
+      assertEquals(4, archive.getGameCount());
+    }
+
+    try (ReplayArchive archive = new ReplayArchive(dataFilePath, false)) {
+      assertSameReplay(secondGame, archive.getReplay(0));
+      assertSameReplay(firstGame, archive.getReplay(1));
+      assertSameReplay(splitSeedGame, archive.getReplay(2));
+      assertSameReplay(thirdGame, archive.getReplay(3));
+      assertEquals(List.of(1L, 3L), archive.findGames(14, 101, SeedScheme.LEGACY));
+    }
+  }
+
+  @Test
+  // Tests that a game added to an open archive can be read right away, after others were already read
+  public void testReadWhileAdding() throws IOException {
+    try (ReplayArchive archive = new ReplayArchive(dataFilePath, true)) {
+      archive.addReplay(firstGame);
+      assertSameReplay(firstGame, archive.getReplay(0));
+      archive.addReplay(secondGame);
+      assertSameReplay(secondGame, archive.getReplay(1));
+      assertSameReplay(firstGame, archive.getReplay(0));
+    }
+  }
+
+  @Test
+  // Tests that a partly written index record at the end, left by an add that never finished, is ignored
+  public void testTruncatedTrailingIndexRecord() throws IOException {
+    try (ReplayArchive archive = new ReplayArchive(dataFilePath, true)) {
+      archive.addReplay(firstGame);
+      archive.addReplay(secondGame);
+    }
+    Files.write(Paths.get(dataFilePath + ReplayArchive.INDEX_FILE_EXTENSION), new byte[]{0, 0, 0, 0, 0, 0, 0, 2, 42},
+                StandardOpenOption.APPEND);
+
+    try (ReplayArchive archive = new ReplayArchive(dataFilePath, false)) {
+      assertEquals(2, archive.getGameCount());
+      assertSameReplay(secondGame, archive.getReplay(1));
+    }
+
+    // The next game added takes the unfinished game's place
+    try (ReplayArchive archive = new ReplayArchive(dataFilePath, true)) {
+      assertEquals(2, archive.addReplay(thirdGame));
+      assertSameReplay(thirdGame, archive.getReplay(2));
+      assertSameReplay(firstGame, archive.getReplay(0));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  // Tests that asking for a game past the end of the archive fails instead of reading past the index
+  public void testReadMissingGame() throws IOException {
+    try (ReplayArchive archive = new ReplayArchive(dataFilePath, true)) {
+      archive.addReplay(firstGame);
+      archive.getReplay(1);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.replay.Replay;
+import mineopoly_three.replay.ReplayVerificationResult;
+import mineopoly_three.replay.ReplayVerifier;
+import mineopoly_three.strategy.AssignmentStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReplayVerifierTest {
+  private static final int boardSize = 14;
+  private static final long seed = 7;
+
+  // Plays every turn like a random player, then throws once the game is over
+  private static class ThrowsInEndRoundStrategy extends RandomStrategy {
+    @Override
+    public void endRound(int totalRedPoints, int totalBluePoints) {
+      throw new IllegalStateException("Thrown at the end of the round");
+    }
+  }
+
+  private static Replay recordGame(GameEngine engine) {
+    engine.runGame();
+    return engine.getReplay();
+  }
+
+  @Test
+  // Tests that a game is re-simulated to the same scores it was recorded with
+  public void testMatchingGame() {
+    Replay replay = recordGame(new GameEngine(boardSize, new AssignmentStrategy(), new RandomStrategy(), seed));
+
+    ReplayVerificationResult result = ReplayVerifier.verifyReplay(0, replay);
+    assertTrue(result.matchesRecording());
+    assertEquals(replay.getRedFinalScore(), result.getRedScore());
+    assertEquals(replay.getBlueFinalScore(), result.getBlueScore());
+  }
+
+  @Test
+  // Tests that a player who threw in endRound, after playing every turn, is replayed as throwing there too
+  public void testExceptionInEndRound() {
+    Replay replay = recordGame(new GameEngine(boardSize, new RandomStrategy(), new ThrowsInEndRoundStrategy(), seed));
+    assertFalse(replay.redThrewException());
+    assertTrue(replay.blueThrewException());
+    assertEquals(-1, replay.getBlueFinalScore());
+
+    ReplayVerificationResult result = ReplayVerifier.verifyReplay(0, replay);
+    assertTrue(result.matchesRecording());
+    assertTrue(result.blueThrewException());
+    assertEquals(-1, result.getBlueScore());
+  }
+}
@@ -4,39 +4,73 @@ import java.lang.String;
 
 /**
  * Takes in and evaluates a string representing a tic-tac-toe board.
+ *
+ * A board is packed into two 9-bit masks, one for the X markings and one
+ * for the O markings, with bit i set if square i holds that marking. Every
+ * one of the 3^9 possible boards is evaluated once when the class is loaded,
+ * so evaluating a board afterwards is a single table lookup.
  */
 public class TicTacToeBoard {
 
-  // Supposed to be a 9 character-long string depicting a 3x3 tic-tac-toe grid
-  // with Xs and Os depicting player markings and other symbols depicting
-  // empty spaces
-  private String board;
-
-  private int boardLength;
+  private static final int BOARD_LENGTH = 9;
+  private static final int NUM_BOARD_STATES = 19683; // 3^9
 
+  // The squares of every 3-in-a-row as bitmasks, squares numbered 0-8 row by row
   // From https://www.geeksforgeeks.org/validity-of-a-given-tic-tac-toe-board-configuration/
-  private static final int[][] WIN_COMBINATIONS = {
-      {0, 1, 2},
-      {3, 4, 5}, // Check second Row
-      {6, 7, 8}, // Check third Row
-      {0, 3, 6}, // Check first column
-      {1, 4, 7}, // Check second Column
-      {2, 5, 8}, // Check third Column
-      {0, 4, 8}, // Check first Diagonal
-      {2, 4, 6}  // Check second diagonal
+  private static final int[] WIN_MASKS = {
+      0b000_000_111, // Check first row
+      0b000_111_000, // Check second Row
+      0b111_000_000, // Check third Row
+      0b001_001_001, // Check first column
+      0b010_010_010, // Check second Column
+      0b100_100_100, // Check third Column
+      0b100_010_001, // Check first Diagonal
+      0b001_010_100  // Check second diagonal
   };
 
+  // The evaluation of every board, indexed by the sum of (marker ID * 3^i)
+  // over every square i
+  private static final Evaluation[] EVALUATIONS = new Evaluation[NUM_BOARD_STATES];
+
+  // The marker ID of every ASCII character, every other character is empty
+  private static final byte[] MARKER_IDS = new byte[128];
+
+  static {
+    for (char symbol = 0; symbol < MARKER_IDS.length; ++symbol) {
+      MARKER_IDS[symbol] = (byte) getGameMarkerID(symbol);
+    }
+
+    for (int stateIndex = 0; stateIndex < NUM_BOARD_STATES; ++stateIndex) {
+      int xMask = 0;
+      int oMask = 0;
+      int remainingSquares = stateIndex;
+      for (int idx = 0; idx < BOARD_LENGTH; ++idx) {
+        int markerID = remainingSquares % 3;
+        remainingSquares /= 3;
+        if (markerID == 1) {
+          xMask |= 1 << idx;
+        } else if (markerID == 2) {
+          oMask |= 1 << idx;
+        }
+      }
+
+      EVALUATIONS[stateIndex] = evaluateMasks(xMask, oMask);
+    }
+  }
+
+  // Index of this board in EVALUATIONS
+  private final int stateIndex;
+
   /**
    * This method should load a string into your TicTacToeBoard class.
    * @param board The string representing the board
    */
   public TicTacToeBoard(String board) {
-    this.board = board;
-    this.boardLength = board.length();
-
-    if (isInvalidBoard()) {
+    if (isInvalidBoard(board)) {
       throw new IllegalArgumentException("Board must be 9 characters in length.");
     }
+
+    this.stateIndex = getStateIndex(board);
   }
 
   /**
@@ -44,109 +78,88 @@ public class TicTacToeBoard {
    * @return an enum value corresponding to the board evaluation
    */
   public Evaluation evaluate() {
-    if (isReachable()) {
-      switch (getWinner()) {
-        case 0:
-          return Evaluation.NoWinner;
-        case 1:
-          return Evaluation.Xwins;
-        case 2:
-          return Evaluation.Owins;
-        default:
-          return Evaluation.UnreachableState;
-      }
-    } else {
-      return Evaluation.UnreachableState;
-    }
+    return EVALUATIONS[stateIndex];
   }
 
-  private boolean isInvalidBoard() {
-    return boardLength != 9;
+  /**
+   * Checks the state of a board without creating a TicTacToeBoard, for
+   * evaluating many boards without allocating anything
+   * @param board The characters representing the board
+   * @return an enum value corresponding to the board evaluation
+   */
+  public static Evaluation evaluate(CharSequence board) {
+    if (isInvalidBoard(board)) {
+      throw new IllegalArgumentException("Board must be 9 characters in length.");
+    }
+
+    return EVALUATIONS[getStateIndex(board)];
   }
 
-  private boolean isReachable() {
+  /**
+   * Checks the state of a board packed into bitmasks, with bit i set if
+   * square i holds that player's marking
+   * @param xMask The squares marked by X
+   * @param oMask The squares marked by O
+   * @return an enum value corresponding to the board evaluation
+   */
+  public static Evaluation evaluateMasks(int xMask, int oMask) {
+    if ((xMask & oMask) != 0 || ((xMask | oMask) >>> BOARD_LENGTH) != 0) {
+      throw new IllegalArgumentException("Masks must mark 9 squares at most once each.");
+    }
+
     // Verifies correct number of markings for each player
-    int xCount = getXCount();
-    int oCount = getOCount();
+    int xCount = Integer.bitCount(xMask);
+    int oCount = Integer.bitCount(oMask);
     if (xCount != oCount && xCount != oCount + 1) {
-      return false;
+      return Evaluation.UnreachableState;
     }
 
     // Verifies that both players have not won
-    boolean xWon = xIsWinner();
-    boolean oWon = oIsWinner();
+    boolean xWon = isWinner(xMask);
+    boolean oWon = isWinner(oMask);
     if (xWon && oWon) {
-      return false;
+      return Evaluation.UnreachableState;
     }
 
     // Verifies that if O won, the number of O markings is equal to X markings
     if (oWon && oCount != xCount) {
-      return false;
+      return Evaluation.UnreachableState;
     }
 
     // Verifies that if X won, the number of X markings is one more than
     // the number of O markings
     if (xWon && xCount != oCount + 1) {
-      return false;
+      return Evaluation.UnreachableState;
     }
 
-    return true;
-  }
-
-  private int getWinner() {
-    assert(isReachable());
-
-    if (xIsWinner()) {
-      return 1;
-    } else if (oIsWinner()) {
-      return 2;
+    if (xWon) {
+      return Evaluation.Xwins;
+    } else if (oWon) {
+      return Evaluation.Owins;
     } else {
-      return 0;
+      return Evaluation.NoWinner;
     }
-
   }
 
-  private int getXCount() {
-    int xCount = 0;
-    for (int idx = 0; idx < boardLength; ++idx) {
-      if (getGameMarkerID(board.charAt(idx)) == 1) {
-        ++xCount;
-      }
-    }
-
-    return xCount;
-  }
-
-  private int getOCount() {
-    int oCount = 0;
-    for (int idx = 0; idx < boardLength; ++idx) {
-      if (getGameMarkerID(board.charAt(idx)) == 2) {
-        ++oCount;
-      }
-    }
-
-    return oCount;
+  private static boolean isInvalidBoard(CharSequence board) {
+    return board.length() != BOARD_LENGTH;
   }
 
-  private boolean xIsWinner() {
-    // Checks each combination for 3-in-a-row
-    for (int[] winCombo : WIN_COMBINATIONS) {
-      if (getGameMarkerID(board.charAt(winCombo[0])) == 1
-          && getGameMarkerID(board.charAt(winCombo[1])) == 1
-          && getGameMarkerID(board.charAt(winCombo[2])) == 1) {
-        return true;
-      }
+  private static int getStateIndex(CharSequence board) {
+    int stateIndex = 0;
+    for (int idx = BOARD_LENGTH - 1; idx >= 0; --idx) {
+      char symbol = board.charAt(idx);
+      int markerID = (symbol < MARKER_IDS.length) ? MARKER_IDS[symbol] : 0;
+      stateIndex = stateIndex * 3 + markerID;
     }
 
-    return false;
+    return stateIndex;
   }
 
-  private boolean oIsWinner() {
+  private static boolean isWinner(int playerMask) {
     // Checks each combination for 3-in-a-row
-    for (int[] winCombo : WIN_COMBINATIONS) {
-      if (getGameMarkerID(board.charAt(winCombo[0])) == 2
-          && getGameMarkerID(board.charAt(winCombo[1])) == 2
-          && getGameMarkerID(board.charAt(winCombo[2])) == 2) {
+    for (int winMask : WIN_MASKS) {
+      if ((playerMask & winMask) == winMask) {
         return true;
       }
     }
@@ -154,7 +167,7 @@ public class TicTacToeBoard {
     return false;
   }
 
-  private int getGameMarkerID(char symbol) {
+  private static int getGameMarkerID(char symbol) {
     if (symbol == 'x' || symbol == 'X') {
       return 1;
     } else if (symbol == 'o' || symbol == 'O') {
@@ -69,4 +69,26 @@ public class TicTacToeBoardTest {
 
     assertEquals(exceptionThrown, true);
   }
+
+  @Test
+  public void testStaticEvaluateMatchesBoard() {
+    String[] boards = {"O...X.X..", "xxx.o.o..", "X.O.O.OXX", "X.O.X.OXX", "XXX...OOO"};
+    for (String board : boards) {
+      assertEquals(new TicTacToeBoard(board).evaluate(), TicTacToeBoard.evaluate(board));
+    }
+  }
+
+  @Test
+  public void testEvaluateMasks() {
+    // X on the first diagonal (squares 0, 4, 8), O on squares 1 and 2
+    assertEquals(Evaluation.Xwins, TicTacToeBoard.evaluateMasks(0b100_010_001, 0b000_000_110));
+    // O won, but with more markings than X
+    assertEquals(Evaluation.UnreachableState, TicTacToeBoard.evaluateMasks(0b000_011_000, 0b000_000_111));
+    assertEquals(Evaluation.NoWinner, TicTacToeBoard.evaluateMasks(0, 0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStaticEvaluateInvalidBoard() {
+    TicTacToeBoard.evaluate("XXXoo");
+  }
 }